@@ -1,14 +1,31 @@
 package org.example;
 
+import org.example.server.ExpenseServer;
+import org.example.server.LoadGenerator;
+import org.example.service.ExpenseManager;
 import org.example.ui.MainFrame;
 import javax.swing.*;
+import java.util.Arrays;
 
 /**
  * Main Application Entry Point
  * Modul 3: Modern Programming Environment
+ *
+ * Tanpa argumen: aplikasi desktop (Swing)
+ * --server [port]                              : API JSON headless (lihat ExpenseServer)
+ * --load-test [baseUrl] [klien] [detik] [%tulis]: load generator untuk server yang sedang jalan
  */
 public class App {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : ExpenseServer.DEFAULT_PORT);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--load-test")) {
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // Set Look and Feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -22,4 +39,15 @@ public class App {
             frame.setVisible(true);
         });
     }
-}
\ No newline at end of file
+
+    private static void runServer(int port) throws Exception {
+        ExpenseManager manager = new ExpenseManager();
+        ExpenseServer server = new ExpenseServer(manager, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            manager.close();
+        }));
+        server.start();
+        System.out.println("Expense server berjalan di http://localhost:" + server.getPort());
+    }
+}
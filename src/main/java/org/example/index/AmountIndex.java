@@ -0,0 +1,114 @@
+package org.example.index;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Index nominal: amount (sen) -> daftar ID expense dengan amount itu
+ * Amount unik disimpan di TreeMap, jadi amount baru cukup O(log A) tanpa menggeser
+ * array; sort by amount dan top-K tinggal membaca bucket dari amount terbesar.
+ * Posisi setiap ID di dalam bucket-nya dicatat (array per ID), jadi hapus satu ID
+ * adalah swap-remove O(1) setelah bucket ditemukan, bukan scan bucket.
+ * Saat index ulang seluruh tabel pakai build(): amount diurutkan sekali lalu
+ * bucket diisi dalam satu lintasan.
+ */
+public class AmountIndex {
+    private final TreeMap<Long, IntList> buckets = new TreeMap<>();
+    // Posisi ID di bucket-nya (indeks = ID)
+    private int[] positions = new int[16];
+    private int size;
+
+    /**
+     * Bangun index dari kolom ID dan amount sekaligus (count baris pertama)
+     */
+    public static AmountIndex build(int[] ids, long[] amounts, int count) {
+        AmountIndex index = new AmountIndex();
+        long[] sorted = Arrays.copyOf(amounts, count);
+        Arrays.sort(sorted);
+
+        // Amount unik + ukuran bucket-nya, jadi kapasitas setiap bucket pas
+        long[] distinct = new long[count];
+        int[] sizes = new int[count];
+        int distinctCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinctCount == 0 || sorted[i] != distinct[distinctCount - 1]) {
+                distinct[distinctCount++] = sorted[i];
+            }
+            sizes[distinctCount - 1]++;
+        }
+        IntList[] lists = new IntList[distinctCount];
+        for (int slot = 0; slot < distinctCount; slot++) {
+            lists[slot] = new IntList(sizes[slot]);
+        }
+
+        int maxId = -1;
+        for (int i = 0; i < count; i++) {
+            maxId = Math.max(maxId, ids[i]);
+        }
+        index.positions = new int[Math.max(16, maxId + 1)];
+        for (int i = 0; i < count; i++) {
+            IntList bucket = lists[Arrays.binarySearch(distinct, 0, distinctCount, amounts[i])];
+            index.positions[ids[i]] = bucket.size();
+            bucket.add(ids[i]);
+        }
+        for (int slot = 0; slot < distinctCount; slot++) {
+            index.buckets.put(distinct[slot], lists[slot]);
+        }
+        index.size = count;
+        return index;
+    }
+
+    public void add(int id, long amountSen) {
+        IntList bucket = buckets.get(amountSen);
+        if (bucket == null) {
+            bucket = new IntList();
+            buckets.put(amountSen, bucket);
+        }
+        if (id >= positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(id + 1, positions.length << 1));
+        }
+        positions[id] = bucket.size();
+        bucket.add(id);
+        size++;
+    }
+
+    /**
+     * @return true jika ID ada dengan amount tersebut
+     */
+    public boolean remove(int id, long amountSen) {
+        IntList bucket = buckets.get(amountSen);
+        if (bucket == null || id < 0 || id >= positions.length) {
+            return false;
+        }
+        int position = positions[id];
+        if (position >= bucket.size() || bucket.get(position) != id) {
+            return false;
+        }
+        int last = bucket.get(bucket.size() - 1);
+        bucket.removeAt(position);
+        positions[last] = position;
+        size--;
+        if (bucket.isEmpty()) {
+            buckets.remove(amountSen);
+        }
+        return true;
+    }
+
+    /**
+     * Kunjungi ID dari amount terbesar; berhenti saat action mengembalikan false
+     */
+    public void forEachDescending(IntPredicate action) {
+        for (IntList bucket : buckets.descendingMap().values()) {
+            for (int i = 0; i < bucket.size(); i++) {
+                if (!action.test(bucket.get(i))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
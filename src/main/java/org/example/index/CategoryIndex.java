@@ -0,0 +1,107 @@
+package org.example.index;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Inverted index kategori: kode kategori (lihat CategoryRegistry) -> bitmap ID expense + total berjalan
+ * Bucket disimpan di array yang diindeks kode, jadi tidak ada hashing nama kategori
+ * saat index diperbarui; total per kategori tinggal dibaca dari bucket (O(jumlah kategori)).
+ * Tiap bucket juga punya DayRangeTotals, jadi total per kategori dalam
+ * rentang tanggal bebas cukup O(jumlah kategori * (C + log B)), dengan blok hari yang sparse.
+ */
+public class CategoryIndex {
+    private static class Bucket {
+        final BitSet ids = new BitSet();
+        final DayRangeTotals days = new DayRangeTotals();
+        int count;
+        long totalSen;
+    }
+
+    private Bucket[] buckets = new Bucket[16];
+
+    public void add(int id, int category, long amountSen, LocalDate date) {
+        if (category >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(category + 1, buckets.length << 1));
+        }
+        Bucket bucket = buckets[category];
+        if (bucket == null) {
+            bucket = buckets[category] = new Bucket();
+        }
+        if (!bucket.ids.get(id)) {
+            bucket.ids.set(id);
+            bucket.count++;
+            bucket.totalSen += amountSen;
+            bucket.days.add(date, amountSen);
+        }
+    }
+
+    public void remove(int id, int category, long amountSen, LocalDate date) {
+        Bucket bucket = bucket(category);
+        if (bucket == null || !bucket.ids.get(id)) {
+            return;
+        }
+        bucket.ids.clear(id);
+        bucket.count--;
+        bucket.totalSen -= amountSen;
+        bucket.days.remove(date, amountSen);
+        if (bucket.count == 0) {
+            buckets[category] = null;
+        }
+    }
+
+    public boolean contains(int category, int id) {
+        Bucket bucket = bucket(category);
+        return bucket != null && bucket.ids.get(id);
+    }
+
+    public int count(int category) {
+        Bucket bucket = bucket(category);
+        return bucket == null ? 0 : bucket.count;
+    }
+
+    /**
+     * Kunjungi ID dalam satu kategori (urut ID)
+     */
+    public void forEach(int category, IntConsumer action) {
+        Bucket bucket = bucket(category);
+        if (bucket == null) {
+            return;
+        }
+        for (int id = bucket.ids.nextSetBit(0); id >= 0; id = bucket.ids.nextSetBit(id + 1)) {
+            action.accept(id);
+        }
+    }
+
+    /**
+     * Total berjalan per kode kategori dalam sen (indeks = kode)
+     */
+    public long[] totals() {
+        long[] totals = new long[buckets.length];
+        for (int category = 0; category < buckets.length; category++) {
+            if (buckets[category] != null) {
+                totals[category] = buckets[category].totalSen;
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Total per kode kategori dalam rentang tanggal (sen, indeks = kode)
+     */
+    public long[] totals(LocalDate startDate, LocalDate endDate) {
+        long[] totals = new long[buckets.length];
+        for (int category = 0; category < buckets.length; category++) {
+            if (buckets[category] != null) {
+                totals[category] = buckets[category].days.sum(startDate, endDate);
+            }
+        }
+        return totals;
+    }
+
+    private Bucket bucket(int category) {
+        return category >= 0 && category < buckets.length ? buckets[category] : null;
+    }
+}
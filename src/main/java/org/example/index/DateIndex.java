@@ -0,0 +1,130 @@
+package org.example.index;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Index tanggal: hari (epoch-day) terurut -> daftar ID expense pada hari itu
+ * Batas rentang dicari dengan binary search di array hari, lalu hanya bucket
+ * di dalam rentang yang dibaca. Hari yang bucket-nya kosong langsung dibuang.
+ */
+public class DateIndex {
+    private int[] days = new int[16];
+    private IntList[] buckets = new IntList[16];
+    private int dayCount;
+    private int size;
+
+    /**
+     * Epoch-day sebagai int; LocalDate.MIN/MAX dijepit ke batas int
+     */
+    public static int dayOf(LocalDate date) {
+        long day = date.toEpochDay();
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, day));
+    }
+
+    public void add(int id, LocalDate date) {
+        int day = dayOf(date);
+        int slot = Arrays.binarySearch(days, 0, dayCount, day);
+        if (slot < 0) {
+            slot = -slot - 1;
+            insertDay(slot, day);
+        }
+        buckets[slot].add(id);
+        size++;
+    }
+
+    /**
+     * @return true jika ID ada pada tanggal tersebut
+     */
+    public boolean remove(int id, LocalDate date) {
+        int slot = Arrays.binarySearch(days, 0, dayCount, dayOf(date));
+        if (slot < 0 || !buckets[slot].removeValue(id)) {
+            return false;
+        }
+        size--;
+        if (buckets[slot].isEmpty()) {
+            removeDay(slot);
+        }
+        return true;
+    }
+
+    private void insertDay(int slot, int day) {
+        if (dayCount == days.length) {
+            days = Arrays.copyOf(days, dayCount << 1);
+            buckets = Arrays.copyOf(buckets, dayCount << 1);
+        }
+        System.arraycopy(days, slot, days, slot + 1, dayCount - slot);
+        System.arraycopy(buckets, slot, buckets, slot + 1, dayCount - slot);
+        days[slot] = day;
+        buckets[slot] = new IntList();
+        dayCount++;
+    }
+
+    private void removeDay(int slot) {
+        System.arraycopy(days, slot + 1, days, slot, dayCount - slot - 1);
+        System.arraycopy(buckets, slot + 1, buckets, slot, dayCount - slot - 1);
+        buckets[--dayCount] = null;
+    }
+
+    /**
+     * Posisi hari pertama yang >= day
+     */
+    private int lowerBound(int day) {
+        int slot = Arrays.binarySearch(days, 0, dayCount, day);
+        return slot >= 0 ? slot : -slot - 1;
+    }
+
+    /**
+     * Kunjungi ID dalam rentang tanggal [start, end], urut dari tanggal terlama
+     */
+    public void forEachInRange(LocalDate start, LocalDate end, IntConsumer action) {
+        int to = dayOf(end);
+        for (int slot = lowerBound(dayOf(start)); slot < dayCount && days[slot] <= to; slot++) {
+            buckets[slot].forEach(action);
+        }
+    }
+
+    /**
+     * Kunjungi semua ID dari tanggal terbaru; berhenti saat action mengembalikan false
+     */
+    public void forEachDescending(IntPredicate action) {
+        for (int slot = dayCount - 1; slot >= 0; slot--) {
+            IntList bucket = buckets[slot];
+            for (int i = 0; i < bucket.size(); i++) {
+                if (!action.test(bucket.get(i))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Kunjungi ID pada setiap hari yang lolos predicate (dicek sekali per hari, bukan per baris)
+     */
+    public void forEachMatchingDay(Predicate<LocalDate> matches, IntConsumer action) {
+        for (int slot = 0; slot < dayCount; slot++) {
+            if (matches.test(LocalDate.ofEpochDay(days[slot]))) {
+                buckets[slot].forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Jumlah ID dalam rentang tanggal, tanpa menyentuh data expense
+     */
+    public int count(LocalDate start, LocalDate end) {
+        int to = dayOf(end);
+        int count = 0;
+        for (int slot = lowerBound(dayOf(start)); slot < dayCount && days[slot] <= to; slot++) {
+            count += buckets[slot].size();
+        }
+        return count;
+    }
+
+    public int size() {
+        return size;
+    }
+}
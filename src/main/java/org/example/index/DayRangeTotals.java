@@ -0,0 +1,146 @@
+package org.example.index;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Fenwick tree (binary indexed tree) atas epoch-day: total pengeluaran antara
+ * dua tanggal bebas dalam O(log B + log C), update satu hari juga O(log B + log C).
+ * Nominal dalam sen (long), jadi total selalu eksak.
+ * Hari dibagi ke blok B = 256 hari; hanya blok yang pernah diisi yang dialokasikan
+ * (terurut, dicari dengan binary search), masing-masing dengan Fenwick tree sendiri.
+ * Tanggal yang berjauhan tidak membuat array padat selebar seluruh rentang.
+ * Total per blok disimpan lagi di Fenwick tree tingkat blok (C = jumlah blok terisi),
+ * jadi query = prefix tingkat blok + dua prefix di blok ujung, tanpa menelusuri blok.
+ * Blok baru menggeser posisi, jadi Fenwick tingkat blok dibangun ulang O(C) saat itu saja.
+ */
+public class DayRangeTotals {
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static class Chunk {
+        final long[] tree = new long[CHUNK_SIZE + 1];
+        long total;
+
+        void add(int offset, long amountSen) {
+            total += amountSen;
+            for (int i = offset + 1; i <= CHUNK_SIZE; i += i & -i) {
+                tree[i] += amountSen;
+            }
+        }
+
+        /**
+         * Total offset [0, length)
+         */
+        long prefix(int length) {
+            long sum = 0;
+            for (int i = length; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+    }
+
+    private int[] keys = new int[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int chunkCount;
+    // Fenwick atas total blok, indeks = posisi blok + 1
+    private long[] blockTree = new long[5];
+
+    public void add(LocalDate date, long amountSen) {
+        int day = DateIndex.dayOf(date);
+        int slot = slot(day >> CHUNK_BITS);
+        chunks[slot].add(day & CHUNK_MASK, amountSen);
+        for (int i = slot + 1; i < blockTree.length; i += i & -i) {
+            blockTree[i] += amountSen;
+        }
+    }
+
+    public void remove(LocalDate date, long amountSen) {
+        add(date, -amountSen);
+    }
+
+    /**
+     * Total (sen) dari startDate sampai endDate (inklusif)
+     */
+    public long sum(LocalDate startDate, LocalDate endDate) {
+        if (chunkCount == 0 || startDate.isAfter(endDate)) {
+            return 0;
+        }
+        int from = DateIndex.dayOf(startDate);
+        int to = DateIndex.dayOf(endDate);
+        int first = from >> CHUNK_BITS;
+        int last = to >> CHUNK_BITS;
+
+        // Blok terisi di posisi [low, high)
+        int low = lowerBound(first);
+        int high = lowerBound(last + 1);
+        if (low >= high) {
+            return 0;
+        }
+
+        long total = blockPrefix(high) - blockPrefix(low);
+        if (keys[low] == first) {
+            total -= chunks[low].prefix(from & CHUNK_MASK);
+        }
+        if (keys[high - 1] == last) {
+            Chunk chunk = chunks[high - 1];
+            total -= chunk.total - chunk.prefix((to & CHUNK_MASK) + 1);
+        }
+        return total;
+    }
+
+    /**
+     * Total blok di posisi [0, length)
+     */
+    private long blockPrefix(int length) {
+        long sum = 0;
+        for (int i = length; i > 0; i -= i & -i) {
+            sum += blockTree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Posisi blok pertama yang key-nya >= key
+     */
+    private int lowerBound(int key) {
+        int slot = Arrays.binarySearch(keys, 0, chunkCount, key);
+        return slot >= 0 ? slot : -slot - 1;
+    }
+
+    /**
+     * Posisi blok untuk key; blok baru disisipkan dan Fenwick tingkat blok dibangun ulang
+     */
+    private int slot(int key) {
+        int slot = Arrays.binarySearch(keys, 0, chunkCount, key);
+        if (slot >= 0) {
+            return slot;
+        }
+        slot = -slot - 1;
+        if (chunkCount == keys.length) {
+            keys = Arrays.copyOf(keys, chunkCount << 1);
+            chunks = Arrays.copyOf(chunks, chunkCount << 1);
+            blockTree = new long[keys.length + 1];
+        }
+        System.arraycopy(keys, slot, keys, slot + 1, chunkCount - slot);
+        System.arraycopy(chunks, slot, chunks, slot + 1, chunkCount - slot);
+        keys[slot] = key;
+        chunks[slot] = new Chunk();
+        chunkCount++;
+
+        // Bangun linear: setiap node meneruskan isinya ke parent
+        Arrays.fill(blockTree, 0);
+        for (int i = 1; i < blockTree.length; i++) {
+            if (i <= chunkCount) {
+                blockTree[i] += chunks[i - 1].total;
+            }
+            int parent = i + (i & -i);
+            if (parent < blockTree.length) {
+                blockTree[parent] += blockTree[i];
+            }
+        }
+        return slot;
+    }
+}
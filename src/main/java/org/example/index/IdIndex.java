@@ -0,0 +1,146 @@
+package org.example.index;
+
+import java.util.Arrays;
+
+/**
+ * Hash map int -> int (ID expense -> posisi di list) dengan open addressing
+ * Linear probing di dua array primitif, jadi tidak ada boxing Integer dan
+ * tidak ada objek entry per baris. Hapus memakai backward-shift sehingga
+ * tidak meninggalkan tombstone.
+ */
+public class IdIndex {
+    private static final int MISSING = -1;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IdIndex() {
+        this(16);
+    }
+
+    public IdIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Posisi untuk ID, atau -1 jika tidak ada
+     */
+    public int get(int key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    public boolean contains(int key) {
+        return get(key) != MISSING;
+    }
+
+    /**
+     * Simpan/timpa posisi untuk ID (posisi harus >= 0)
+     */
+    public void put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Posisi tidak boleh negatif: " + value);
+        }
+        int slot = hash(key) & mask;
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Hapus ID
+     *
+     * @return posisi lama, atau -1 jika tidak ada
+     */
+    public int remove(int key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != MISSING) {
+            if (keys[slot] == key) {
+                int old = values[slot];
+                shiftBack(slot);
+                size--;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Geser entry setelah slot kosong supaya rantai probing tetap utuh
+     */
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != MISSING) {
+            int home = hash(keys[next]) & mask;
+            // Entry boleh mengisi gap jika home-nya tidak berada di antara gap dan posisinya sekarang
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = MISSING;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Salinan independen (dipakai pembaca di thread lain)
+     */
+    public IdIndex copy() {
+        IdIndex copy = new IdIndex();
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.mask = mask;
+        copy.size = size;
+        return copy;
+    }
+}
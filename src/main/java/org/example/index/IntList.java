@@ -0,0 +1,71 @@
+package org.example.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * List int primitif yang bisa tumbuh (tanpa boxing)
+ */
+public class IntList {
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(4);
+    }
+
+    public IntList(int capacity) {
+        values = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Hapus satu kemunculan nilai dengan swap-remove (urutan tidak dipertahankan)
+     *
+     * @return true jika nilai ditemukan
+     */
+    public boolean removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                values[i] = values[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hapus elemen di posisi index dengan swap-remove: elemen terakhir mengisi posisi itu
+     */
+    public void removeAt(int index) {
+        values[index] = values[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
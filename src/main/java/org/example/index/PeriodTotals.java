@@ -0,0 +1,92 @@
+package org.example.index;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Total pengeluaran per hari dan per bulan, diperbarui dengan delta
+ * setiap kali ada add/update/delete. Disimpan per blok array yang diindeks
+ * epoch-day (dan nomor bulan), jadi "total hari ini" atau "total bulan ini"
+ * cukup satu binary search kecil dan satu baca array. Pergantian hari tidak perlu
+ * hitung ulang: kuncinya tanggal, bukan "hari ini". Nominal dalam sen (long).
+ */
+public class PeriodTotals {
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Deret key (int) -> total, dalam blok 256 key yang dialokasikan saat
+     * pertama dipakai; key yang berjauhan tidak membuat array selebar seluruh rentang
+     */
+    private static class Series {
+        private int[] keys = new int[4];
+        private long[][] totals = new long[4][];
+        private int chunkCount;
+
+        void add(int key, long amountSen) {
+            int slot = chunk(key >> CHUNK_BITS);
+            totals[slot][key & CHUNK_MASK] += amountSen;
+        }
+
+        long total(int key) {
+            int slot = Arrays.binarySearch(keys, 0, chunkCount, key >> CHUNK_BITS);
+            return slot >= 0 ? totals[slot][key & CHUNK_MASK] : 0;
+        }
+
+        /**
+         * Posisi blok untuk key blok, dibuat jika belum ada
+         */
+        private int chunk(int chunkKey) {
+            int slot = Arrays.binarySearch(keys, 0, chunkCount, chunkKey);
+            if (slot >= 0) {
+                return slot;
+            }
+            slot = -slot - 1;
+            if (chunkCount == keys.length) {
+                keys = Arrays.copyOf(keys, chunkCount << 1);
+                totals = Arrays.copyOf(totals, chunkCount << 1);
+            }
+            System.arraycopy(keys, slot, keys, slot + 1, chunkCount - slot);
+            System.arraycopy(totals, slot, totals, slot + 1, chunkCount - slot);
+            keys[slot] = chunkKey;
+            totals[slot] = new long[CHUNK_SIZE];
+            chunkCount++;
+            return slot;
+        }
+    }
+
+    private final Series days = new Series();
+    private final Series months = new Series();
+
+    /**
+     * Nomor bulan sejak tahun 0, dijepit ke batas int seperti DateIndex.dayOf
+     */
+    private static int monthKey(int year, int month) {
+        long key = year * 12L + month - 1;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, key));
+    }
+
+    private static int monthKey(LocalDate date) {
+        return monthKey(date.getYear(), date.getMonthValue());
+    }
+
+    public void add(LocalDate date, long amountSen) {
+        days.add(DateIndex.dayOf(date), amountSen);
+        months.add(monthKey(date), amountSen);
+    }
+
+    public void remove(LocalDate date, long amountSen) {
+        days.add(DateIndex.dayOf(date), -amountSen);
+        months.add(monthKey(date), -amountSen);
+    }
+
+    public long dayTotal(LocalDate date) {
+        return days.total(DateIndex.dayOf(date));
+    }
+
+    public long monthTotal(YearMonth month) {
+        return months.total(monthKey(month.getYear(), month.getMonthValue()));
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.index;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index trigram (3 karakter, huruf kecil) -> daftar ID expense
+ * Dipakai untuk pencarian substring: kandidat = irisan dua posting list
+ * trigram paling jarang di kata kunci, lalu diverifikasi oleh pemanggil.
+ * Hapus/ubah tidak menghapus posting (hanya dihitung sebagai stale) karena
+ * verifikasi tetap membuang kandidat yang sudah tidak cocok; pemanggil
+ * membangun ulang index jika entry stale sudah terlalu banyak.
+ */
+public class TrigramIndex {
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private int staleCount;
+
+    /**
+     * Key unik per trigram. Dikali konstanta ganjil (bijektif) supaya Long.hashCode tersebar;
+     * tanpa itu trigram ASCII hanya mengisi ~128 bucket HashMap.
+     */
+    private static long key(char a, char b, char c) {
+        return (((long) a << 32) | ((long) b << 16) | c) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Index semua trigram di teks untuk satu ID.
+     * Trigram yang berulang untuk ID yang sama (berurutan) hanya dicatat sekali.
+     */
+    public void add(int id, String text) {
+        if (text == null || text.length() < 3) {
+            return;
+        }
+        char a = Character.toLowerCase(text.charAt(0));
+        char b = Character.toLowerCase(text.charAt(1));
+        for (int i = 2; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            IntList posting = postings.computeIfAbsent(key(a, b, c), k -> new IntList(2));
+            if (posting.isEmpty() || posting.get(posting.size() - 1) != id) {
+                posting.add(id);
+            }
+            a = b;
+            b = c;
+        }
+    }
+
+    /**
+     * Catat bahwa satu baris berubah/dihapus (posting lamanya jadi stale)
+     */
+    public void markStale() {
+        staleCount++;
+    }
+
+    public int getStaleCount() {
+        return staleCount;
+    }
+
+    /**
+     * Kandidat ID untuk kata kunci: irisan dua posting list terpendek
+     * di antara trigram kata kunci. Bisa berisi ID ganda atau stale.
+     *
+     * @return null jika kata kunci kurang dari 3 karakter (tidak bisa pakai index)
+     */
+    public IntList candidates(String term) {
+        if (term.length() < 3) {
+            return null;
+        }
+        IntList best = null;
+        IntList second = null;
+        for (int i = 2; i < term.length(); i++) {
+            IntList posting = postings.get(key(Character.toLowerCase(term.charAt(i - 2)),
+                    Character.toLowerCase(term.charAt(i - 1)), Character.toLowerCase(term.charAt(i))));
+            if (posting == null) {
+                return new IntList(1);
+            }
+            if (posting == best || posting == second) {
+                continue;
+            }
+            if (best == null || posting.size() < best.size()) {
+                second = best;
+                best = posting;
+            } else if (second == null || posting.size() < second.size()) {
+                second = posting;
+            }
+        }
+        if (second == null) {
+            return best;
+        }
+
+        BitSet marked = new BitSet();
+        best.forEach(marked::set);
+        IntList result = new IntList(best.size());
+        second.forEach(id -> {
+            if (marked.get(id)) {
+                result.add(id);
+                marked.clear(id);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daftar kategori pusat: nama kategori -> kode int kecil (0, 1, 2, ...)
+ * Penyimpanan kolumnar, index, dan total per kategori memakai kode ini,
+ * nama dan ikon hanya dibaca saat ditampilkan.
+ * Kategori bawaan selalu ada; kategori buatan pengguna ditambahkan lewat
+ * register() (dari form, dari data yang dimuat, atau dari file categories.csv).
+ */
+public class CategoryRegistry {
+    public static final int MAX_CATEGORIES = 1 << 16;
+    public static final String DEFAULT_ICON = "📦";
+
+    private static final String[][] DEFAULTS = {
+            {"Makanan & Minuman", "🍔"},
+            {"Transport & Bensin", "🚗"},
+            {"Pendidikan & Buku", "📚"},
+            {"Hiburan & Hobi", "🎮"},
+            {"Kesehatan", "💊"},
+            {"Fashion & Pakaian", "👕"},
+            {"Teknologi & Gadget", "📱"},
+            {"Kebutuhan Rumah", "🏠"},
+            {"Lainnya", "💡"}
+    };
+
+    private final List<String> names = new ArrayList<>();
+    private final List<String> icons = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    /**
+     * Registry berisi kategori bawaan
+     */
+    public static CategoryRegistry withDefaults() {
+        CategoryRegistry registry = new CategoryRegistry();
+        for (String[] category : DEFAULTS) {
+            registry.register(category[0], category[1]);
+        }
+        return registry;
+    }
+
+    /**
+     * Kode untuk kategori; kategori baru didaftarkan dengan ikon default
+     */
+    public int register(String name) {
+        Integer code = codes.get(name);
+        return code != null ? code : register(name, DEFAULT_ICON);
+    }
+
+    /**
+     * Daftarkan kategori dengan ikon; jika sudah ada, ikon diperbarui
+     */
+    public int register(String name, String icon) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            icons.set(code, icon);
+            return code;
+        }
+        if (names.size() == MAX_CATEGORIES) {
+            throw new IllegalStateException("Jumlah kategori melebihi " + MAX_CATEGORIES);
+        }
+        code = names.size();
+        names.add(name);
+        icons.add(icon);
+        codes.put(name, code);
+        return code;
+    }
+
+    /**
+     * Kode kategori, atau -1 jika belum terdaftar
+     */
+    public int codeOf(String name) {
+        Integer code = codes.get(name);
+        return code == null ? -1 : code;
+    }
+
+    public boolean contains(String name) {
+        return codes.containsKey(name);
+    }
+
+    public String name(int code) {
+        return names.get(code);
+    }
+
+    public String icon(int code) {
+        return icons.get(code);
+    }
+
+    public String iconOf(String name) {
+        Integer code = codes.get(name);
+        return code == null ? DEFAULT_ICON : icons.get(code);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Semua nama kategori urut kode (bawaan dulu, lalu buatan pengguna)
+     */
+    public List<String> names() {
+        return Collections.unmodifiableList(new ArrayList<>(names));
+    }
+}
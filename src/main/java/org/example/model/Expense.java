@@ -7,12 +7,16 @@ import java.time.format.DateTimeFormatter;
  * Model class untuk merepresentasikan data pengeluaran
  * Modul 1: Program Correctness - Validasi data
  * Modul 4: Java API - LocalDate, DateTimeFormatter
+ * Amount disimpan sebagai long sen (lihat Money) supaya total selalu eksak;
+ * getAmount()/setAmount(double) tetap ada untuk UI.
+ * Notes tidak pernah null (null disimpan sebagai string kosong), sama di memori,
+ * journal, dan semua format snapshot.
  */
 public class Expense {
     private int id;
     private String description;
     private String category;
-    private double amount;
+    private long amountSen;
     private LocalDate date;
     private String notes;
 
@@ -25,9 +29,9 @@ public class Expense {
         this.id = id;
         this.description = description;
         this.category = category;
-        this.amount = amount;
+        this.amountSen = Money.toSen(amount);
         this.date = date;
-        this.notes = notes;
+        this.notes = notes == null ? "" : notes;
     }
 
     /**
@@ -37,6 +41,16 @@ public class Expense {
         this(id, description, category, amount, date, "");
     }
 
+    /**
+     * Constructor dengan amount dalam sen (dipakai loader dan penyimpanan kolumnar)
+     */
+    public static Expense ofSen(int id, String description, String category, long amountSen,
+                                LocalDate date, String notes) {
+        Expense expense = new Expense(id, description, category, 0, date, notes);
+        expense.amountSen = amountSen;
+        return expense;
+    }
+
     // Getters
     public int getId() {
         return id;
@@ -51,7 +65,11 @@ public class Expense {
     }
 
     public double getAmount() {
-        return amount;
+        return Money.toRupiah(amountSen);
+    }
+
+    public long getAmountSen() {
+        return amountSen;
     }
 
     public LocalDate getDate() {
@@ -76,7 +94,11 @@ public class Expense {
     }
 
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountSen = Money.toSen(amount);
+    }
+
+    public void setAmountSen(long amountSen) {
+        this.amountSen = amountSen;
     }
 
     public void setDate(LocalDate date) {
@@ -84,7 +106,7 @@ public class Expense {
     }
 
     public void setNotes(String notes) {
-        this.notes = notes;
+        this.notes = notes == null ? "" : notes;
     }
 
     /**
@@ -98,7 +120,7 @@ public class Expense {
      * Format amount untuk display (Rupiah)
      */
     public String getFormattedAmount() {
-        return String.format("Rp %,.0f", amount);
+        return RupiahFormatter.format(amountSen);
     }
 
     /**
@@ -109,7 +131,7 @@ public class Expense {
                 String.valueOf(id),
                 description,
                 category,
-                String.valueOf(amount),
+                Money.toPlainString(amountSen),
                 date.toString(),
                 notes
         );
@@ -120,11 +142,11 @@ public class Expense {
      */
     public static Expense fromCSV(String csvLine) {
         String[] parts = csvLine.split(",", -1);
-        return new Expense(
+        return ofSen(
                 Integer.parseInt(parts[0]),
                 parts[1],
                 parts[2],
-                Double.parseDouble(parts[3]),
+                Money.parse(parts[3]),
                 LocalDate.parse(parts[4]),
                 parts.length > 5 ? parts[5] : ""
         );
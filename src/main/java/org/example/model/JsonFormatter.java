@@ -0,0 +1,53 @@
+package org.example.model;
+
+/**
+ * Tulis Expense dan string sebagai JSON (dipakai export JSONL dan API server)
+ * Satu objek per expense: {"id":1,"description":"...","category":"...",
+ * "amount":25000.5,"date":"2025-12-01","notes":"..."}; amount ditulis eksak dari sen.
+ */
+public final class JsonFormatter {
+    private JsonFormatter() {
+    }
+
+    public static void appendExpense(StringBuilder out, Expense expense) {
+        out.append("{\"id\":").append(expense.getId());
+        out.append(",\"description\":");
+        appendString(out, expense.getDescription());
+        out.append(",\"category\":");
+        appendString(out, expense.getCategory());
+        out.append(",\"amount\":");
+        Money.appendPlain(out, expense.getAmountSen());
+        out.append(",\"date\":\"").append(expense.getDate()).append('"');
+        out.append(",\"notes\":");
+        appendString(out, expense.getNotes());
+        out.append('}');
+    }
+
+    /**
+     * String JSON dengan escape; null ditulis sebagai literal null
+     */
+    public static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (ch < 0x20) {
+                        out.append("\\u00").append(Character.forDigit(ch >> 4, 16)).append(Character.forDigit(ch & 0xF, 16));
+                    } else {
+                        out.append(ch);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
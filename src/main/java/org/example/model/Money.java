@@ -0,0 +1,135 @@
+package org.example.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helper uang fixed-point: nominal disimpan sebagai long dalam sen (1/100 Rupiah)
+ * sehingga penjumlahan selalu eksak. Konversi ke/dari double hanya di batas API.
+ */
+public final class Money {
+    public static final int SEN_PER_RUPIAH = 100;
+
+    private static final int MAX_FAST_DIGITS = 16;
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L
+    };
+
+    private Money() {
+    }
+
+    /**
+     * Rupiah (double) ke sen, dibulatkan ke sen terdekat
+     */
+    public static long toSen(double rupiah) {
+        return Math.round(rupiah * SEN_PER_RUPIAH);
+    }
+
+    public static double toRupiah(long sen) {
+        return (double) sen / SEN_PER_RUPIAH;
+    }
+
+    /**
+     * Parse nominal desimal ("25000", "25000.0", "50000.5", "1.5E7") langsung ke sen
+     * tanpa lewat double. Digit di belakang sen dibulatkan half-up.
+     */
+    public static long parse(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDot = false;
+        boolean seenDigit = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenDot) {
+                    scale++;
+                }
+                if (digits > MAX_FAST_DIGITS || scale > 2) {
+                    return parseSlow(text);
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                // Eksponen dan bentuk lain lewat BigDecimal
+                return parseSlow(text);
+            }
+        }
+        if (!seenDigit) {
+            throw new NumberFormatException("Jumlah tidak valid: " + text);
+        }
+
+        long sen = mantissa * POW10[2 - scale];
+        return negative ? -sen : sen;
+    }
+
+    private static long parseSlow(String text) {
+        try {
+            return new BigDecimal(text.trim()).movePointRight(2)
+                    .setScale(0, RoundingMode.HALF_UP).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Jumlah terlalu besar: " + text);
+        }
+    }
+
+    /**
+     * mantissa * 10^power, dibulatkan half-up jika power negatif
+     * (dipakai parser yang membaca digit sendiri)
+     */
+    public static long shift(long mantissa, int power) {
+        if (power >= 0) {
+            if (power >= POW10.length || Math.abs(mantissa) > Long.MAX_VALUE / POW10[power]) {
+                throw new NumberFormatException("Jumlah terlalu besar");
+            }
+            return mantissa * POW10[power];
+        }
+        if (-power >= POW10.length) {
+            return 0;
+        }
+        long divisor = POW10[-power];
+        long quotient = mantissa / divisor;
+        long remainder = Math.abs(mantissa % divisor);
+        if (remainder * 2 >= divisor) {
+            quotient += mantissa < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Tulis sen sebagai desimal polos untuk CSV/JSON: 2500000 -> "25000", 5000050 -> "50000.5"
+     */
+    public static void appendPlain(StringBuilder out, long sen) {
+        if (sen < 0) {
+            out.append('-');
+        }
+        long abs = Math.abs(sen);
+        out.append(abs / SEN_PER_RUPIAH);
+        int fraction = (int) (abs % SEN_PER_RUPIAH);
+        if (fraction != 0) {
+            out.append('.').append(fraction / 10);
+            if (fraction % 10 != 0) {
+                out.append(fraction % 10);
+            }
+        }
+    }
+
+    public static String toPlainString(long sen) {
+        StringBuilder out = new StringBuilder(20);
+        appendPlain(out, sen);
+        return out.toString();
+    }
+}
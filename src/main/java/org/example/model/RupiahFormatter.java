@@ -0,0 +1,71 @@
+package org.example.model;
+
+/**
+ * Format nominal sen ke teks Rupiah "Rp 1.250.000" (titik sebagai pemisah ribuan,
+ * dibulatkan ke Rupiah terdekat) tanpa String.format/replace.
+ * formatTo menulis ke buffer milik pemanggil tanpa alokasi sama sekali;
+ * format memakai buffer per thread sehingga hanya String hasilnya yang dibuat.
+ */
+public final class RupiahFormatter {
+    /**
+     * Panjang maksimum hasil: "Rp -" + 19 digit + 6 titik
+     */
+    public static final int MAX_LENGTH = 32;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private RupiahFormatter() {
+    }
+
+    /**
+     * Tulis teks Rupiah untuk nominal sen ke out mulai dari offset
+     * (out harus punya minimal MAX_LENGTH char setelah offset)
+     *
+     * @return jumlah char yang ditulis
+     */
+    public static int formatTo(long sen, char[] out, int offset) {
+        long rupiah = sen / Money.SEN_PER_RUPIAH;
+        long remainder = sen % Money.SEN_PER_RUPIAH;
+        if (Math.abs(remainder) * 2 >= Money.SEN_PER_RUPIAH) {
+            rupiah += sen < 0 ? -1 : 1;
+        }
+
+        int position = offset;
+        out[position++] = 'R';
+        out[position++] = 'p';
+        out[position++] = ' ';
+        if (rupiah < 0) {
+            out[position++] = '-';
+        }
+
+        // Digit ditulis dari belakang ke area sementara di ujung buffer, lalu disalin maju
+        int end = offset + MAX_LENGTH;
+        int cursor = end;
+        int group = 0;
+        do {
+            if (group == 3) {
+                out[--cursor] = '.';
+                group = 0;
+            }
+            out[--cursor] = (char) ('0' + Math.abs(rupiah % 10));
+            rupiah /= 10;
+            group++;
+        } while (rupiah != 0);
+
+        int digits = end - cursor;
+        System.arraycopy(out, cursor, out, position, digits);
+        return position + digits - offset;
+    }
+
+    public static String format(long sen) {
+        char[] buffer = BUFFER.get();
+        return new String(buffer, 0, formatTo(sen, buffer, 0));
+    }
+
+    /**
+     * Format nominal Rupiah (double dari API statistik) lewat representasi sen
+     */
+    public static String format(double rupiah) {
+        return format(Money.toSen(rupiah));
+    }
+}
@@ -0,0 +1,553 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.model.Expense;
+import org.example.model.JsonFormatter;
+import org.example.model.Money;
+import org.example.service.ExpenseManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mode headless: API JSON di atas ExpenseManager (com.sun.net.httpserver)
+ * Setiap request dijalankan di virtual thread sendiri (JDK 21+) atau di cached thread pool
+ * pada JDK lama; ExpenseManager sudah thread-safe, jadi handler tidak memakai lock sendiri.
+ * Body request selalu dibaca habis dan response selalu memakai Content-Length supaya
+ * koneksi keep-alive bisa dipakai ulang klien. Body di atas MAX_BODY_BYTES ditolak (413)
+ * sebelum di-parse, dan koneksinya ditutup alih-alih dibaca habis.
+ * Isi expense divalidasi ExpenseManager (sama seperti GUI dan import); data yang ditolak = 400.
+ *
+ * Endpoint (tanggal ISO yyyy-MM-dd, jumlah dalam rupiah):
+ *   GET    /expenses?q=&category=&from=&to=&sort=date|amount&offset=&limit=
+ *   POST   /expenses                  {description, category, amount, date, notes}
+ *   GET    /expenses/{id}
+ *   PUT    /expenses/{id}             {description, category, amount, date, notes}
+ *   DELETE /expenses/{id}
+ *   POST   /batch                     {add: [...], update: [{id, ...}], delete: [id]}  (utuh atau tidak sama sekali)
+ *   GET    /summary?from=&to=
+ *   GET    /top?limit=&from=&to=
+ *   GET    /categories
+ *   POST   /categories                {name, icon}
+ */
+public class ExpenseServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_PAGE = 100;
+    private static final int MAX_PAGE = 10_000;
+    private static final int BACKLOG = 1024;
+    private static final int MAX_BODY_BYTES = 4 << 20;
+
+    static {
+        // Header dan body response ditulis terpisah; tanpa TCP_NODELAY, Nagle + delayed ACK
+        // klien menahan setiap response kecil ~40 ms. Dibaca sekali saat HttpServer pertama dibuat.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ExpenseManager manager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param port 0 = port bebas (lihat getPort)
+     */
+    public ExpenseServer(ExpenseManager manager, int port) throws IOException {
+        this.manager = manager;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/expenses", this::handleExpenses);
+        server.createContext("/batch", this::handleBatch);
+        server.createContext("/summary", this::handleSummary);
+        server.createContext("/top", this::handleTop);
+        server.createContext("/categories", this::handleCategories);
+    }
+
+    /**
+     * Executor satu thread per request: virtual thread jika tersedia
+     * Dipanggil lewat reflection supaya kode tetap bisa dikompilasi dan jalan di JDK < 21.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Hentikan server; request yang sedang berjalan diberi waktu selesai
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ==================== HANDLERS ====================
+
+    private void handleExpenses(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (path.equals("/expenses") || path.equals("/expenses/")) {
+                if (method.equals("GET")) {
+                    return listExpenses(query(exchange));
+                }
+                if (method.equals("POST")) {
+                    return addExpense(bodyObject(exchange));
+                }
+                return Response.methodNotAllowed();
+            }
+
+            int id = parseId(path.substring("/expenses/".length()));
+            Expense existing = manager.getExpenseById(id);
+            if (existing == null) {
+                return Response.notFound("Expense " + id + " tidak ditemukan");
+            }
+            switch (method) {
+                case "GET": {
+                    StringBuilder out = new StringBuilder(256);
+                    JsonFormatter.appendExpense(out, existing);
+                    return Response.ok(out);
+                }
+                case "PUT":
+                    return updateExpense(existing, bodyObject(exchange));
+                case "DELETE":
+                    return manager.deleteExpense(id) ? Response.ok(new StringBuilder("{\"deleted\":1}"))
+                            : Response.badRequest("Gagal menghapus expense " + id);
+                default:
+                    return Response.methodNotAllowed();
+            }
+        });
+    }
+
+    private Response listExpenses(Map<String, String> query) {
+        String keyword = query.get("q");
+        String category = query.get("category");
+        LocalDate from = date(query.get("from"), LocalDate.MIN);
+        LocalDate to = date(query.get("to"), LocalDate.MAX);
+        boolean ranged = query.containsKey("from") || query.containsKey("to");
+        String sort = query.getOrDefault("sort", "date");
+        if (!sort.equals("date") && !sort.equals("amount")) {
+            throw new IllegalArgumentException("sort harus 'date' atau 'amount'");
+        }
+
+        List<Expense> result;
+        if (keyword == null && category == null && !ranged) {
+            // Snapshot terurut di-cache ExpenseManager, halaman diambil tanpa menyalin
+            result = sort.equals("amount") ? manager.sortByAmountDesc() : manager.sortByDateDesc();
+        } else {
+            if (keyword != null) {
+                result = new ArrayList<>(manager.searchExpenses(keyword));
+                result.removeIf(e -> (category != null && !e.getCategory().equals(category))
+                        || e.getDate().isBefore(from) || e.getDate().isAfter(to));
+            } else if (category != null) {
+                result = new ArrayList<>(manager.filterByCategoryAndDateRange(category, from, to));
+            } else {
+                result = new ArrayList<>(manager.filterByDateRange(from, to));
+            }
+            if (sort.equals("amount")) {
+                result.sort((a, b) -> Long.compare(b.getAmountSen(), a.getAmountSen()));
+            } else {
+                result.sort((a, b) -> b.getDate().compareTo(a.getDate()));
+            }
+        }
+
+        int offset = Math.min(intParam(query, "offset", 0), result.size());
+        int limit = Math.min(intParam(query, "limit", DEFAULT_PAGE), MAX_PAGE);
+        List<Expense> page = result.subList(offset, Math.min(result.size(), offset + limit));
+
+        StringBuilder out = new StringBuilder(64 + page.size() * 160);
+        out.append("{\"total\":").append(result.size()).append(",\"offset\":").append(offset).append(",\"items\":");
+        Json.appendExpenses(out, page);
+        out.append('}');
+        return Response.ok(out);
+    }
+
+    private Response addExpense(Map<String, Object> body) {
+        Expense expense = toExpense(body, 0);
+        if (!manager.addExpense(expense.getDescription(), expense.getCategory(), expense.getAmount(),
+                expense.getDate(), expense.getNotes())) {
+            return Response.badRequest("Data tidak valid atau gagal disimpan");
+        }
+        return new Response(201, new StringBuilder("{\"added\":1}"));
+    }
+
+    private Response updateExpense(Expense existing, Map<String, Object> body) {
+        // Field yang tidak dikirim memakai nilai lama
+        Map<String, Object> merged = new HashMap<>(body);
+        merged.putIfAbsent("description", existing.getDescription());
+        merged.putIfAbsent("category", existing.getCategory());
+        merged.putIfAbsent("amount", new BigDecimal(Money.toPlainString(existing.getAmountSen())));
+        merged.putIfAbsent("date", existing.getDate().toString());
+        merged.putIfAbsent("notes", existing.getNotes());
+        Expense expense = toExpense(merged, existing.getId());
+        if (!manager.updateExpense(existing.getId(), expense.getDescription(), expense.getCategory(),
+                expense.getAmount(), expense.getDate(), expense.getNotes())) {
+            return Response.badRequest("Data tidak valid atau gagal disimpan");
+        }
+        return Response.ok(new StringBuilder("{\"updated\":1}"));
+    }
+
+    /**
+     * Batch: add, update, dan delete diterapkan bersama lewat ExpenseManager.applyBatch,
+     * jadi utuh atau tidak sama sekali (satu write lock, satu tulis journal)
+     */
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                return Response.methodNotAllowed();
+            }
+            Map<String, Object> body = bodyObject(exchange);
+            List<Expense> adds = new ArrayList<>();
+            for (Object row : list(body.get("add"), "add")) {
+                adds.add(toExpense(object(row, "add"), 0));
+            }
+            List<Expense> updates = new ArrayList<>();
+            for (Object row : list(body.get("update"), "update")) {
+                Map<String, Object> fields = object(row, "update");
+                updates.add(toExpense(fields, parseId(fields.get("id"))));
+            }
+            List<Integer> deletes = new ArrayList<>();
+            for (Object id : list(body.get("delete"), "delete")) {
+                deletes.add(parseId(id));
+            }
+
+            if (!manager.applyBatch(adds, updates, deletes)) {
+                return Response.badRequest("Batch gagal, tidak ada perubahan");
+            }
+            return Response.ok(new StringBuilder().append("{\"added\":").append(adds.size())
+                    .append(",\"updated\":").append(updates.size())
+                    .append(",\"deleted\":").append(deletes.size()).append('}'));
+        });
+    }
+
+    private void handleSummary(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                return Response.methodNotAllowed();
+            }
+            Map<String, String> query = query(exchange);
+            StringBuilder out = new StringBuilder(512);
+            out.append("{\"today\":");
+            Money.appendPlain(out, Money.toSen(manager.getTotalToday()));
+            out.append(",\"week\":");
+            Money.appendPlain(out, Money.toSen(manager.getTotalThisWeek()));
+            out.append(",\"month\":");
+            Money.appendPlain(out, Money.toSen(manager.getTotalThisMonth()));
+            out.append(",\"averagePerDay\":");
+            Money.appendPlain(out, Money.toSen(manager.getAveragePerDay()));
+
+            if (query.containsKey("from") || query.containsKey("to")) {
+                LocalDate from = date(query.get("from"), LocalDate.MIN);
+                LocalDate to = date(query.get("to"), LocalDate.MAX);
+                out.append(",\"total\":");
+                Money.appendPlain(out, Money.toSen(manager.getTotal(from, to)));
+                out.append(",\"count\":").append(manager.getTransactionCount(from, to));
+                out.append(",\"byCategory\":");
+                Json.appendTotals(out, manager.getTotalByCategory(from, to));
+            } else {
+                out.append(",\"count\":").append(manager.getTransactionCount());
+                out.append(",\"byCategory\":");
+                Json.appendTotals(out, manager.getTotalByCategory());
+            }
+            out.append('}');
+            return Response.ok(out);
+        });
+    }
+
+    private void handleTop(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                return Response.methodNotAllowed();
+            }
+            Map<String, String> query = query(exchange);
+            int limit = Math.min(intParam(query, "limit", 10), MAX_PAGE);
+            List<Expense> top = manager.getLargestExpenses(limit,
+                    date(query.get("from"), LocalDate.MIN), date(query.get("to"), LocalDate.MAX));
+            StringBuilder out = new StringBuilder(32 + top.size() * 160);
+            Json.appendExpenses(out, top);
+            return Response.ok(out);
+        });
+    }
+
+    private void handleCategories(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            switch (exchange.getRequestMethod()) {
+                case "GET": {
+                    StringBuilder out = new StringBuilder(512).append('[');
+                    List<String> names = manager.getCategories();
+                    for (int i = 0; i < names.size(); i++) {
+                        if (i > 0) {
+                            out.append(',');
+                        }
+                        out.append("{\"name\":");
+                        JsonFormatter.appendString(out, names.get(i));
+                        out.append(",\"icon\":");
+                        JsonFormatter.appendString(out, manager.getCategoryIcon(names.get(i)));
+                        out.append('}');
+                    }
+                    return Response.ok(out.append(']'));
+                }
+                case "POST": {
+                    Map<String, Object> body = bodyObject(exchange);
+                    if (!manager.addCategory(string(body, "name"), optionalString(body, "icon"))) {
+                        return Response.badRequest("Kategori tidak valid atau gagal disimpan");
+                    }
+                    return new Response(201, new StringBuilder("{\"added\":1}"));
+                }
+                default:
+                    return Response.methodNotAllowed();
+            }
+        });
+    }
+
+    // ==================== PLUMBING ====================
+
+    private interface Handler {
+        Response handle() throws IOException;
+    }
+
+    /**
+     * Body request lebih besar dari MAX_BODY_BYTES
+     */
+    private static final class BodyTooLargeException extends RuntimeException {
+        BodyTooLargeException() {
+            super("Body request terlalu besar");
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final StringBuilder body;
+
+        Response(int status, StringBuilder body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response ok(StringBuilder body) {
+            return new Response(200, body);
+        }
+
+        static Response badRequest(String message) {
+            return error(400, message);
+        }
+
+        static Response notFound(String message) {
+            return error(404, message);
+        }
+
+        static Response tooLarge() {
+            return error(413, "Body request melebihi " + MAX_BODY_BYTES + " byte");
+        }
+
+        static Response methodNotAllowed() {
+            return error(405, "Method tidak didukung");
+        }
+
+        static Response error(int status, String message) {
+            StringBuilder out = new StringBuilder("{\"error\":");
+            JsonFormatter.appendString(out, message);
+            return new Response(status, out.append('}'));
+        }
+    }
+
+    /**
+     * Jalankan handler dan kirim hasilnya; input tidak valid = 400, error lain = 500
+     */
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        Response response;
+        try {
+            response = handler.handle();
+        } catch (BodyTooLargeException e) {
+            response = Response.tooLarge();
+        } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+            response = Response.badRequest(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error handling " + exchange.getRequestURI() + ": " + e.getMessage());
+            response = Response.error(500, "Kesalahan server");
+        }
+
+        try (InputStream in = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+            if (response.status == 413) {
+                // Body kebesaran tidak dibaca habis; koneksi ditutup setelah response
+                exchange.getResponseHeaders().set("Connection", "close");
+            } else {
+                // Sisa body harus dibaca supaya koneksi bisa dipakai request berikutnya
+                while (in.read() >= 0) {
+                    in.skip(Long.MAX_VALUE);
+                }
+            }
+            byte[] bytes = response.body.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status, bytes.length);
+            out.write(bytes);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Baca body sebagai object JSON; ukuran dicek dari Content-Length dan saat membaca
+     * (chunked), jadi body kebesaran tidak pernah ditampung penuh atau di-parse
+     */
+    private static Map<String, Object> bodyObject(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            try {
+                if (Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+                    throw new BodyTooLargeException();
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Content-Length tidak valid");
+            }
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        InputStream in = exchange.getRequestBody();
+        int read;
+        while ((read = in.read(chunk)) > 0) {
+            if (buffer.size() + read > MAX_BODY_BYTES) {
+                throw new BodyTooLargeException();
+            }
+            buffer.write(chunk, 0, read);
+        }
+        return object(Json.parse(new String(buffer.toByteArray(), StandardCharsets.UTF_8)), "body");
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) throws UnsupportedEncodingException {
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> query = new HashMap<>();
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8");
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            if (!value.isEmpty()) {
+                query.put(name, value);
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Expense dari object JSON; jumlah dibaca langsung ke sen
+     */
+    private static Expense toExpense(Map<String, Object> fields, int id) {
+        Object amount = fields.get("amount");
+        long amountSen;
+        if (amount instanceof BigDecimal) {
+            amountSen = Money.parse(((BigDecimal) amount).toPlainString());
+        } else if (amount instanceof String) {
+            amountSen = Money.parse((String) amount);
+        } else {
+            throw new IllegalArgumentException("Field 'amount' wajib diisi");
+        }
+        String notes = optionalString(fields, "notes");
+        return Expense.ofSen(id, string(fields, "description"), string(fields, "category"), amountSen,
+                LocalDate.parse(string(fields, "date")), notes == null ? "" : notes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value, String name) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("'" + name + "' harus berupa object JSON");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Object value, String name) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("'" + name + "' harus berupa array JSON");
+        }
+        return (List<Object>) value;
+    }
+
+    private static String string(Map<String, Object> fields, String name) {
+        String value = optionalString(fields, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Field '" + name + "' wajib diisi");
+        }
+        return value;
+    }
+
+    private static String optionalString(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("Field '" + name + "' harus berupa string");
+        }
+        return (String) value;
+    }
+
+    private static int parseId(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).intValueExact();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("ID tidak valid: " + value);
+            }
+        }
+        throw new IllegalArgumentException("ID wajib diisi");
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException("'" + name + "' tidak boleh negatif");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + name + "' harus berupa angka");
+        }
+    }
+
+    private static LocalDate date(String value, LocalDate defaultValue) {
+        return value == null ? defaultValue : LocalDate.parse(value);
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.server;
+
+import org.example.model.Expense;
+import org.example.model.JsonFormatter;
+import org.example.model.Money;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON minimal untuk ExpenseServer (tanpa library luar)
+ * parse() menghasilkan Map (object), List (array), String, BigDecimal (angka),
+ * Boolean atau null. Angka disimpan sebagai BigDecimal supaya jumlah uang
+ * bisa diubah ke sen tanpa lewat double.
+ */
+final class Json {
+    // Batas object/array bersarang: parser rekursif, jadi teks "[[[[..." tidak boleh menghabiskan stack
+    static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int pos;
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parse satu nilai JSON
+     *
+     * @throws IllegalArgumentException jika teks bukan JSON yang valid
+     */
+    static Object parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.value();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("Karakter berlebih");
+        }
+        return value;
+    }
+
+    private Object value() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw error("JSON terpotong");
+        }
+        char ch = text.charAt(pos);
+        switch (ch) {
+            case '{':
+            case '[':
+                if (++depth > MAX_DEPTH) {
+                    throw error("JSON terlalu dalam (maks " + MAX_DEPTH + " tingkat)");
+                }
+                Object nested = ch == '{' ? object() : array();
+                depth--;
+                return nested;
+            case '"': return string();
+            case 't': return literal("true", Boolean.TRUE);
+            case 'f': return literal("false", Boolean.FALSE);
+            case 'n': return literal("null", null);
+            default:
+                if (ch == '-' || (ch >= '0' && ch <= '9')) {
+                    return number();
+                }
+                throw error("Karakter tidak terduga '" + ch + "'");
+        }
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("Nama field harus string");
+            }
+            String name = string();
+            skipWhitespace();
+            expect(':');
+            object.put(name, value());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> array() {
+        List<Object> array = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return array;
+        }
+        while (true) {
+            array.add(value());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String string() {
+        pos++;
+        StringBuilder sb = new StringBuilder();
+        while (pos < text.length()) {
+            char ch = text.charAt(pos++);
+            if (ch == '"') {
+                return sb.toString();
+            }
+            if (ch != '\\') {
+                sb.append(ch);
+                continue;
+            }
+            if (pos >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case '"': sb.append('"'); break;
+                case '\\': sb.append('\\'); break;
+                case '/': sb.append('/'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > text.length()) {
+                        throw error("Escape unicode terpotong");
+                    }
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                    break;
+                default:
+                    throw error("Escape tidak dikenal '\\" + escaped + "'");
+            }
+        }
+        throw error("String tidak ditutup");
+    }
+
+    private BigDecimal number() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        try {
+            return new BigDecimal(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("Angka tidak valid");
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!text.startsWith(word, pos)) {
+            throw error("Nilai tidak dikenal");
+        }
+        pos += word.length();
+        return value;
+    }
+
+    private void expect(char ch) {
+        if (peek() != ch) {
+            throw error("Diharapkan '" + ch + "'");
+        }
+        pos++;
+    }
+
+    private char peek() {
+        return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("JSON tidak valid di posisi " + pos + ": " + message);
+    }
+
+    // ==================== WRITER ====================
+    // Satu expense / string: lihat JsonFormatter
+
+    static void appendExpenses(StringBuilder out, List<Expense> expenses) {
+        out.append('[');
+        for (int i = 0; i < expenses.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            JsonFormatter.appendExpense(out, expenses.get(i));
+        }
+        out.append(']');
+    }
+
+    /**
+     * Total per kategori sebagai object {"Kategori": jumlah}
+     */
+    static void appendTotals(StringBuilder out, Map<String, Double> totals) {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<String, Double> entry : totals.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            JsonFormatter.appendString(out, entry.getKey());
+            out.append(':');
+            Money.appendPlain(out, Money.toSen(entry.getValue()));
+        }
+        out.append('}');
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load generator sederhana untuk ExpenseServer (throughput dan latency lokal)
+ * Setiap klien mengirim request berurutan lewat koneksi keep-alive: campuran baca
+ * (daftar, pencarian, ringkasan, top) dan, jika diminta, sebagian tulis (POST /expenses).
+ * Default hanya baca: request tulis menambah baris "load-test" ke data server, jadi
+ * persen tulis > 0 hanya untuk server dengan data dir sementara (-Dexpense.dataFile).
+ * Contoh: java -cp target/classes org.example.App --load-test http://localhost:8080 32 10
+ */
+public class LoadGenerator {
+    private static final String[] KEYWORDS = {"kopi", "makan", "bensin", "pulsa", "parkir"};
+    private static final String[] CATEGORIES = {"Makanan & Minuman", "Transportasi", "Belanja", "Hiburan"};
+
+    private final String baseUrl;
+    private final int clients;
+    private final long durationMs;
+    private final int writePercent;
+
+    public LoadGenerator(String baseUrl, int clients, long durationMs, int writePercent) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.clients = clients;
+        this.durationMs = durationMs;
+        this.writePercent = writePercent;
+    }
+
+    /**
+     * Hasil satu run: jumlah request, error, dan latency (nanodetik, terurut)
+     */
+    public static class Result {
+        private final long[] latencies;
+        private final long errors;
+        private final long elapsedNanos;
+
+        Result(long[] latencies, long errors, long elapsedNanos) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRequests() {
+            return latencies.length;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return latencies.length * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * Latency persentil dalam milidetik, contoh percentile(0.99)
+         */
+        public double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d request (%,d error) | %,.0f req/s | p50 %.2f ms | p95 %.2f ms | p99 %.2f ms | max %.2f ms",
+                    getRequests(), errors, getThroughput(),
+                    percentile(0.50), percentile(0.95), percentile(0.99), percentile(1.0));
+        }
+    }
+
+    public Result run() throws Exception {
+        // Default HttpURLConnection hanya menyimpan 5 koneksi idle per host
+        System.setProperty("http.maxConnections", String.valueOf(Math.max(5, clients)));
+
+        ExecutorService executor = ExpenseServer.newRequestExecutor();
+        try {
+            long start = System.nanoTime();
+            long deadline = start + durationMs * 1_000_000L;
+            List<Future<long[]>> futures = new ArrayList<>();
+            long[] errors = new long[clients];
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                futures.add(executor.submit(() -> runClient(deadline, errors, client)));
+            }
+
+            List<long[]> perClient = new ArrayList<>();
+            int total = 0;
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                perClient.add(latencies);
+                total += latencies.length;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            long[] all = new long[total];
+            int pos = 0;
+            for (long[] latencies : perClient) {
+                System.arraycopy(latencies, 0, all, pos, latencies.length);
+                pos += latencies.length;
+            }
+            Arrays.sort(all);
+            return new Result(all, Arrays.stream(errors).sum(), elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long[] runClient(long deadline, long[] errors, int client) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                if (random.nextInt(100) < writePercent) {
+                    send("POST", "/expenses", randomExpense(random));
+                } else {
+                    send("GET", randomRead(random), null);
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count << 1);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            } catch (IOException e) {
+                if (errors[client]++ == 0) {
+                    System.err.println("Request gagal: " + e.getMessage());
+                }
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private String randomRead(ThreadLocalRandom random) {
+        switch (random.nextInt(4)) {
+            case 0: return "/expenses?limit=20";
+            case 1: return "/expenses?limit=20&q=" + KEYWORDS[random.nextInt(KEYWORDS.length)];
+            case 2: return "/summary";
+            default: return "/top?limit=10";
+        }
+    }
+
+    private String randomExpense(ThreadLocalRandom random) {
+        LocalDate date = LocalDate.now().minusDays(random.nextInt(365));
+        return "{\"description\":\"" + KEYWORDS[random.nextInt(KEYWORDS.length)] + " " + random.nextInt(1000)
+                + "\",\"category\":\"" + CATEGORIES[random.nextInt(CATEGORIES.length)]
+                + "\",\"amount\":" + (1 + random.nextInt(500)) * 1000
+                + ",\"date\":\"" + date + "\",\"notes\":\"load-test\"}";
+    }
+
+    /**
+     * Kirim satu request; response dibaca habis supaya koneksi kembali ke pool keep-alive
+     */
+    private void send(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(bytes.length);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+            try (InputStream response = in) {
+                byte[] buffer = new byte[8192];
+                while (response.read(buffer) >= 0) {
+                    // buang isi response
+                }
+            }
+        }
+        if (status >= 400) {
+            throw new IOException("HTTP " + status + " untuk " + method + " " + path);
+        }
+    }
+
+    /**
+     * Argumen: [baseUrl] [klien] [detik] [persen tulis, default 0]
+     */
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:" + ExpenseServer.DEFAULT_PORT;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int writePercent = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        System.out.printf("Load test %s: %d klien, %d detik, %d%% tulis%n", baseUrl, clients, seconds, writePercent);
+        // Pemanasan JIT dan cache snapshot sebelum diukur
+        new LoadGenerator(baseUrl, clients, Math.min(2_000, seconds * 200L), writePercent).run();
+        System.out.println(new LoadGenerator(baseUrl, clients, seconds * 1_000L, writePercent).run());
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Format snapshot biner kolumnar (*.bin)
+ * Layout (big-endian):
+ *   header   : magic "EXPB", version, rowCount
+ *   kolom    : int[] id, long[] amount (sen), int[] epochDay
+ *   kategori : dictionary (size + string UTF-8 length-prefixed), lalu kode byte/short per baris
+ *   teks     : description lalu notes, masing-masing UTF-8 length-prefixed per baris
+ *   trailer  : CRC32 dari semua byte sebelumnya
+ * Reader membaca seluruh file dengan beberapa read besar lalu bulk-copy kolom angka.
+ */
+final class BinarySnapshot {
+    private static final int MAGIC = 0x45585042; // "EXPB"
+    private static final int VERSION = 1;
+    private static final byte[] EMPTY = new byte[0];
+    private static final int HEADER_BYTES = 12;
+    private static final int TRAILER_BYTES = 8;
+
+    private BinarySnapshot() {
+    }
+
+    static void write(List<Expense> expenses, File file) throws IOException {
+        int rows = expenses.size();
+        CRC32 crc = new CRC32();
+
+        try (FileOutputStream fileOut = new FileOutputStream(file);
+             BufferedOutputStream buffered = new BufferedOutputStream(fileOut, 1 << 16)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows);
+
+            for (Expense expense : expenses) {
+                out.writeInt(expense.getId());
+            }
+            for (Expense expense : expenses) {
+                out.writeLong(expense.getAmountSen());
+            }
+            for (Expense expense : expenses) {
+                out.writeInt((int) expense.getDate().toEpochDay());
+            }
+
+            // Dictionary kategori
+            Map<String, Integer> codes = new HashMap<>();
+            List<String> dictionary = new ArrayList<>();
+            for (Expense expense : expenses) {
+                if (!codes.containsKey(expense.getCategory())) {
+                    codes.put(expense.getCategory(), dictionary.size());
+                    dictionary.add(expense.getCategory());
+                }
+            }
+            if (dictionary.size() > Short.MAX_VALUE) {
+                throw new IOException("Terlalu banyak kategori: " + dictionary.size());
+            }
+            out.writeInt(dictionary.size());
+            for (String category : dictionary) {
+                writeString(out, category);
+            }
+            boolean byteCodes = dictionary.size() <= 256;
+            out.writeByte(byteCodes ? 1 : 2);
+            for (Expense expense : expenses) {
+                int code = codes.get(expense.getCategory());
+                if (byteCodes) {
+                    out.writeByte(code);
+                } else {
+                    out.writeShort(code);
+                }
+            }
+
+            for (Expense expense : expenses) {
+                writeString(out, expense.getDescription());
+            }
+            for (Expense expense : expenses) {
+                writeString(out, expense.getNotes());
+            }
+
+            out.flush();
+            new DataOutputStream(buffered).writeLong(crc.getValue());
+        }
+    }
+
+    static FileHandler.LoadResult read(File file) throws IOException {
+        byte[] data = readFully(file);
+        if (data.length < HEADER_BYTES + TRAILER_BYTES) {
+            throw new IOException("Snapshot biner terpotong: " + file.getPath());
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - TRAILER_BYTES);
+        if (crc.getValue() != buffer.getLong(data.length - TRAILER_BYTES)) {
+            throw new IOException("Checksum snapshot biner tidak cocok: " + file.getPath());
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Bukan snapshot biner: " + file.getPath());
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Versi snapshot tidak didukung: " + version);
+        }
+        int rows = buffer.getInt();
+
+        int[] ids = new int[rows];
+        buffer.asIntBuffer().get(ids);
+        buffer.position(buffer.position() + rows * 4);
+
+        long[] amounts = new long[rows];
+        buffer.asLongBuffer().get(amounts);
+        buffer.position(buffer.position() + rows * 8);
+
+        int[] epochDays = new int[rows];
+        buffer.asIntBuffer().get(epochDays);
+        buffer.position(buffer.position() + rows * 4);
+
+        String[] dictionary = new String[buffer.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(buffer, data);
+        }
+        boolean byteCodes = buffer.get() == 1;
+        short[] codes = new short[rows];
+        for (int i = 0; i < rows; i++) {
+            codes[i] = byteCodes ? (short) (buffer.get() & 0xFF) : buffer.getShort();
+        }
+
+        String[] descriptions = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            descriptions[i] = readString(buffer, data);
+        }
+
+        List<Expense> expenses = new ArrayList<>(rows);
+        int maxId = 0;
+        LocalDate lastDate = null;
+        for (int i = 0; i < rows; i++) {
+            String notes = readString(buffer, data);
+            if (lastDate == null || lastDate.toEpochDay() != epochDays[i]) {
+                lastDate = LocalDate.ofEpochDay(epochDays[i]);
+            }
+            expenses.add(Expense.ofSen(ids[i], descriptions[i], dictionary[codes[i]],
+                    amounts[i], lastDate, notes));
+            maxId = Math.max(maxId, ids[i]);
+        }
+
+        return new FileHandler.LoadResult(expenses, maxId);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value == null ? EMPTY : value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] data) {
+        int length = buffer.getInt();
+        if (length == 0) {
+            return "";
+        }
+        int offset = buffer.position();
+        buffer.position(offset + length);
+        if (length == 1 && data[offset] == '-') {
+            return "-";
+        }
+        return new String(data, offset, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("Snapshot biner terlalu besar: " + file.getPath());
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Snapshot biner terpotong: " + file.getPath());
+                }
+            }
+            return buffer.array();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Format snapshot terkompresi (*.dz)
+ * Layout (big-endian):
+ *   header  : magic "EXPZ", version, rowCount
+ *   kamus   : kategori lalu notes yang sering muncul (size + string UTF-8 length-prefixed)
+ *   blok    : rows, rawLength, compressedLength, CRC32(raw), data Deflate; rows = 0 menandai akhir
+ * Isi blok (sebelum Deflate) kolumnar per BLOCK_ROWS baris, semua angka varint:
+ *   delta id, amount (sen), delta epochDay, kode kategori, kode notes (0 = literal),
+ *   description, lalu notes literal.
+ * Reader meng-inflate satu blok per kali ke buffer yang dipakai ulang,
+ * jadi memori sementara tidak bergantung pada ukuran file.
+ */
+final class CompressedSnapshot {
+    private static final int MAGIC = 0x4558505A; // "EXPZ"
+    private static final int VERSION = 1;
+    private static final byte[] EMPTY = new byte[0];
+    private static final int BLOCK_ROWS = 8192;
+    private static final int MAX_NOTE_CODES = 65535;
+
+    private CompressedSnapshot() {
+    }
+
+    static void write(List<Expense> expenses, File file) throws IOException {
+        Map<String, Integer> categoryCodes = new HashMap<>();
+        List<String> categories = new ArrayList<>();
+        Map<String, Integer> noteCounts = new HashMap<>();
+        for (Expense expense : expenses) {
+            if (!categoryCodes.containsKey(expense.getCategory())) {
+                categoryCodes.put(expense.getCategory(), categories.size());
+                categories.add(expense.getCategory());
+            }
+            noteCounts.merge(expense.getNotes(), 1, Integer::sum);
+        }
+
+        // Hanya notes yang berulang masuk kamus, yang paling sering dapat kode terkecil
+        List<String> notes = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : noteCounts.entrySet()) {
+            if (entry.getValue() > 1) {
+                notes.add(entry.getKey());
+            }
+        }
+        notes.sort((a, b) -> Integer.compare(noteCounts.get(b), noteCounts.get(a)));
+        if (notes.size() > MAX_NOTE_CODES) {
+            notes = new ArrayList<>(notes.subList(0, MAX_NOTE_CODES));
+        }
+        Map<String, Integer> noteCodes = new HashMap<>();
+        for (int i = 0; i < notes.size(); i++) {
+            noteCodes.put(notes.get(i), i + 1);
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(expenses.size());
+            writeDictionary(out, categories);
+            writeDictionary(out, notes);
+
+            BlockWriter block = new BlockWriter();
+            byte[] compressed = new byte[1 << 16];
+            for (int from = 0; from < expenses.size(); from += BLOCK_ROWS) {
+                List<Expense> rows = expenses.subList(from, Math.min(expenses.size(), from + BLOCK_ROWS));
+                block.encode(rows, categoryCodes, noteCodes);
+
+                deflater.reset();
+                deflater.setInput(block.buffer(), 0, block.size());
+                deflater.finish();
+                int compressedLength = 0;
+                while (!deflater.finished()) {
+                    if (compressedLength == compressed.length) {
+                        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                    }
+                    compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(block.buffer(), 0, block.size());
+                out.writeInt(rows.size());
+                out.writeInt(block.size());
+                out.writeInt(compressedLength);
+                out.writeInt((int) crc.getValue());
+                out.write(compressed, 0, compressedLength);
+            }
+            out.writeInt(0);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static FileHandler.LoadResult read(File file) throws IOException {
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Bukan snapshot terkompresi: " + file.getPath());
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versi snapshot tidak didukung: " + version);
+            }
+            int rowCount = in.readInt();
+            String[] categories = readDictionary(in);
+            String[] notes = readDictionary(in);
+
+            List<Expense> expenses = new ArrayList<>(rowCount);
+            BlockReader block = new BlockReader();
+            byte[] compressed = new byte[0];
+            int maxId = 0;
+            int rows;
+            while ((rows = in.readInt()) > 0) {
+                int rawLength = in.readInt();
+                int compressedLength = in.readInt();
+                int checksum = in.readInt();
+                if (compressed.length < compressedLength) {
+                    compressed = new byte[compressedLength];
+                }
+                in.readFully(compressed, 0, compressedLength);
+
+                byte[] raw = block.reset(rawLength);
+                inflater.reset();
+                inflater.setInput(compressed, 0, compressedLength);
+                try {
+                    if (inflater.inflate(raw, 0, rawLength) != rawLength || !inflater.finished()) {
+                        throw new IOException("Blok snapshot terpotong: " + file.getPath());
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("Blok snapshot rusak: " + file.getPath(), e);
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(raw, 0, rawLength);
+                if ((int) crc.getValue() != checksum) {
+                    throw new IOException("Checksum snapshot terkompresi tidak cocok: " + file.getPath());
+                }
+                maxId = Math.max(maxId, block.decode(rows, categories, notes, expenses));
+            }
+
+            if (expenses.size() != rowCount) {
+                throw new IOException("Snapshot terkompresi terpotong: " + file.getPath());
+            }
+            return new FileHandler.LoadResult(expenses, maxId);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Snapshot terkompresi rusak: " + file.getPath(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String[] readDictionary(DataInputStream in) throws IOException {
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    /**
+     * Encoder satu blok ke byte array yang dipakai ulang
+     */
+    private static final class BlockWriter {
+        private byte[] buffer = new byte[1 << 16];
+        private int size;
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void encode(List<Expense> rows, Map<String, Integer> categoryCodes,
+                    Map<String, Integer> noteCodes) {
+            size = 0;
+            int previousId = 0;
+            for (Expense expense : rows) {
+                writeVarLong(zigZag(expense.getId() - previousId));
+                previousId = expense.getId();
+            }
+            for (Expense expense : rows) {
+                writeVarLong(zigZag(expense.getAmountSen()));
+            }
+            long previousDay = 0;
+            for (Expense expense : rows) {
+                long day = expense.getDate().toEpochDay();
+                writeVarLong(zigZag(day - previousDay));
+                previousDay = day;
+            }
+            for (Expense expense : rows) {
+                writeVarLong(categoryCodes.get(expense.getCategory()));
+            }
+            for (Expense expense : rows) {
+                writeVarLong(noteCodes.getOrDefault(expense.getNotes(), 0));
+            }
+            for (Expense expense : rows) {
+                writeString(expense.getDescription());
+            }
+            for (Expense expense : rows) {
+                if (!noteCodes.containsKey(expense.getNotes())) {
+                    writeString(expense.getNotes());
+                }
+            }
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value == null ? EMPTY : value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    /**
+     * Decoder satu blok dari byte array yang dipakai ulang
+     */
+    private static final class BlockReader {
+        private byte[] buffer = new byte[1 << 16];
+        private int position;
+        private int[] ids = new int[BLOCK_ROWS];
+        private long[] amounts = new long[BLOCK_ROWS];
+        private int[] days = new int[BLOCK_ROWS];
+        private int[] categoryCodes = new int[BLOCK_ROWS];
+        private int[] noteCodes = new int[BLOCK_ROWS];
+        private String[] descriptions = new String[BLOCK_ROWS];
+
+        byte[] reset(int length) {
+            if (buffer.length < length) {
+                buffer = new byte[length];
+            }
+            position = 0;
+            return buffer;
+        }
+
+        /**
+         * @return ID terbesar di blok
+         */
+        int decode(int rows, String[] categories, String[] notes, List<Expense> out) {
+            if (ids.length < rows) {
+                ids = new int[rows];
+                amounts = new long[rows];
+                days = new int[rows];
+                categoryCodes = new int[rows];
+                noteCodes = new int[rows];
+                descriptions = new String[rows];
+            }
+
+            int maxId = 0;
+            int id = 0;
+            for (int i = 0; i < rows; i++) {
+                id += (int) readZigZag();
+                ids[i] = id;
+                maxId = Math.max(maxId, id);
+            }
+            for (int i = 0; i < rows; i++) {
+                amounts[i] = readZigZag();
+            }
+            long day = 0;
+            for (int i = 0; i < rows; i++) {
+                day += readZigZag();
+                days[i] = (int) day;
+            }
+            for (int i = 0; i < rows; i++) {
+                categoryCodes[i] = (int) readVarLong();
+            }
+            for (int i = 0; i < rows; i++) {
+                noteCodes[i] = (int) readVarLong();
+            }
+            for (int i = 0; i < rows; i++) {
+                descriptions[i] = readString();
+            }
+
+            LocalDate lastDate = null;
+            for (int i = 0; i < rows; i++) {
+                String note = noteCodes[i] == 0 ? readString() : notes[noteCodes[i] - 1];
+                if (lastDate == null || lastDate.toEpochDay() != days[i]) {
+                    lastDate = LocalDate.ofEpochDay(days[i]);
+                }
+                out.add(Expense.ofSen(ids[i], descriptions[i], categories[categoryCodes[i]],
+                        amounts[i], lastDate, note));
+                descriptions[i] = null;
+            }
+            return maxId;
+        }
+
+        private String readString() {
+            int length = (int) readVarLong();
+            if (length == 0) {
+                return "";
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        private long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
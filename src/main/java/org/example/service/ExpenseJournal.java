@@ -0,0 +1,329 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Append-only operation log yang disimpan di samping snapshot CSV
+ * Setiap mutasi (ADD, UPDATE, DELETE) cukup menambah satu baris, sehingga
+ * biaya I/O per operasi konstan berapapun besar data.
+ * Saat dipadatkan (lihat SnapshotCompactor), log aktif di-rotate menjadi
+ * segmen tertutup (*.log.old) lalu log baru dimulai dari kosong.
+ * Modul 5: File Handling - BufferedWriter (append mode), Exception Handling
+ */
+public class ExpenseJournal implements Closeable {
+    public static final String ADD = "ADD";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    private static final String SEALED_SUFFIX = ".old";
+
+    private final File file;
+    private final File sealedFile;
+    private FileOutputStream output;
+    private BufferedWriter writer;
+    private boolean fsync;
+    // Penulisan terakhir gagal: baris terakhir di file mungkin terpotong
+    private boolean torn;
+    private long sizeBytes;
+    private long oldestRecordMillis;
+
+    public ExpenseJournal(File file) {
+        this.file = file;
+        this.sealedFile = new File(file.getPath() + SEALED_SUFFIX);
+        this.sizeBytes = file.length();
+        this.oldestRecordMillis = sizeBytes > 0 ? System.currentTimeMillis() : 0;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Segmen log yang sudah di-rotate dan menunggu dipadatkan ke snapshot
+     */
+    public File getSealedFile() {
+        return sealedFile;
+    }
+
+    /**
+     * Jika true, setiap commit diikuti fsync (data benar-benar sampai ke disk)
+     */
+    public synchronized void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+
+    /**
+     * Ukuran log aktif dalam byte
+     */
+    public synchronized long size() {
+        return sizeBytes;
+    }
+
+    /**
+     * Umur record tertua di log aktif (ms), 0 jika log kosong
+     */
+    public synchronized long age() {
+        return oldestRecordMillis == 0 ? 0 : System.currentTimeMillis() - oldestRecordMillis;
+    }
+
+    /**
+     * Tambah satu record ke log
+     * Format: OP,id,description,category,amount,date,notes
+     * Untuk DELETE, baris yang dihapus ikut dicatat sebagai tombstone.
+     * UPDATE membawa tanggal sebelum diubah (UPDATE,previousDate,id,...) supaya
+     * compaction per partisi tahu bulan lama yang ikut terdampak.
+     */
+    public void append(String op, Expense expense) throws IOException {
+        appendRecords(Collections.singletonList(format(op, expense)));
+    }
+
+    /**
+     * Bentuk baris record untuk sebuah mutasi
+     */
+    public static String format(String op, Expense expense) {
+        return op + "," + expense.toCSV();
+    }
+
+    /**
+     * Bentuk baris record UPDATE beserta tanggal sebelum diubah
+     */
+    public static String formatUpdate(Expense updated, LocalDate previousDate) {
+        return UPDATE + "," + previousDate + "," + updated.toCSV();
+    }
+
+    /**
+     * Tulis beberapa record sekaligus dengan satu flush (dan satu fsync jika aktif)
+     * Dipakai juga oleh WriteBehindWriter untuk group commit.
+     * Jika gagal, writer dibuang dan penulisan berikutnya dimulai di baris baru,
+     * sehingga record yang terpotong hanya menjadi satu baris rusak yang dilewati replay.
+     */
+    public synchronized void appendRecords(List<String> records) throws IOException {
+        try {
+            if (writer == null) {
+                file.getAbsoluteFile().getParentFile().mkdirs();
+                output = new FileOutputStream(file, true);
+                writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            }
+            if (torn) {
+                writer.newLine();
+            }
+            for (String record : records) {
+                writer.write(record);
+                writer.newLine();
+            }
+            writer.flush();
+            // Ukuran dari file, bukan panjang String: UTF-8 bisa lebih dari satu byte per karakter
+            sizeBytes = output.getChannel().size();
+            if (fsync) {
+                output.getFD().sync();
+            }
+            torn = false;
+        } catch (IOException e) {
+            torn = true;
+            discardWriter();
+            throw e;
+        }
+
+        if (oldestRecordMillis == 0 && !records.isEmpty()) {
+            oldestRecordMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Tutup log aktif dan pindahkan menjadi segmen tertutup.
+     * Hanya rename file, jadi writer hanya tertahan sangat singkat.
+     *
+     * @return true jika ada segmen tertutup yang perlu dipadatkan
+     */
+    public synchronized boolean rotate() throws IOException {
+        if (sealedFile.exists()) {
+            // Segmen sebelumnya belum selesai dipadatkan, proses itu dulu
+            return true;
+        }
+
+        close();
+        if (!file.exists() || file.length() == 0) {
+            return false;
+        }
+
+        Files.move(file.toPath(), sealedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        sizeBytes = 0;
+        oldestRecordMillis = 0;
+        return true;
+    }
+
+    /**
+     * Replay segmen tertutup (jika ada) lalu log aktif ke atas data snapshot
+     *
+     * @return ID terbesar yang tercatat di log (0 jika log kosong)
+     */
+    public synchronized int replay(List<Expense> expenses) {
+        return Math.max(replayFile(sealedFile, expenses), replayFile(file, expenses));
+    }
+
+    /**
+     * Replay semua record di satu file log ke atas data snapshot.
+     * Replay bersifat idempotent (ADD/UPDATE = upsert, DELETE = hapus jika ada),
+     * jadi aman walaupun sebagian record sudah tercakup di snapshot.
+     *
+     * @return ID terbesar yang tercatat di file log (0 jika kosong)
+     */
+    public static int replayFile(File file, List<Expense> expenses) {
+        if (!file.exists()) {
+            return 0;
+        }
+
+        Map<Integer, Integer> positions = new HashMap<>();
+        for (int i = 0; i < expenses.size(); i++) {
+            Integer duplicate = positions.put(expenses.get(i).getId(), i);
+            if (duplicate != null) {
+                // Bisa terjadi jika compaction partisi terhenti di tengah jalan;
+                // record di log ini akan menentukan versi yang benar
+                expenses.set(duplicate, null);
+            }
+        }
+
+        int maxId = 0;
+        for (Record record : readRecords(file)) {
+            apply(record.getOp(), record.getExpense(), expenses, positions);
+            maxId = Math.max(maxId, record.getExpense().getId());
+        }
+
+        expenses.removeIf(Objects::isNull);
+        return maxId;
+    }
+
+    /**
+     * Baca semua record di satu file log sesuai urutan penulisan
+     */
+    public static List<Record> readRecords(File file) {
+        List<Record> records = new ArrayList<>();
+        if (!file.exists()) {
+            return records;
+        }
+
+        try (BufferedReader reader = FileHandler.openReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+
+                try {
+                    records.add(Record.parse(line));
+                } catch (Exception e) {
+                    // Record terakhir bisa terpotong kalau aplikasi berhenti di tengah penulisan
+                    System.err.println("Error parsing journal record: " + line);
+                    System.err.println("Error: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading journal: " + e.getMessage());
+        }
+
+        return records;
+    }
+
+    private static void apply(String op, Expense expense, List<Expense> expenses, Map<Integer, Integer> positions) {
+        Integer position = positions.get(expense.getId());
+
+        switch (op) {
+            case ADD:
+            case UPDATE:
+                if (position == null) {
+                    positions.put(expense.getId(), expenses.size());
+                    expenses.add(expense);
+                } else {
+                    expenses.set(position, expense);
+                }
+                break;
+            case DELETE:
+                if (position != null) {
+                    // Tandai dulu, dibersihkan sekali di akhir replay supaya urutan tetap terjaga
+                    expenses.set(position, null);
+                    positions.remove(expense.getId());
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Operasi tidak dikenal: " + op);
+        }
+    }
+
+    private void discardWriter() {
+        try {
+            if (output != null) {
+                output.close();
+            }
+        } catch (IOException ignored) {
+            // Isi buffer yang belum tertulis memang dibuang
+        }
+        writer = null;
+        output = null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            output = null;
+        }
+    }
+
+    /**
+     * Satu record journal hasil parsing
+     */
+    public static class Record {
+        private final String op;
+        private final Expense expense;
+        private final LocalDate previousDate;
+
+        public Record(String op, Expense expense, LocalDate previousDate) {
+            this.op = op;
+            this.expense = expense;
+            this.previousDate = previousDate;
+        }
+
+        static Record parse(String line) {
+            int comma = line.indexOf(',');
+            String op = line.substring(0, comma);
+            String csv = line.substring(comma + 1);
+            if (!op.equals(ADD) && !op.equals(UPDATE) && !op.equals(DELETE)) {
+                throw new IllegalArgumentException("Operasi tidak dikenal: " + op);
+            }
+
+            LocalDate previousDate = null;
+            if (op.equals(UPDATE)) {
+                // UPDATE,previousDate,id,...
+                comma = csv.indexOf(',');
+                previousDate = LocalDate.parse(csv.substring(0, comma));
+                csv = csv.substring(comma + 1);
+            }
+            return new Record(op, Expense.fromCSV(csv), previousDate);
+        }
+
+        public String getOp() {
+            return op;
+        }
+
+        public Expense getExpense() {
+            return expense;
+        }
+
+        /**
+         * Tanggal sebelum UPDATE (null untuk ADD/DELETE atau record format lama)
+         */
+        public LocalDate getPreviousDate() {
+            return previousDate;
+        }
+    }
+}
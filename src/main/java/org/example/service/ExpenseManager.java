@@ -1,41 +1,452 @@
 package org.example.service;
 
+import org.example.index.AmountIndex;
+import org.example.index.CategoryIndex;
+import org.example.index.DateIndex;
+import org.example.index.DayRangeTotals;
+import org.example.index.IdIndex;
+import org.example.index.IntList;
+import org.example.index.PeriodTotals;
+import org.example.index.TrigramIndex;
+import org.example.model.CategoryRegistry;
 import org.example.model.Expense;
+import org.example.model.Money;
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Manager untuk business logic dan CRUD operations
  * Modul 1: Program Correctness
  * Modul 2: Refactoring - Extract methods, clean code
  * Modul 4: Java API - ArrayList, Comparator, HashMap, Stream
+ * Data di memori disimpan kolumnar di ExpenseTable (array primitif + StringPool);
+ * objek Expense hanya dibuat saat dikembalikan ke pemanggil.
+ * Lookup per ID memakai IdIndex (ID -> posisi di tabel), hapus memakai swap-remove,
+ * jadi getExpenseById/updateExpense/deleteExpense O(1).
+ * Query rentang tanggal memakai DateIndex (epoch-day terurut -> ID),
+ * Kategori disimpan sebagai kode int dari CategoryRegistry; filter/total per kategori
+ * memakai CategoryIndex (array bucket per kode: bitmap ID + total berjalan),
+ * pencarian kata kunci memakai TrigramIndex atas description dan notes.
+ * Statistik dashboard (hari ini, minggu ini, bulan ini) dibaca dari PeriodTotals
+ * yang diperbarui dengan delta di setiap add/update/delete; total rentang tanggal
+ * bebas dari DayRangeTotals (Fenwick tree per blok hari).
+ * Urutan tanggal terbaru dan amount terbesar dipelihara oleh DateIndex dan AmountIndex,
+ * jadi sort dan top-K tidak perlu sort ulang seluruh data.
+ * Aman dipakai dari beberapa thread: mutasi memakai write lock StampedLock, query
+ * memakai read lock (index tidak thread-safe, jadi tidak boleh dibaca bersamaan writer).
+ * Optimistic read hanya untuk menyalin satu-dua field (mis. jumlah baris) lalu validate.
+ * Pada mode lazy, query yang bisa memuat partisi ikut memakai write lock karena
+ * mengubah isi tabel.
+ * getAllExpenses dan kedua sort mengembalikan ExpenseSnapshot: list immutable yang
+ * berbagi segmen dengan tabel (copy-on-write), dibuat sekali per versi data.
  */
 public class ExpenseManager {
-    private List<Expense> expenses;
+    private static final int RECENT_MONTHS = 2;
+    private static final long ESTIMATED_ROW_BYTES = 200;
+    private static final int MIN_TRIGRAM_REBUILD = 1024;
+
+    /**
+     * Rentang tanggal yang diterima add/update; dicek sebelum journal ditulis
+     * supaya tanggal ekstrem tidak masuk journal lalu gagal di index
+     */
+    public static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+    public static final LocalDate MAX_DATE = LocalDate.of(2999, 12, 31);
+
+    private final StampedLock lock = new StampedLock();
+    private final CategoryRegistry categories = CategoryRegistry.withDefaults();
+    private ExpenseTable expenses = new ExpenseTable(categories, 16);
+    private IdIndex idIndex = new IdIndex();
+    private DateIndex dateIndex = new DateIndex();
+    private AmountIndex amountIndex = new AmountIndex();
+    private CategoryIndex categoryIndex = new CategoryIndex();
+    private PeriodTotals periodTotals = new PeriodTotals();
+    private DayRangeTotals dayTotals = new DayRangeTotals();
+    private TrigramIndex trigramIndex = new TrigramIndex();
+    // Batch besar tidak mengisi TrigramIndex per baris; index dibangun ulang sekali saat pencarian berikutnya
+    private boolean trigramsDeferred;
     private int nextId;
+    // Naik di setiap perubahan isi tabel; snapshot dengan versi sama masih berlaku
+    private volatile long version;
+    private volatile ExpenseSnapshot current;
+    private volatile ExpenseSnapshot byDate;
+    private volatile ExpenseSnapshot byAmount;
+    private final StorageConfig config;
+    private final File dataFile;
+    private final ExpenseJournal journal;
+    private final SnapshotCompactor compactor;
+    private final WriteBehindWriter writeBehind;
+    private PartitionedStorage partitions;
+    private PartitionCache partitionCache;
 
     public ExpenseManager() {
-        expenses = new ArrayList<>();
+        this(StorageConfig.fromSystemProperties());
+    }
+
+    /**
+     * Constructor dengan lokasi file data tertentu
+     */
+    public ExpenseManager(File dataFile) {
+        this(StorageConfig.forDataFile(dataFile));
+    }
+
+    /**
+     * Constructor dengan pengaturan penyimpanan lengkap
+     */
+    public ExpenseManager(StorageConfig config) {
+        this.config = config;
+        this.dataFile = config.getDataFile();
+        this.journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        journal.setFsync(config.getFsyncPolicy() == StorageConfig.FsyncPolicy.EVERY_COMMIT);
+        this.compactor = new SnapshotCompactor(config, journal);
+        this.writeBehind = config.isWriteBehind()
+                ? new WriteBehindWriter(journal, config.getFlushIntervalMs()) : null;
+        FileHandler.loadCategories(FileHandler.categoriesFileFor(dataFile), categories);
         loadData();
+        compactor.maybeCompact();
     }
 
     /**
-     * Load data from file
+     * Load snapshot CSV, lalu replay journal di atasnya
      */
     private void loadData() {
-        expenses = FileHandler.loadFromCSV();
-        nextId = expenses.isEmpty() ? 1 : expenses.stream()
-                .mapToInt(Expense::getId)
-                .max()
-                .orElse(0) + 1;
+        if (config.isLazyLoading()) {
+            if (config.getSnapshotFormat() == StorageConfig.SnapshotFormat.PARTITIONED && loadRecentData()) {
+                return;
+            }
+            System.err.println("Lazy loading tidak aktif, memuat semua data");
+        }
+
+        FileHandler.LoadResult snapshot;
+        try {
+            snapshot = FileHandler.loadSnapshot(config);
+        } catch (IOException e) {
+            // Aplikasi tetap terbuka; compaction ikut gagal membaca, jadi segmen journal tidak dihapus
+            System.err.println("Error loading data: " + e.getMessage());
+            snapshot = new FileHandler.LoadResult(new ArrayList<>());
+        }
+        List<Expense> rows = snapshot.getExpenses();
+        int journalMaxId = journal.replay(rows);
+        nextId = Math.max(snapshot.getMaxId(), journalMaxId) + 1;
+        expenses = ExpenseTable.of(rows, categories);
+        reindex();
+    }
+
+    /**
+     * Mode lazy loading: lipat journal ke partisi, lalu muat hanya bulan ini dan bulan lalu
+     *
+     * @return false jika journal gagal dipadatkan (partisi di disk belum lengkap)
+     */
+    private boolean loadRecentData() {
+        partitions = new PartitionedStorage(config);
+        try {
+            partitions.migrateFromSingleFile();
+        } catch (IOException e) {
+            System.err.println("Error migrating to partitions: " + e.getMessage());
+            return false;
+        }
+
+        while (journal.getSealedFile().exists() || journal.size() > 0) {
+            if (!compactor.compactNow()) {
+                partitions = null;
+                return false;
+            }
+        }
+
+        long budgetRows = config.getMemoryBudgetMb() * 1024 * 1024 / ESTIMATED_ROW_BYTES;
+        PartitionCache cache = new PartitionCache(partitions.readManifest(), RECENT_MONTHS, budgetRows);
+        FileHandler.LoadResult recent;
+        try {
+            recent = partitions.loadRange(cache.recentStart(), cache.recentEnd());
+        } catch (IOException e) {
+            System.err.println("Error loading partitions: " + e.getMessage());
+            partitions = null;
+            return false;
+        }
+        partitionCache = cache;
+        expenses = ExpenseTable.of(recent.getExpenses(), categories);
+        reindex();
+        for (Map.Entry<YearMonth, List<Expense>> entry : PartitionedStorage.groupByMonth(recent.getExpenses()).entrySet()) {
+            partitionCache.markLoaded(entry.getKey(), entry.getValue().size());
+        }
+        nextId = Math.max(partitionCache.maxId(), recent.getMaxId()) + 1;
+        return true;
+    }
+
+    /**
+     * Pastikan semua partisi dalam rentang tanggal sudah ada di memori
+     */
+    private void ensureLoaded(LocalDate startDate, LocalDate endDate) {
+        if (partitionCache == null || startDate.isAfter(endDate)) {
+            return;
+        }
+        YearMonth first = YearMonth.from(startDate);
+        YearMonth last = YearMonth.from(endDate);
+
+        for (YearMonth month : partitionCache.unloadedMonths(first, last)) {
+            loadPartition(month);
+        }
+        partitionCache.touch(first, last);
+        evictColdPartitions(first, last);
+    }
+
+    /**
+     * Muat satu partisi ke memori
+     */
+    private void loadPartition(YearMonth month) {
+        insertPartition(month, partitions.loadMonth(month));
+    }
+
+    /**
+     * Masukkan baris partisi yang sudah dibaca ke tabel dan index
+     */
+    private void insertPartition(YearMonth month, List<Expense> rows) {
+        if (partitionCache.isDirty(month)) {
+            // Baris yang berubah di sesi ini versi terbarunya sudah ada di memori
+            rows.removeIf(e -> idIndex.contains(e.getId()));
+        }
+
+        for (Expense expense : rows) {
+            insert(expense);
+        }
+        partitionCache.markLoaded(month, rows.size());
+    }
+
+    /**
+     * Buang partisi lama yang tidak berubah jika memori melewati budget
+     * Baris bulan yang dibuang dicari lewat DateIndex lalu dihapus satu per satu
+     * (index diperbarui per baris), jadi biayanya sebanding jumlah baris yang dibuang,
+     * bukan jumlah seluruh baris di memori.
+     */
+    private void evictColdPartitions(YearMonth pinnedStart, YearMonth pinnedEnd) {
+        IntList ids = new IntList();
+        for (YearMonth month : partitionCache.evictions(pinnedStart, pinnedEnd)) {
+            dateIndex.forEachInRange(month.atDay(1), month.atEndOfMonth(), ids::add);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            remove(ids.get(i));
+        }
+    }
+
+    /**
+     * Bangun ulang semua index dari isi tabel (setelah load atau removeIf massal)
+     */
+    private void reindex() {
+        version++;
+        int rows = expenses.size();
+        idIndex = new IdIndex(rows);
+        dateIndex = new DateIndex();
+        categoryIndex = new CategoryIndex();
+        periodTotals = new PeriodTotals();
+        dayTotals = new DayRangeTotals();
+        int[] ids = new int[rows];
+        long[] amounts = new long[rows];
+        for (int position = 0; position < rows; position++) {
+            ids[position] = expenses.id(position);
+            amounts[position] = expenses.amountSen(position);
+            idIndex.put(ids[position], position);
+            indexDateAndCategory(position);
+        }
+        // AmountIndex dibangun sekali dari kolom yang sudah terkumpul, bukan per baris
+        amountIndex = AmountIndex.build(ids, amounts, rows);
+        rebuildTrigrams();
+    }
+
+    private void rebuildTrigrams() {
+        trigramsDeferred = false;
+        trigramIndex = new TrigramIndex();
+        for (int position = 0; position < expenses.size(); position++) {
+            trigramIndex.add(expenses.id(position), expenses.description(position));
+            trigramIndex.add(expenses.id(position), expenses.notes(position));
+        }
+    }
+
+    private void insert(Expense expense) {
+        version++;
+        int position = expenses.add(expense);
+        idIndex.put(expense.getId(), position);
+        indexFields(position);
+        indexText(expense);
+    }
+
+    private void indexText(Expense expense) {
+        if (trigramsDeferred) {
+            return;
+        }
+        trigramIndex.add(expense.getId(), expense.getDescription());
+        trigramIndex.add(expense.getId(), expense.getNotes());
+    }
+
+    /**
+     * Daftarkan amount, tanggal, dan kategori baris ke index sekunder dan total periode
+     */
+    private void indexFields(int position) {
+        amountIndex.add(expenses.id(position), expenses.amountSen(position));
+        indexDateAndCategory(position);
+    }
+
+    /**
+     * Seperti indexFields tanpa AmountIndex (dipakai reindex yang membangunnya sekaligus)
+     */
+    private void indexDateAndCategory(int position) {
+        int id = expenses.id(position);
+        LocalDate date = expenses.date(position);
+        long amountSen = expenses.amountSen(position);
+        dateIndex.add(id, date);
+        periodTotals.add(date, amountSen);
+        dayTotals.add(date, amountSen);
+        categoryIndex.add(id, expenses.categoryCode(position), amountSen, date);
+    }
+
+    private void unindexFields(int position) {
+        int id = expenses.id(position);
+        LocalDate date = expenses.date(position);
+        long amountSen = expenses.amountSen(position);
+        dateIndex.remove(id, date);
+        amountIndex.remove(id, amountSen);
+        periodTotals.remove(date, amountSen);
+        dayTotals.remove(date, amountSen);
+        categoryIndex.remove(id, expenses.categoryCode(position), amountSen, date);
+    }
+
+    /**
+     * Hapus baris dengan swap-remove: baris terakhir mengisi posisi yang kosong
+     */
+    private void remove(int id) {
+        int position = idIndex.remove(id);
+        if (position < 0) {
+            return;
+        }
+        version++;
+        unindexFields(position);
+        trigramIndex.markStale();
+        int moved = expenses.removeAt(position);
+        if (moved >= 0) {
+            idIndex.put(moved, position);
+        }
+    }
+
+    /**
+     * Ambil expense yang cocok dari seluruh histori.
+     * Pada mode lazy, partisi yang belum dimuat dibuka satu per satu
+     * sehingga memori tetap di bawah budget.
+     */
+    private List<Expense> collect(Predicate<Expense> filter) {
+        List<Expense> result = new ArrayList<>();
+        for (int position = 0; position < expenses.size(); position++) {
+            Expense expense = expenses.get(position);
+            if (filter.test(expense)) {
+                result.add(expense);
+            }
+        }
+
+        if (partitionCache != null) {
+            // Partisi lama dibaca langsung tanpa dimuat ke tabel, jadi tidak ada evict/index ulang
+            for (YearMonth month : partitionCache.unloadedMonths()) {
+                boolean dirty = partitionCache.isDirty(month);
+                for (Expense expense : partitions.loadMonth(month)) {
+                    if (dirty && idIndex.contains(expense.getId())) {
+                        continue; // Versi terbaru ada di memori
+                    }
+                    if (filter.test(expense)) {
+                        result.add(expense);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void markDirty(LocalDate date) {
+        if (partitionCache != null) {
+            partitionCache.markDirty(YearMonth.from(date));
+        }
     }
 
     /**
-     * Save data to file
+     * Catat satu mutasi ke journal - O(1) I/O, tidak menulis ulang CSV
+     * Pada mode write-behind record hanya masuk antrean writer.
      */
-    private void saveData() {
-        FileHandler.saveToCSV(expenses);
+    private void saveData(String record) throws IOException {
+        saveData(Collections.singletonList(record));
+    }
+
+    /**
+     * Catat beberapa mutasi sekaligus dengan satu tulis + flush (satu entri antrean
+     * pada mode write-behind, jadi tidak terpecah ke dua group commit)
+     */
+    private void saveData(List<String> records) throws IOException {
+        if (writeBehind != null) {
+            writeBehind.submit(records);
+        } else {
+            journal.appendRecords(records);
+        }
+        compactor.maybeCompact();
+    }
+
+    /**
+     * Future yang selesai saat semua mutasi sejauh ini sudah tertulis ke journal
+     * Pada mode sinkron selalu sudah selesai.
+     */
+    public CompletableFuture<Void> whenDurable() {
+        return writeBehind != null ? writeBehind.whenDurable() : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Tutup journal (flush ke disk) dan hentikan compactor
+     */
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            if (writeBehind != null) {
+                writeBehind.close();
+            }
+            compactor.shutdown();
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Error closing journal: " + e.getMessage());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ==================== LOCKING ====================
+
+    /**
+     * Jalankan query di bawah read lock. Query yang menelusuri index tidak boleh
+     * memakai optimistic read: index yang sedang diubah writer bisa membuat
+     * probe/rehash berputar terus atau melempar Error, bukan sekadar hasil basi.
+     */
+    private <T> T read(Supplier<T> query) {
+        long stamp = lock.readLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Query yang mungkin memuat/mengeluarkan partisi (mode lazy) butuh write lock
+     */
+    private <T> T load(Supplier<T> query) {
+        if (partitionCache == null) {
+            return read(query);
+        }
+        long stamp = lock.writeLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     // ==================== CRUD OPERATIONS ====================
@@ -45,46 +456,128 @@ public class ExpenseManager {
      */
     public boolean addExpense(String description, String category, double amount,
                               LocalDate date, String notes) {
+        long stamp = lock.writeLock();
         try {
-            // Validation
-            if (description == null || description.trim().isEmpty()) {
-                throw new IllegalArgumentException("Deskripsi tidak boleh kosong");
-            }
-            if (category == null || category.trim().isEmpty()) {
-                throw new IllegalArgumentException("Kategori harus dipilih");
-            }
-            if (amount <= 0) {
-                throw new IllegalArgumentException("Jumlah harus lebih dari 0");
-            }
-            if (date == null) {
-                throw new IllegalArgumentException("Tanggal tidak boleh kosong");
-            }
+            validate(description, category, amount, date, notes);
 
             Expense expense = new Expense(nextId++, description, category, amount, date, notes);
-            expenses.add(expense);
-            saveData();
+            ensureCategory(category);
+            saveData(ExpenseJournal.format(ExpenseJournal.ADD, expense));
+            markDirty(date);
+            insert(expense);
             return true;
         } catch (Exception e) {
             System.err.println("Error adding expense: " + e.getMessage());
             return false;
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
     /**
      * READ - Get all expenses
+     * Hasilnya immutable; pada mode lazy berupa list baru dari seluruh histori
      */
     public List<Expense> getAllExpenses() {
-        return new ArrayList<>(expenses);
+        if (partitionCache != null) {
+            return load(() -> collect(e -> true));
+        }
+        return snapshot();
+    }
+
+    /**
+     * Versi data saat ini, naik di setiap add/update/delete (dan load/evict partisi)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Snapshot immutable data di memori (mode lazy: hanya partisi yang sedang dimuat).
+     * Tanpa perubahan sejak snapshot terakhir, objek yang sama dikembalikan tanpa lock.
+     */
+    public ExpenseSnapshot snapshot() {
+        ExpenseSnapshot snapshot = current;
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        // Membuat snapshot menaikkan epoch tabel, jadi tidak bisa lewat optimistic read.
+        // Read lock cukup: writer tertahan, epoch naik secara atomic (lihat ExpenseTable.snapshot)
+        long stamp = lock.readLock();
+        try {
+            return currentSnapshot();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Snapshot untuk versi saat ini; pemanggil memegang lock
+     */
+    private ExpenseSnapshot currentSnapshot() {
+        ExpenseSnapshot snapshot = current;
+        if (snapshot == null || snapshot.getVersion() != version) {
+            snapshot = expenses.snapshot(version);
+            current = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Snapshot versi saat ini dengan urutan baris dari index
+     *
+     * @param walk menelusuri ID dalam urutan yang diinginkan
+     */
+    private ExpenseSnapshot orderedSnapshot(Consumer<IntPredicate> walk) {
+        long stamp = lock.readLock();
+        try {
+            int[] positions = new int[expenses.size()];
+            int[] count = {0};
+            walk.accept(id -> {
+                positions[count[0]++] = idIndex.get(id);
+                return true;
+            });
+            return currentSnapshot().ordered(positions);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
      * READ - Get expense by ID
      */
     public Expense getExpenseById(int id) {
-        return expenses.stream()
-                .filter(e -> e.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return load(() -> findById(id));
+    }
+
+    /**
+     * Cari expense per ID di memori, lalu di partisi yang belum dimuat (mode lazy)
+     */
+    private Expense findById(int id) {
+        int position = idIndex.get(id);
+        Expense found = position >= 0 ? expenses.get(position) : null;
+
+        if (found == null && partitionCache != null) {
+            // Cari di partisi lama, mulai dari bulan terbaru
+            for (YearMonth month : partitionCache.unloadedMonths()) {
+                if (!partitionCache.mayContain(month, id)) {
+                    continue;
+                }
+                List<Expense> rows = partitions.loadMonth(month);
+                for (Expense expense : rows) {
+                    if (expense.getId() == id) {
+                        found = expense;
+                    }
+                }
+                if (found != null) {
+                    // Baris yang dicari per ID biasanya segera diubah/dihapus, jadi bulannya dimuat
+                    insertPartition(month, rows);
+                    evictColdPartitions(month, month);
+                    break;
+                }
+            }
+        }
+        return found;
     }
 
     /**
@@ -92,31 +585,40 @@ public class ExpenseManager {
      */
     public boolean updateExpense(int id, String description, String category,
                                  double amount, LocalDate date, String notes) {
+        long stamp = lock.writeLock();
         try {
-            Expense expense = getExpenseById(id);
+            Expense expense = findById(id);
             if (expense == null) {
                 throw new IllegalArgumentException("Data tidak ditemukan");
             }
 
-            // Validation
-            if (description == null || description.trim().isEmpty()) {
-                throw new IllegalArgumentException("Deskripsi tidak boleh kosong");
-            }
-            if (amount <= 0) {
-                throw new IllegalArgumentException("Jumlah harus lebih dari 0");
-            }
+            validate(description, category, amount, date, notes);
+
+            Expense updated = new Expense(id, description, category, amount, date, notes);
+            ensureCategory(category);
+            saveData(ExpenseJournal.formatUpdate(updated, expense.getDate()));
+            markDirty(expense.getDate());
+            markDirty(date);
+
+            boolean textChanged = !description.equals(expense.getDescription())
+                    || !Objects.equals(notes, expense.getNotes());
 
-            expense.setDescription(description);
-            expense.setCategory(category);
-            expense.setAmount(amount);
-            expense.setDate(date);
-            expense.setNotes(notes);
+            int position = idIndex.get(id);
+            version++;
+            unindexFields(position);
+            expenses.set(position, updated);
+            indexFields(position);
+            if (textChanged) {
+                trigramIndex.markStale();
+                indexText(updated);
+            }
 
-            saveData();
             return true;
         } catch (Exception e) {
             System.err.println("Error updating expense: " + e.getMessage());
             return false;
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
@@ -124,16 +626,232 @@ public class ExpenseManager {
      * DELETE - Delete expense
      */
     public boolean deleteExpense(int id) {
+        long stamp = lock.writeLock();
         try {
-            boolean removed = expenses.removeIf(e -> e.getId() == id);
-            if (removed) {
-                saveData();
-                return true;
+            Expense expense = findById(id);
+            if (expense == null) {
+                return false;
             }
-            return false;
+
+            saveData(ExpenseJournal.format(ExpenseJournal.DELETE, expense));
+            markDirty(expense.getDate());
+            remove(id);
+            return true;
         } catch (Exception e) {
             System.err.println("Error deleting expense: " + e.getMessage());
             return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ==================== BATCH OPERATIONS ====================
+
+    /**
+     * CREATE - Tambah banyak expense sekaligus (ID di objek masukan diabaikan)
+     * Semua baris divalidasi dulu; jika satu saja tidak valid tidak ada yang disimpan.
+     * Journal ditulis sekali untuk seluruh batch, index diperbarui per baris batch saja,
+     * jadi biayanya sebanding ukuran batch, bukan ukuran ledger.
+     */
+    public boolean addExpenses(Collection<Expense> batch) {
+        long stamp = lock.writeLock();
+        try {
+            applyBatchLocked(batch, Collections.emptyList(), Collections.emptyList());
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error adding expenses: " + e.getMessage());
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * UPDATE - Ubah banyak expense sekaligus berdasarkan ID masing-masing
+     * Gagal seluruhnya jika ada ID yang tidak ditemukan atau baris yang tidak valid.
+     */
+    public boolean updateExpenses(Collection<Expense> batch) {
+        long stamp = lock.writeLock();
+        try {
+            applyBatchLocked(Collections.emptyList(), batch, Collections.emptyList());
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error updating expenses: " + e.getMessage());
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * DELETE - Hapus banyak expense sekaligus
+     * Gagal seluruhnya jika ada ID yang tidak ditemukan; ID ganda dihapus sekali.
+     */
+    public boolean deleteExpenses(Collection<Integer> ids) {
+        long stamp = lock.writeLock();
+        try {
+            applyBatchLocked(Collections.emptyList(), Collections.emptyList(), ids);
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error deleting expenses: " + e.getMessage());
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Batch campuran: add, lalu update, lalu delete dalam satu write lock dan satu tulis journal
+     * Utuh atau tidak sama sekali: jika satu baris tidak valid atau satu ID tidak ditemukan,
+     * tidak ada yang disimpan. ID baru dari add tidak bisa dirujuk update/delete di batch yang sama.
+     */
+    public boolean applyBatch(Collection<Expense> adds, Collection<Expense> updates, Collection<Integer> deletes) {
+        long stamp = lock.writeLock();
+        try {
+            applyBatchLocked(adds, updates, deletes);
+            return true;
+        } catch (Exception e) {
+            System.err.println("Error applying batch: " + e.getMessage());
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Inti semua operasi batch; pemanggil memegang write lock
+     * Semua baris divalidasi dan semua ID dicari sebelum journal ditulis, jadi exception
+     * hanya bisa terjadi sebelum ada yang berubah. Setelah journal tertulis, perubahan
+     * di memori tinggal memperbarui tabel dan index per baris batch.
+     */
+    private void applyBatchLocked(Collection<Expense> adds, Collection<Expense> updates,
+                                  Collection<Integer> deletes) throws IOException {
+        int row = 0;
+        for (Expense expense : adds) {
+            row++;
+            validate(row, expense);
+        }
+
+        List<String> records = new ArrayList<>(adds.size() + updates.size() + deletes.size());
+        List<Expense> added = new ArrayList<>(adds.size());
+        int id = nextId;
+        for (Expense expense : adds) {
+            Expense created = new Expense(id++, expense.getDescription(), expense.getCategory(),
+                    expense.getAmount(), expense.getDate(), expense.getNotes());
+            added.add(created);
+            records.add(ExpenseJournal.format(ExpenseJournal.ADD, created));
+        }
+
+        // Versi terakhir setiap ID yang disentuh batch (update berantai / update lalu delete)
+        Map<Integer, Expense> latest = new HashMap<>();
+        row = 0;
+        for (Expense updated : updates) {
+            row++;
+            validate(row, updated);
+            Expense expense = latest.containsKey(updated.getId()) ? latest.get(updated.getId())
+                    : findById(updated.getId());
+            if (expense == null) {
+                throw new IllegalArgumentException("Baris " + row + ": Data tidak ditemukan");
+            }
+            // Bulan dirty tidak dikeluarkan saat baris berikutnya dicari (mode lazy)
+            markDirty(expense.getDate());
+            latest.put(updated.getId(), updated);
+            records.add(ExpenseJournal.formatUpdate(updated, expense.getDate()));
+        }
+
+        List<Integer> deleted = new ArrayList<>(deletes.size());
+        for (int deleteId : new LinkedHashSet<>(deletes)) {
+            Expense expense = latest.containsKey(deleteId) ? latest.get(deleteId) : findById(deleteId);
+            if (expense == null) {
+                throw new IllegalArgumentException("Data tidak ditemukan: " + deleteId);
+            }
+            markDirty(expense.getDate());
+            deleted.add(deleteId);
+            records.add(ExpenseJournal.format(ExpenseJournal.DELETE, expense));
+        }
+
+        for (Expense expense : added) {
+            ensureCategory(expense.getCategory());
+        }
+        for (Expense updated : updates) {
+            ensureCategory(updated.getCategory());
+        }
+        saveData(records);
+        nextId = id;
+
+        if (added.size() >= MIN_TRIGRAM_REBUILD) {
+            trigramsDeferred = true;
+        }
+        for (Expense expense : added) {
+            markDirty(expense.getDate());
+            insert(expense);
+        }
+        for (Expense updated : updates) {
+            markDirty(updated.getDate());
+            int position = idIndex.get(updated.getId());
+            Expense expense = expenses.get(position);
+            version++;
+            unindexFields(position);
+            expenses.set(position, updated);
+            indexFields(position);
+            if (!updated.getDescription().equals(expense.getDescription())
+                    || !Objects.equals(updated.getNotes(), expense.getNotes())) {
+                trigramIndex.markStale();
+                indexText(updated);
+            }
+        }
+        for (int deleteId : deleted) {
+            remove(deleteId);
+        }
+    }
+
+    /**
+     * Validasi input expense (dipakai add/update tunggal dan batch, jadi juga GUI, import, dan server)
+     * Teks tidak boleh berisi koma atau baris baru: journal dan snapshot CSV ditulis satu record
+     * per baris dengan field dipisah koma, tanpa kutip.
+     */
+    private static void validate(String description, String category, double amount, LocalDate date,
+                                 String notes) {
+        if (description == null || description.trim().isEmpty()) {
+            throw new IllegalArgumentException("Deskripsi tidak boleh kosong");
+        }
+        if (category == null || category.trim().isEmpty()) {
+            throw new IllegalArgumentException("Kategori harus dipilih");
+        }
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Jumlah harus lebih dari 0");
+        }
+        if (date == null) {
+            throw new IllegalArgumentException("Tanggal tidak boleh kosong");
+        }
+        if (date.isBefore(MIN_DATE) || date.isAfter(MAX_DATE)) {
+            throw new IllegalArgumentException("Tanggal harus antara " + MIN_DATE + " dan " + MAX_DATE);
+        }
+        checkText(description, "Deskripsi");
+        checkText(category, "Kategori");
+        if (notes != null) {
+            checkText(notes, "Catatan");
+        }
+    }
+
+    private static void checkText(String value, String field) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == ',' || ch == '\n' || ch == '\r') {
+                throw new IllegalArgumentException(field + " tidak boleh berisi koma atau baris baru");
+            }
+        }
+    }
+
+    private static void validate(int row, Expense expense) {
+        if (expense == null) {
+            throw new IllegalArgumentException("Baris " + row + ": data kosong");
+        }
+        try {
+            validate(expense.getDescription(), expense.getCategory(), expense.getAmount(), expense.getDate(),
+                    expense.getNotes());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Baris " + row + ": " + e.getMessage());
         }
     }
 
@@ -148,11 +866,137 @@ public class ExpenseManager {
         }
 
         String searchTerm = keyword.toLowerCase();
-        return expenses.stream()
-                .filter(e -> e.getDescription().toLowerCase().contains(searchTerm) ||
-                        e.getCategory().toLowerCase().contains(searchTerm) ||
-                        e.getFormattedDate().contains(searchTerm))
-                .collect(Collectors.toList());
+        Predicate<Expense> matches = e -> matchesText(e, searchTerm) ||
+                e.getCategory().toLowerCase().contains(searchTerm) ||
+                e.getFormattedDate().contains(searchTerm);
+        if (partitionCache != null) {
+            return load(() -> collect(matches));
+        }
+
+        if (read(this::trigramsStale)) {
+            long stamp = lock.writeLock();
+            try {
+                if (trigramsStale()) {
+                    rebuildTrigrams();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        return read(() -> searchIndexed(searchTerm));
+    }
+
+    private boolean trigramsStale() {
+        return trigramsDeferred || trigramIndex.getStaleCount() > Math.max(MIN_TRIGRAM_REBUILD, expenses.size());
+    }
+
+    /**
+     * Pencarian lewat TrigramIndex (semua data di memori)
+     */
+    private List<Expense> searchIndexed(String searchTerm) {
+        IntList candidates = trigramIndex.candidates(searchTerm);
+        if (candidates == null) {
+            // Kata kunci < 3 karakter tidak bisa memakai trigram
+            return scan(searchTerm);
+        }
+
+        BitSet found = new BitSet();
+
+        // Kategori dan tanggal dicek per nilai unik, bukan per baris
+        for (int code = 0; code < categories.size(); code++) {
+            if (categoryIndex.count(code) > 0 && containsIgnoreCase(categories.name(code), searchTerm)) {
+                categoryIndex.forEach(code, found::set);
+            }
+        }
+        if (searchTerm.chars().allMatch(c -> Character.isDigit(c) || c == '/')) {
+            char[] formatted = new char[10];
+            dateIndex.forEachMatchingDay(d -> containsTerm(formatDate(d, formatted), 10, searchTerm), found::set);
+        }
+
+        // Description/notes: verifikasi kandidat dari posting list trigram
+        candidates.forEach(id -> {
+            int position = idIndex.get(id);
+            if (position >= 0 && !found.get(id) && expenses.textContains(position, searchTerm)) {
+                found.set(id);
+            }
+        });
+
+        List<Expense> result = new ArrayList<>(found.cardinality());
+        for (int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) {
+            result.add(expenses.get(idIndex.get(id)));
+        }
+        return result;
+    }
+
+    /**
+     * Pencarian tanpa index: cek kolom per baris, Expense hanya dibuat untuk baris yang cocok
+     */
+    private List<Expense> scan(String searchTerm) {
+        List<Expense> result = new ArrayList<>();
+        char[] formatted = new char[10];
+        for (int position = 0; position < expenses.size(); position++) {
+            if (expenses.textContains(position, searchTerm)
+                    || containsIgnoreCase(expenses.category(position), searchTerm)
+                    || containsTerm(formatDate(expenses.date(position), formatted), 10, searchTerm)) {
+                result.add(expenses.get(position));
+            }
+        }
+        return result;
+    }
+
+    private static boolean matchesText(Expense expense, String searchTerm) {
+        return containsIgnoreCase(expense.getDescription(), searchTerm) ||
+                (expense.getNotes() != null && containsIgnoreCase(expense.getNotes(), searchTerm));
+    }
+
+    /**
+     * Sama dengan text.toLowerCase().contains(term) untuk term huruf kecil, tanpa alokasi
+     */
+    static boolean containsIgnoreCase(String text, String term) {
+        int last = text.length() - term.length();
+        for (int i = 0; i <= last; i++) {
+            int j = 0;
+            while (j < term.length() && Character.toLowerCase(text.charAt(i + j)) == term.charAt(j)) {
+                j++;
+            }
+            if (j == term.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tulis tanggal sebagai dd/MM/yyyy ke buffer (tanpa DateTimeFormatter)
+     */
+    private static char[] formatDate(LocalDate date, char[] out) {
+        int day = date.getDayOfMonth();
+        int month = date.getMonthValue();
+        int year = Math.floorMod(date.getYear(), 10000);
+        out[0] = (char) ('0' + day / 10);
+        out[1] = (char) ('0' + day % 10);
+        out[2] = '/';
+        out[3] = (char) ('0' + month / 10);
+        out[4] = (char) ('0' + month % 10);
+        out[5] = '/';
+        out[6] = (char) ('0' + year / 1000);
+        out[7] = (char) ('0' + year / 100 % 10);
+        out[8] = (char) ('0' + year / 10 % 10);
+        out[9] = (char) ('0' + year % 10);
+        return out;
+    }
+
+    private static boolean containsTerm(char[] text, int length, String term) {
+        for (int i = 0; i + term.length() <= length; i++) {
+            int j = 0;
+            while (j < term.length() && text[i + j] == term.charAt(j)) {
+                j++;
+            }
+            if (j == term.length()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -163,18 +1007,110 @@ public class ExpenseManager {
             return getAllExpenses();
         }
 
-        return expenses.stream()
-                .filter(e -> e.getCategory().equals(category))
-                .collect(Collectors.toList());
+        return load(() -> {
+            if (partitionCache != null) {
+                return collect(e -> e.getCategory().equals(category));
+            }
+            int code = categories.codeOf(category);
+            List<Expense> result = new ArrayList<>(categoryIndex.count(code));
+            categoryIndex.forEach(code, id -> result.add(expenses.get(idIndex.get(id))));
+            return result;
+        });
+    }
+
+    /**
+     * Filter by category dalam rentang tanggal
+     * Sisi yang lebih kecil (bitmap kategori atau bucket tanggal) yang diiterasi,
+     * sisi lainnya hanya dicek.
+     */
+    public List<Expense> filterByCategoryAndDateRange(String category, LocalDate startDate, LocalDate endDate) {
+        if (category == null || category.equals("Semua")) {
+            return filterByDateRange(startDate, endDate);
+        }
+        return load(() -> {
+            ensureLoaded(startDate, endDate);
+
+            int code = categories.codeOf(category);
+            List<Expense> result = new ArrayList<>();
+            if (categoryIndex.count(code) < dateIndex.count(startDate, endDate)) {
+                int startDay = DateIndex.dayOf(startDate);
+                int endDay = DateIndex.dayOf(endDate);
+                categoryIndex.forEach(code, id -> {
+                    int position = idIndex.get(id);
+                    if (expenses.day(position) >= startDay && expenses.day(position) <= endDay) {
+                        result.add(expenses.get(position));
+                    }
+                });
+            } else {
+                dateIndex.forEachInRange(startDate, endDate, id -> {
+                    if (categoryIndex.contains(code, id)) {
+                        result.add(expenses.get(idIndex.get(id)));
+                    }
+                });
+            }
+            return result;
+        });
     }
 
     /**
      * Filter by date range
      */
     public List<Expense> filterByDateRange(LocalDate startDate, LocalDate endDate) {
-        return expenses.stream()
-                .filter(e -> !e.getDate().isBefore(startDate) && !e.getDate().isAfter(endDate))
-                .collect(Collectors.toList());
+        return load(() -> {
+            ensureLoaded(startDate, endDate);
+            return rangeFromIndex(startDate, endDate);
+        });
+    }
+
+    /**
+     * Baris di memori dalam rentang tanggal, urut dari tanggal terlama
+     */
+    private List<Expense> rangeFromIndex(LocalDate startDate, LocalDate endDate) {
+        List<Expense> result = new ArrayList<>(dateIndex.count(startDate, endDate));
+        dateIndex.forEachInRange(startDate, endDate, id -> result.add(expenses.get(idIndex.get(id))));
+        return result;
+    }
+
+    /**
+     * Total pengeluaran antara dua tanggal (inklusif), dari Fenwick tree per blok hari
+     */
+    public double getTotal(LocalDate startDate, LocalDate endDate) {
+        return load(() -> {
+            ensureLoaded(startDate, endDate);
+            return Money.toRupiah(dayTotals.sum(startDate, endDate));
+        });
+    }
+
+    /**
+     * Buka iterator streaming untuk rentang tanggal (dipakai export).
+     * Baris di memori dibaca dari snapshot (tanpa menyalin baris), partisi lama dibaca
+     * satu per satu saat iterator berjalan tanpa dimuat ke memori manager, jadi bisa
+     * dipakai dari thread background dan memorinya tidak tergantung panjang rentang.
+     */
+    public ExpenseSource openRange(LocalDate startDate, LocalDate endDate) {
+        // Snapshot dan daftar partisi harus dari versi yang sama
+        long stamp = lock.readLock();
+        try {
+            int residentRows = dateIndex.count(startDate, endDate);
+
+            List<YearMonth> months = new ArrayList<>();
+            IdIndex skipIds = new IdIndex();
+            long partitionRows = 0;
+            if (partitionCache != null && !startDate.isAfter(endDate)) {
+                months = partitionCache.unloadedMonths(YearMonth.from(startDate), YearMonth.from(endDate));
+                Collections.reverse(months);
+                for (YearMonth month : months) {
+                    partitionRows += partitionCache.rows(month);
+                    if (partitionCache.isDirty(month) && skipIds.size() == 0) {
+                        skipIds = idIndex.copy();
+                    }
+                }
+            }
+            return new ExpenseSource(currentSnapshot(), residentRows, partitions, months, skipIds,
+                    startDate, endDate, partitionRows);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     // ==================== SORTING ====================
@@ -183,8 +1119,17 @@ public class ExpenseManager {
      * Sort by date (newest first)
      */
     public List<Expense> sortByDateDesc() {
-        List<Expense> sorted = new ArrayList<>(expenses);
-        sorted.sort(Comparator.comparing(Expense::getDate).reversed());
+        if (partitionCache != null) {
+            List<Expense> sorted = getAllExpenses();
+            sorted.sort(Comparator.comparing(Expense::getDate).reversed());
+            return sorted;
+        }
+        ExpenseSnapshot sorted = byDate;
+        if (sorted == null || sorted.getVersion() != version) {
+            // Urutan sudah dipelihara DateIndex, tinggal dibaca dari tanggal terbaru
+            sorted = orderedSnapshot(walk -> dateIndex.forEachDescending(walk));
+            byDate = sorted;
+        }
         return sorted;
     }
 
@@ -192,52 +1137,142 @@ public class ExpenseManager {
      * Sort by amount (highest first)
      */
     public List<Expense> sortByAmountDesc() {
-        List<Expense> sorted = new ArrayList<>(expenses);
-        sorted.sort(Comparator.comparing(Expense::getAmount).reversed());
+        if (partitionCache != null) {
+            List<Expense> sorted = getAllExpenses();
+            sorted.sort(Comparator.comparing(Expense::getAmount).reversed());
+            return sorted;
+        }
+        ExpenseSnapshot sorted = byAmount;
+        if (sorted == null || sorted.getVersion() != version) {
+            sorted = orderedSnapshot(walk -> amountIndex.forEachDescending(walk));
+            byAmount = sorted;
+        }
         return sorted;
     }
 
+    /**
+     * Top-K: expense dengan amount terbesar dalam rentang tanggal (terbesar dulu)
+     * Jika rentang mencakup sebagian besar data, AmountIndex dibaca dari atas dan berhenti
+     * setelah limit baris yang masuk rentang; jika rentangnya sempit, baris dalam rentang
+     * disaring lewat min-heap berukuran limit. Keduanya tanpa sort seluruh data.
+     */
+    public List<Expense> getLargestExpenses(int limit, LocalDate startDate, LocalDate endDate) {
+        if (limit <= 0 || startDate.isAfter(endDate)) {
+            return new ArrayList<>();
+        }
+        return load(() -> {
+            ensureLoaded(startDate, endDate);
+
+            int inRange = dateIndex.count(startDate, endDate);
+            List<Expense> result = new ArrayList<>(Math.min(limit, inRange));
+            if (inRange == 0) {
+                return result;
+            }
+
+            // Perkiraan baris yang dibaca dari AmountIndex: limit / (inRange / size)
+            if ((long) limit * expenses.size() <= (long) inRange * inRange) {
+                int startDay = DateIndex.dayOf(startDate);
+                int endDay = DateIndex.dayOf(endDate);
+                amountIndex.forEachDescending(id -> {
+                    int position = idIndex.get(id);
+                    if (expenses.day(position) >= startDay && expenses.day(position) <= endDay) {
+                        result.add(expenses.get(position));
+                    }
+                    return result.size() < limit;
+                });
+                return result;
+            }
+
+            PriorityQueue<Integer> smallest = new PriorityQueue<>(limit,
+                    Comparator.comparingLong(expenses::amountSen));
+            dateIndex.forEachInRange(startDate, endDate, id -> {
+                int position = idIndex.get(id);
+                if (smallest.size() < limit) {
+                    smallest.add(position);
+                } else if (expenses.amountSen(position) > expenses.amountSen(smallest.peek())) {
+                    smallest.poll();
+                    smallest.add(position);
+                }
+            });
+            while (!smallest.isEmpty()) {
+                result.add(expenses.get(smallest.poll()));
+            }
+            Collections.reverse(result);
+            return result;
+        });
+    }
+
+    /**
+     * Top-K bulan berjalan, misalnya 50 pengeluaran terbesar bulan ini
+     */
+    public List<Expense> getLargestExpensesThisMonth(int limit) {
+        YearMonth month = YearMonth.now();
+        return getLargestExpenses(limit, month.atDay(1), month.atEndOfMonth());
+    }
+
     // ==================== STATISTICS ====================
 
+    // Bulan ini dan bulan lalu selalu ada di memori (juga pada mode lazy),
+    // jadi statistik hari/minggu/bulan berjalan cukup dibaca dari PeriodTotals.
+    // Kuncinya tanggal, bukan "hari ini", sehingga lewat tengah malam tidak perlu hitung ulang.
+
     /**
      * Get total for today
      */
     public double getTotalToday() {
-        LocalDate today = LocalDate.now();
-        return expenses.stream()
-                .filter(e -> e.getDate().equals(today))
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        return read(() -> Money.toRupiah(periodTotals.dayTotal(LocalDate.now())));
     }
 
     /**
      * Get total for current month
      */
     public double getTotalThisMonth() {
-        LocalDate now = LocalDate.now();
-        return expenses.stream()
-                .filter(e -> e.getDate().getMonth() == now.getMonth() &&
-                        e.getDate().getYear() == now.getYear())
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        return read(() -> Money.toRupiah(periodTotals.monthTotal(YearMonth.now())));
     }
 
     /**
      * Get total for current week
      */
     public double getTotalThisWeek() {
-        LocalDate today = LocalDate.now();
-        LocalDate weekStart = today.minusDays(6);
-        return filterByDateRange(weekStart, today).stream()
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        return read(() -> {
+            LocalDate today = LocalDate.now();
+            long totalSen = 0;
+            for (int i = 0; i < 7; i++) {
+                totalSen += periodTotals.dayTotal(today.minusDays(i));
+            }
+            return Money.toRupiah(totalSen);
+        });
     }
 
     /**
      * Get transaction count
      */
     public int getTransactionCount() {
-        return expenses.size();
+        if (partitionCache == null) {
+            // Cukup satu field: optimistic read, read lock hanya jika ada writer
+            long stamp = lock.tryOptimisticRead();
+            int count = expenses.size();
+            if (lock.validate(stamp)) {
+                return count;
+            }
+        }
+        return read(() -> {
+            if (partitionCache != null) {
+                // Partisi yang belum dimuat dihitung dari manifest
+                return (int) (expenses.size() + partitionCache.unloadedRows());
+            }
+            return expenses.size();
+        });
+    }
+
+    /**
+     * Get transaction count dalam rentang tanggal
+     */
+    public int getTransactionCount(LocalDate startDate, LocalDate endDate) {
+        return load(() -> {
+            ensureLoaded(startDate, endDate);
+            return dateIndex.count(startDate, endDate);
+        });
     }
 
     /**
@@ -253,15 +1288,56 @@ public class ExpenseManager {
      * Get expenses grouped by category
      */
     public Map<String, Double> getTotalByCategory() {
-        Map<String, Double> categoryTotals = new HashMap<>();
+        return load(() -> {
+            if (partitionCache == null) {
+                // Total berjalan dari index, O(jumlah kategori)
+                long[] totalsSen = categoryIndex.totals();
+                Map<String, Double> categoryTotals = new HashMap<>();
+                for (int code = 0; code < totalsSen.length; code++) {
+                    if (categoryIndex.count(code) > 0) {
+                        categoryTotals.put(categories.name(code), Money.toRupiah(totalsSen[code]));
+                    }
+                }
+                return categoryTotals;
+            }
 
-        for (Expense expense : expenses) {
-            String category = expense.getCategory();
-            categoryTotals.put(category,
-                    categoryTotals.getOrDefault(category, 0.0) + expense.getAmount());
-        }
+            long[] totalsSen = new long[categories.size()];
+            boolean[] present = new boolean[totalsSen.length];
+            for (Expense expense : collect(e -> true)) {
+                int code = categories.register(expense.getCategory());
+                if (code >= totalsSen.length) {
+                    totalsSen = Arrays.copyOf(totalsSen, categories.size());
+                    present = Arrays.copyOf(present, categories.size());
+                }
+                totalsSen[code] += expense.getAmountSen();
+                present[code] = true;
+            }
+
+            Map<String, Double> categoryTotals = new HashMap<>();
+            for (int code = 0; code < totalsSen.length; code++) {
+                if (present[code]) {
+                    categoryTotals.put(categories.name(code), Money.toRupiah(totalsSen[code]));
+                }
+            }
+            return categoryTotals;
+        });
+    }
 
-        return categoryTotals;
+    /**
+     * Get expenses grouped by category dalam rentang tanggal
+     */
+    public Map<String, Double> getTotalByCategory(LocalDate startDate, LocalDate endDate) {
+        return load(() -> {
+            ensureLoaded(startDate, endDate);
+            long[] totalsSen = categoryIndex.totals(startDate, endDate);
+            Map<String, Double> categoryTotals = new HashMap<>();
+            for (int code = 0; code < totalsSen.length; code++) {
+                if (totalsSen[code] != 0) {
+                    categoryTotals.put(categories.name(code), Money.toRupiah(totalsSen[code]));
+                }
+            }
+            return categoryTotals;
+        });
     }
 
     /**
@@ -274,4 +1350,53 @@ public class ExpenseManager {
                 .map(Map.Entry::getKey)
                 .orElse("N/A");
     }
-}
\ No newline at end of file
+
+    /**
+     * Semua kategori terdaftar (bawaan dulu, lalu buatan pengguna)
+     */
+    public List<String> getCategories() {
+        return read(categories::names);
+    }
+
+    public String getCategoryIcon(String category) {
+        return read(() -> categories.iconOf(category));
+    }
+
+    /**
+     * Tambah kategori buatan pengguna (atau ganti ikon kategori yang sudah ada)
+     * dan simpan daftar kategori di samping file data
+     */
+    public boolean addCategory(String name, String icon) {
+        long stamp = lock.writeLock();
+        try {
+            return registerCategory(name, icon);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean registerCategory(String name, String icon) {
+        try {
+            if (name == null || name.trim().isEmpty()) {
+                throw new IllegalArgumentException("Nama kategori tidak boleh kosong");
+            }
+            if (name.indexOf(',') >= 0) {
+                throw new IllegalArgumentException("Nama kategori tidak boleh mengandung koma");
+            }
+            categories.register(name, icon == null || icon.isEmpty() ? CategoryRegistry.DEFAULT_ICON : icon);
+            return FileHandler.saveCategories(categories, FileHandler.categoriesFileFor(dataFile));
+        } catch (Exception e) {
+            System.err.println("Error adding category: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Kategori yang belum dikenal (diketik di form) didaftarkan supaya tetap ada setelah restart
+     */
+    private void ensureCategory(String category) {
+        if (category != null && !categories.contains(category)) {
+            registerCategory(category, CategoryRegistry.DEFAULT_ICON);
+        }
+    }
+}
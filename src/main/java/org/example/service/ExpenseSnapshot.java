@@ -0,0 +1,78 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Tampilan immutable isi ExpenseManager pada satu versi
+ * Dibuat dengan menyalin array pointer segmen ExpenseTable (copy-on-write), jadi
+ * membuatnya tidak menyalin baris, dan writer berikutnya tidak mengubah isinya.
+ * Objek Expense dibuat saat get(index) dipanggil, sehingga JTable yang hanya
+ * merender baris terlihat tidak membuat objek untuk seluruh ledger.
+ * Urutan baris: urutan tabel, atau urutan posisi dari index (sort by date/amount).
+ */
+public final class ExpenseSnapshot extends AbstractList<Expense> implements RandomAccess {
+    private final long version;
+    private final ExpenseTable.Segment[] segments;
+    private final int size;
+    private final StringPool.View text;
+    private final List<String> categoryNames;
+    private final int[] order;
+
+    ExpenseSnapshot(long version, ExpenseTable.Segment[] segments, int size, StringPool.View text,
+                    List<String> categoryNames, int[] order) {
+        this.version = version;
+        this.segments = segments;
+        this.size = size;
+        this.text = text;
+        this.categoryNames = categoryNames;
+        this.order = order;
+    }
+
+    /**
+     * Snapshot yang sama dengan baris dalam urutan posisi tertentu
+     */
+    ExpenseSnapshot ordered(int[] positions) {
+        return new ExpenseSnapshot(version, segments, size, text, categoryNames, positions);
+    }
+
+    /**
+     * Nomor versi data: naik setiap ada mutasi di manager
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public int size() {
+        return order == null ? size : order.length;
+    }
+
+    @Override
+    public Expense get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        int position = order == null ? index : order[index];
+        ExpenseTable.Segment segment = segments[position >> ExpenseTable.SEGMENT_BITS];
+        int offset = position & ExpenseTable.SEGMENT_MASK;
+        return Expense.ofSen(segment.ids[offset], textAt(segment.descriptions[offset]),
+                categoryNames.get(segment.categories[offset] & 0xFFFF), segment.amounts[offset],
+                LocalDate.ofEpochDay(segment.days[offset]), textAt(segment.notes[offset]));
+    }
+
+    /**
+     * Epoch-day baris ke-index tanpa membuat objek Expense
+     */
+    int day(int index) {
+        int position = order == null ? index : order[index];
+        return segments[position >> ExpenseTable.SEGMENT_BITS].days[position & ExpenseTable.SEGMENT_MASK];
+    }
+
+    private String textAt(int handle) {
+        return handle == ExpenseTable.NULL_TEXT ? null : text.get(handle);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.service;
+
+import org.example.index.DateIndex;
+import org.example.index.IdIndex;
+import org.example.model.Expense;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Iterator expense dalam satu rentang tanggal untuk proses streaming (export)
+ * Baris yang sudah di memori dibaca dari ExpenseSnapshot saat source dibuat (urutan tabel,
+ * Expense dibuat satu per satu saat iterasi); partisi yang belum dimuat dibaca satu bulan
+ * per kali dan tidak disimpan di cache. Memori tidak bertambah sesuai ukuran rentang,
+ * dan iterator aman dipakai dari thread lain tanpa mengubah ExpenseManager.
+ */
+public class ExpenseSource implements Iterator<Expense> {
+    private final ExpenseSnapshot resident;
+    private final int startDay;
+    private final int endDay;
+    private int residentIndex;
+    private final PartitionedStorage storage;
+    private final Deque<YearMonth> months;
+    private final IdIndex skipIds;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long size;
+
+    private Iterator<Expense> current = Collections.emptyIterator();
+    private Expense next;
+
+    /**
+     * @param residentRows jumlah baris snapshot dalam rentang (untuk estimatedSize)
+     */
+    ExpenseSource(ExpenseSnapshot resident, int residentRows, PartitionedStorage storage, List<YearMonth> months,
+                  IdIndex skipIds, LocalDate startDate, LocalDate endDate, long partitionRows) {
+        this.resident = resident;
+        this.startDay = DateIndex.dayOf(startDate);
+        this.endDay = DateIndex.dayOf(endDate);
+        this.storage = storage;
+        this.months = new ArrayDeque<>(months);
+        this.skipIds = skipIds;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.size = residentRows + partitionRows;
+    }
+
+    /**
+     * Perkiraan jumlah baris (untuk progress): baris di memori + baris partisi menurut manifest
+     */
+    public long estimatedSize() {
+        return size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (residentIndex < resident.size()) {
+                int day = resident.day(residentIndex);
+                if (day >= startDay && day <= endDay) {
+                    next = resident.get(residentIndex);
+                }
+                residentIndex++;
+            } else if (current.hasNext()) {
+                Expense expense = current.next();
+                if (!expense.getDate().isBefore(startDate) && !expense.getDate().isAfter(endDate)
+                        && !skipIds.contains(expense.getId())) {
+                    next = expense;
+                }
+            } else if (!months.isEmpty()) {
+                current = storage.loadMonth(months.poll()).iterator();
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Expense next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Expense expense = next;
+        next = null;
+        return expense;
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.service;
+
+import org.example.model.CategoryRegistry;
+import org.example.model.Expense;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * Penyimpanan kolumnar (struct-of-arrays) untuk data expense di memori
+ * Satu baris = satu posisi di array primitif: id, amount (sen, lihat Money), epoch-day,
+ * kode kategori (dari CategoryRegistry), dan handle description/notes di StringPool.
+ * Objek Expense hanya dibuat saat dibaca lewat get(position).
+ * Kolom dipotong per segmen SEGMENT_SIZE baris. snapshot() hanya menyalin array pointer
+ * segmen; segmen yang sudah dibagi dengan snapshot disalin dulu (copy-on-write) saat
+ * akan diubah, jadi snapshot tidak pernah ikut berubah.
+ */
+final class ExpenseTable {
+    static final int NULL_TEXT = -1;
+    static final int SEGMENT_BITS = 10;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /**
+     * Satu segmen kolom; epoch = epoch tabel saat segmen dibuat/disalin
+     */
+    static final class Segment {
+        final int[] ids = new int[SEGMENT_SIZE];
+        final long[] amounts = new long[SEGMENT_SIZE];
+        final int[] days = new int[SEGMENT_SIZE];
+        final short[] categories = new short[SEGMENT_SIZE];
+        final int[] descriptions = new int[SEGMENT_SIZE];
+        final int[] notes = new int[SEGMENT_SIZE];
+        final long epoch;
+
+        Segment(long epoch) {
+            this.epoch = epoch;
+        }
+
+        Segment copy(long epoch) {
+            Segment copy = new Segment(epoch);
+            System.arraycopy(ids, 0, copy.ids, 0, SEGMENT_SIZE);
+            System.arraycopy(amounts, 0, copy.amounts, 0, SEGMENT_SIZE);
+            System.arraycopy(days, 0, copy.days, 0, SEGMENT_SIZE);
+            System.arraycopy(categories, 0, copy.categories, 0, SEGMENT_SIZE);
+            System.arraycopy(descriptions, 0, copy.descriptions, 0, SEGMENT_SIZE);
+            System.arraycopy(notes, 0, copy.notes, 0, SEGMENT_SIZE);
+            return copy;
+        }
+    }
+
+    private Segment[] segments;
+    private int size;
+    // Naik setiap kali snapshot diambil; segmen dengan epoch lebih kecil dipakai bersama snapshot.
+    // Atomic karena snapshot diambil di bawah read lock bersama (lihat snapshot())
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final CategoryRegistry registry;
+    private final StringPool text = new StringPool();
+
+    ExpenseTable() {
+        this(CategoryRegistry.withDefaults(), 16);
+    }
+
+    ExpenseTable(CategoryRegistry registry, int capacity) {
+        this.registry = registry;
+        segments = new Segment[Math.max(1, (capacity + SEGMENT_MASK) >> SEGMENT_BITS)];
+    }
+
+    static ExpenseTable of(List<Expense> expenses) {
+        return of(expenses, CategoryRegistry.withDefaults());
+    }
+
+    static ExpenseTable of(List<Expense> expenses, CategoryRegistry registry) {
+        ExpenseTable table = new ExpenseTable(registry, expenses.size());
+        for (Expense expense : expenses) {
+            table.add(expense);
+        }
+        return table;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Tambah baris di akhir tabel
+     *
+     * @return posisi baris
+     */
+    int add(Expense expense) {
+        write(size, expense);
+        return size++;
+    }
+
+    /**
+     * Timpa isi baris (update)
+     */
+    void set(int position, Expense expense) {
+        releaseText(position);
+        write(position, expense);
+    }
+
+    /**
+     * Hapus baris dengan swap-remove
+     *
+     * @return ID baris yang dipindah ke posisi ini, atau -1 jika tidak ada
+     */
+    int removeAt(int position) {
+        releaseText(position);
+        int last = --size;
+        if (position == last) {
+            return -1;
+        }
+        move(last, position);
+        return id(position);
+    }
+
+    /**
+     * Hapus semua baris yang cocok, urutan baris lain tetap
+     */
+    void removeIf(IntPredicate filter) {
+        int kept = 0;
+        for (int position = 0; position < size; position++) {
+            if (filter.test(position)) {
+                releaseText(position);
+                continue;
+            }
+            if (kept != position) {
+                move(position, kept);
+            }
+            kept++;
+        }
+        size = kept;
+    }
+
+    int id(int position) {
+        return segments[position >> SEGMENT_BITS].ids[position & SEGMENT_MASK];
+    }
+
+    long amountSen(int position) {
+        return segments[position >> SEGMENT_BITS].amounts[position & SEGMENT_MASK];
+    }
+
+    int day(int position) {
+        return segments[position >> SEGMENT_BITS].days[position & SEGMENT_MASK];
+    }
+
+    LocalDate date(int position) {
+        return LocalDate.ofEpochDay(day(position));
+    }
+
+    /**
+     * Kode kategori baris (lihat CategoryRegistry)
+     */
+    int categoryCode(int position) {
+        return segments[position >> SEGMENT_BITS].categories[position & SEGMENT_MASK] & 0xFFFF;
+    }
+
+    String category(int position) {
+        return registry.name(categoryCode(position));
+    }
+
+    String description(int position) {
+        return textAt(segments[position >> SEGMENT_BITS].descriptions[position & SEGMENT_MASK]);
+    }
+
+    String notes(int position) {
+        return textAt(segments[position >> SEGMENT_BITS].notes[position & SEGMENT_MASK]);
+    }
+
+    /**
+     * Description atau notes mengandung term (huruf kecil), tanpa membuat String untuk teks ASCII
+     */
+    boolean textContains(int position, String term) {
+        Segment segment = segments[position >> SEGMENT_BITS];
+        int description = segment.descriptions[position & SEGMENT_MASK];
+        int notes = segment.notes[position & SEGMENT_MASK];
+        return (description != NULL_TEXT && text.containsIgnoreCase(description, term))
+                || (notes != NULL_TEXT && text.containsIgnoreCase(notes, term));
+    }
+
+    /**
+     * Buat objek Expense untuk satu baris (dipakai di batas API)
+     */
+    Expense get(int position) {
+        return Expense.ofSen(id(position), description(position), category(position),
+                amountSen(position), date(position), notes(position));
+    }
+
+    /**
+     * Snapshot immutable isi tabel saat ini: O(jumlah segmen), tanpa menyalin baris
+     * Boleh dipanggil beberapa reader sekaligus asal tidak ada writer (read lock
+     * ExpenseManager): pointer segmen yang disalin tidak berubah selama itu, dan
+     * kenaikan epoch atomic sehingga tidak ada kenaikan yang hilang. Setelah snapshot
+     * mana pun selesai, epoch pasti lebih besar dari epoch semua segmen yang dibagi,
+     * jadi writer berikutnya (write lock, melihat nilai terbaru) selalu menyalin dulu.
+     */
+    ExpenseSnapshot snapshot(long version) {
+        int segmentCount = (size + SEGMENT_MASK) >> SEGMENT_BITS;
+        Segment[] frozen = Arrays.copyOf(segments, segmentCount);
+        ExpenseSnapshot snapshot = new ExpenseSnapshot(version, frozen, size, text.snapshot(),
+                registry.names(), null);
+        epoch.incrementAndGet();
+        return snapshot;
+    }
+
+    /**
+     * Segmen yang boleh diubah: disalin dulu jika masih dipakai bersama snapshot
+     */
+    private Segment writable(int position) {
+        int index = position >> SEGMENT_BITS;
+        if (index == segments.length) {
+            segments = Arrays.copyOf(segments, segments.length << 1);
+        }
+        Segment segment = segments[index];
+        long current = epoch.get();
+        if (segment == null) {
+            segment = segments[index] = new Segment(current);
+        } else if (segment.epoch != current) {
+            segment = segments[index] = segment.copy(current);
+        }
+        return segment;
+    }
+
+    private void write(int position, Expense expense) {
+        Segment segment = writable(position);
+        int offset = position & SEGMENT_MASK;
+        segment.ids[offset] = expense.getId();
+        segment.amounts[offset] = expense.getAmountSen();
+        segment.days[offset] = (int) expense.getDate().toEpochDay();
+        segment.categories[offset] = (short) registry.register(expense.getCategory());
+        segment.descriptions[offset] = expense.getDescription() == null ? NULL_TEXT : text.add(expense.getDescription());
+        segment.notes[offset] = expense.getNotes() == null ? NULL_TEXT : text.add(expense.getNotes());
+    }
+
+    private void move(int from, int to) {
+        Segment source = segments[from >> SEGMENT_BITS];
+        Segment target = writable(to);
+        int s = from & SEGMENT_MASK;
+        int t = to & SEGMENT_MASK;
+        target.ids[t] = source.ids[s];
+        target.amounts[t] = source.amounts[s];
+        target.days[t] = source.days[s];
+        target.categories[t] = source.categories[s];
+        target.descriptions[t] = source.descriptions[s];
+        target.notes[t] = source.notes[s];
+    }
+
+    private String textAt(int handle) {
+        return handle == NULL_TEXT ? null : text.get(handle);
+    }
+
+    private void releaseText(int position) {
+        Segment segment = segments[position >> SEGMENT_BITS];
+        int offset = position & SEGMENT_MASK;
+        if (segment.descriptions[offset] != NULL_TEXT) {
+            text.release(segment.descriptions[offset]);
+        }
+        if (segment.notes[offset] != NULL_TEXT) {
+            text.release(segment.notes[offset]);
+        }
+    }
+}
@@ -1,33 +1,64 @@
 package org.example.service;
 
+import org.example.model.CategoryRegistry;
 import org.example.model.Expense;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Handler untuk operasi file CSV
  * Modul 5: File Handling - BufferedReader/Writer, Exception Handling
  */
 public class FileHandler {
-    private static final String FILE_PATH = "data/expenses.csv";
-    private static final String HEADER = "id,description,category,amount,date,notes";
+    public static final String FILE_PATH = "data/expenses.csv";
+    private static final String JOURNAL_EXTENSION = ".log";
+    private static final String BINARY_EXTENSION = ".bin";
+    private static final String COMPRESSED_EXTENSION = ".dz";
+    private static final String CATEGORIES_EXTENSION = ".categories";
+    private static final String CATEGORIES_HEADER = "name,icon";
+    static final String HEADER = "id,description,category,amount,date,notes";
+    private static final long MAX_MAPPED_REGION = 256L * 1024 * 1024;
+    private static final long MIN_PARALLEL_BYTES = 4L * 1024 * 1024;
 
     /**
      * Load data dari CSV file
      * Exception Handling: IOException, FileNotFoundException
      */
     public static List<Expense> loadFromCSV() {
+        return loadFromCSV(new File(FILE_PATH));
+    }
+
+    /**
+     * Load data dari CSV file tertentu
+     */
+    public static List<Expense> loadFromCSV(File file) {
         List<Expense> expenses = new ArrayList<>();
-        File file = new File(FILE_PATH);
 
         // Create file if not exists
         if (!file.exists()) {
             try {
-                file.getParentFile().mkdirs();
+                file.getAbsoluteFile().getParentFile().mkdirs();
                 file.createNewFile();
                 // Write header
-                try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+                try (BufferedWriter writer = openWriter(file, false)) {
                     writer.write(HEADER);
                     writer.newLine();
                 }
@@ -38,7 +69,7 @@ public class FileHandler {
         }
 
         // Read data
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader reader = openReader(file)) {
             String line = reader.readLine(); // Skip header
 
             while ((line = reader.readLine()) != null) {
@@ -53,7 +84,7 @@ public class FileHandler {
                 }
             }
         } catch (FileNotFoundException e) {
-            System.err.println("File not found: " + FILE_PATH);
+            System.err.println("File not found: " + file.getPath());
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
         }
@@ -61,17 +92,191 @@ public class FileHandler {
         return expenses;
     }
 
+    /**
+     * Load data dari CSV file dengan memory-mapped I/O
+     * Byte di-parse langsung ke field primitif (lihat MappedCsvParser), tanpa
+     * readLine/split/parseXxx per baris. File besar dipetakan per region
+     * yang dipotong di batas baris.
+     */
+    public static List<Expense> loadFromCSVMapped(File file) throws IOException {
+        return loadFromCSVParallel(file, 1).getExpenses();
+    }
+
+    /**
+     * Load data dari CSV file secara paralel
+     * Setiap region dibagi menjadi beberapa chunk di batas newline, tiap chunk
+     * di-parse di ForkJoinPool, lalu hasilnya digabung sesuai urutan file.
+     * ID terbesar diambil dari maksimum per chunk, tanpa scan ulang.
+     *
+     * Gagal baca tidak menghasilkan data sebagian: pemanggil yang menulis ulang
+     * snapshot (compaction) harus berhenti, bukan menyimpan baris yang terbaca saja.
+     *
+     * @param parallelism jumlah chunk/thread; 1 = parse berurutan di thread pemanggil
+     * @throws IOException jika file gagal dibaca atau di-parse
+     */
+    public static LoadResult loadFromCSVParallel(File file, int parallelism) throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            // Jalur biasa sekaligus membuat file baru dengan header
+            return new LoadResult(loadFromCSV(file));
+        }
+        if (file.length() < MIN_PARALLEL_BYTES) {
+            parallelism = 1;
+        }
+
+        List<Expense> expenses = new ArrayList<>();
+        int[] maxId = {0};
+        try {
+            parseMapped(file, parallelism, parallelism, 1, FileHandler::parseChunk, (result, parsedBytes) -> {
+                expenses.addAll(result.getExpenses());
+                maxId[0] = Math.max(maxId[0], result.getMaxId());
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Load dibatalkan: " + file.getPath());
+        } catch (ExecutionException | RuntimeException e) {
+            throw new IOException("Error parsing file " + file.getPath() + ": " + e.getMessage(), e);
+        }
+
+        return new LoadResult(expenses, maxId[0]);
+    }
+
+    private static LoadResult parseChunk(ByteBuffer buffer, int from, int to) {
+        MappedCsvParser parser = new MappedCsvParser(buffer);
+        List<Expense> expenses = new ArrayList<>();
+        parser.parse(from, to, expenses);
+        return new LoadResult(expenses, parser.getMaxId());
+    }
+
+    /**
+     * Parser untuk satu chunk [from, to) yang selalu diawali awal baris
+     */
+    interface ChunkParser<T> {
+        T parse(ByteBuffer buffer, int from, int to);
+    }
+
+    /**
+     * Penerima hasil chunk, dipanggil berurutan sesuai urutan file di thread pemanggil
+     */
+    interface ChunkConsumer<T> {
+        void accept(T chunk, long parsedBytes) throws IOException;
+    }
+
+    /**
+     * Parse file dengan memory-mapped I/O: file dipetakan per region yang dipotong di
+     * batas baris, tiap region dibagi menjadi chunks chunk yang di-parse di ForkJoinPool.
+     * Hasil diserahkan ke consumer sesuai urutan file; paling banyak 2 x parallelism
+     * chunk yang sudah di-parse tapi belum diambil, jadi memori tidak tumbuh sesuai ukuran file.
+     *
+     * @param parallelism jumlah thread; 1 = parse berurutan di thread pemanggil
+     * @param chunks      jumlah chunk per region (minimal parallelism)
+     * @param headerLines jumlah baris di awal file yang dilewati
+     */
+    static <T> void parseMapped(File file, int parallelism, int chunks, int headerLines,
+                                ChunkParser<T> parser, ChunkConsumer<T> consumer)
+            throws IOException, InterruptedException, ExecutionException {
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        int window = Math.max(1, parallelism * 2);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(MAX_MAPPED_REGION, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int limit = regionLimit(buffer, (int) length, position + length >= size);
+                int start = 0;
+                if (position == 0) {
+                    for (int i = 0; i < headerLines; i++) {
+                        start = nextLine(buffer, start, limit);
+                    }
+                }
+
+                int[] bounds = chunkBounds(buffer, start, limit, Math.max(chunks, parallelism));
+                Deque<Future<T>> pending = new ArrayDeque<>();
+                int next = 0;
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    while (next + 1 < bounds.length && next < i + window) {
+                        int from = bounds[next];
+                        int to = bounds[++next];
+                        pending.add(pool != null
+                                ? pool.submit(() -> parser.parse(buffer.duplicate(), from, to))
+                                : CompletableFuture.completedFuture(parser.parse(buffer.duplicate(), from, to)));
+                    }
+                    consumer.accept(pending.poll().get(), position + bounds[i + 1]);
+                }
+                position += limit;
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Bagi [start, limit) menjadi beberapa chunk yang selalu diawali awal baris
+     */
+    private static int[] chunkBounds(MappedByteBuffer buffer, int start, int limit, int chunks) {
+        int[] bounds = new int[chunks + 1];
+        bounds[0] = start;
+        long chunkSize = Math.max(1, (limit - start) / chunks);
+
+        int count = 1;
+        for (int i = 1; i < chunks; i++) {
+            int target = (int) Math.min(limit, start + i * chunkSize);
+            int boundary = nextLine(buffer, Math.max(target - 1, bounds[count - 1]), limit);
+            if (boundary > bounds[count - 1] && boundary < limit) {
+                bounds[count++] = boundary;
+            }
+        }
+        bounds[count++] = limit;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Posisi awal baris berikutnya setelah from (atau limit jika tidak ada)
+     */
+    private static int nextLine(MappedByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Batas region yang aman: tepat setelah newline terakhir, kecuali di akhir file
+     */
+    private static int regionLimit(MappedByteBuffer buffer, int length, boolean lastRegion) throws IOException {
+        if (lastRegion) {
+            return length;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        throw new IOException("Baris CSV terlalu panjang");
+    }
+
     /**
      * Save data ke CSV file
      * Exception Handling: IOException
      */
     public static boolean saveToCSV(List<Expense> expenses) {
-        File file = new File(FILE_PATH);
+        return saveToCSV(expenses, new File(FILE_PATH));
+    }
 
+    /**
+     * Save data ke CSV file tertentu
+     */
+    public static boolean saveToCSV(List<Expense> expenses, File file) {
         try {
-            file.getParentFile().mkdirs();
+            file.getAbsoluteFile().getParentFile().mkdirs();
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            try (BufferedWriter writer = openWriter(file, false)) {
                 // Write header
                 writer.write(HEADER);
                 writer.newLine();
@@ -90,11 +295,277 @@ public class FileHandler {
         }
     }
 
+    /**
+     * Load snapshot sesuai config
+     * Untuk format satu file, yang dibaca selalu snapshot terbaru di antara .dz, .bin dan CSV,
+     * apa pun format yang sedang dipilih: compaction dengan format lama bisa sudah melipat
+     * journal ke file itu, jadi membaca file lain yang lebih tua akan kehilangan data.
+     * Jika snapshot terbaru rusak, dicoba yang berikutnya; CSV tetap menjadi sumber terakhir.
+     *
+     * @throws IOException jika sumber terakhir pun gagal dibaca
+     */
+    public static LoadResult loadSnapshot(StorageConfig config) throws IOException {
+        if (config.getSnapshotFormat() == StorageConfig.SnapshotFormat.PARTITIONED) {
+            PartitionedStorage storage = new PartitionedStorage(config);
+            try {
+                storage.migrateFromSingleFile();
+            } catch (IOException e) {
+                System.err.println("Error migrating to partitions: " + e.getMessage());
+            }
+            return storage.loadAll();
+        }
+
+        File csvFile = config.getDataFile();
+        File binaryFile = binaryFileFor(csvFile);
+        File compressedFile = compressedFileFor(csvFile);
+        boolean compressedFirst = compressedFile.lastModified() >= binaryFile.lastModified();
+
+        for (File file : compressedFirst ? new File[] {compressedFile, binaryFile} : new File[] {binaryFile, compressedFile}) {
+            if (!file.exists() || file.lastModified() < csvFile.lastModified()) {
+                continue;
+            }
+            try {
+                return file == compressedFile ? CompressedSnapshot.read(file) : BinarySnapshot.read(file);
+            } catch (IOException e) {
+                System.err.println("Error reading snapshot " + file.getName() + ", fallback: " + e.getMessage());
+            }
+        }
+        return loadFromCSVParallel(csvFile, config.getLoadParallelism());
+    }
+
+    /**
+     * Tulis snapshot sesuai format di config secara atomic
+     * (tulis ke file sementara lalu atomic move menimpa snapshot lama)
+     */
+    public static boolean writeSnapshot(StorageConfig config, List<Expense> expenses) {
+        if (config.getSnapshotFormat() == StorageConfig.SnapshotFormat.PARTITIONED) {
+            PartitionedStorage storage = new PartitionedStorage(config);
+            Map<YearMonth, List<Expense>> rowsByMonth = PartitionedStorage.groupByMonth(expenses);
+            for (YearMonth month : storage.readManifest().keySet()) {
+                rowsByMonth.putIfAbsent(month, new ArrayList<>());
+            }
+            try {
+                storage.writeMonths(rowsByMonth);
+                return true;
+            } catch (IOException e) {
+                System.err.println("Error writing partitions: " + e.getMessage());
+                return false;
+            }
+        }
+
+        File target = snapshotFileFor(config);
+        File tempFile = new File(target.getPath() + ".tmp");
+
+        boolean written;
+        switch (config.getSnapshotFormat()) {
+            case BINARY:
+                written = saveToBinary(expenses, tempFile);
+                break;
+            case COMPRESSED:
+                written = saveToCompressed(expenses, tempFile);
+                break;
+            default:
+                written = saveToCSV(expenses, tempFile);
+        }
+        if (!written) {
+            return false;
+        }
+
+        try {
+            Files.move(tempFile.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error replacing snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Load hanya data dalam rentang tanggal
+     * Pada layout per bulan hanya partisi yang beririsan yang dibuka;
+     * format satu file tetap harus membaca seluruh snapshot.
+     */
+    public static LoadResult loadRange(StorageConfig config, LocalDate start, LocalDate end) throws IOException {
+        List<Expense> expenses;
+        if (config.getSnapshotFormat() == StorageConfig.SnapshotFormat.PARTITIONED) {
+            expenses = new PartitionedStorage(config).loadRange(start, end).getExpenses();
+        } else {
+            expenses = loadSnapshot(config).getExpenses();
+        }
+        expenses.removeIf(e -> e.getDate().isBefore(start) || e.getDate().isAfter(end));
+        return new LoadResult(expenses);
+    }
+
+    /**
+     * Apakah snapshot biner/terkompresi perlu dibuat ulang (belum ada atau lebih lama dari CSV)
+     */
+    public static boolean isBinarySnapshotStale(StorageConfig config) {
+        StorageConfig.SnapshotFormat format = config.getSnapshotFormat();
+        if (format != StorageConfig.SnapshotFormat.BINARY && format != StorageConfig.SnapshotFormat.COMPRESSED) {
+            return false;
+        }
+        File snapshotFile = snapshotFileFor(config);
+        return !snapshotFile.exists() || snapshotFile.lastModified() < config.getDataFile().lastModified();
+    }
+
+    /**
+     * File yang ditulis compaction untuk format satu file (CSV, BINARY, COMPRESSED)
+     */
+    private static File snapshotFileFor(StorageConfig config) {
+        switch (config.getSnapshotFormat()) {
+            case BINARY:
+                return binaryFileFor(config.getDataFile());
+            case COMPRESSED:
+                return compressedFileFor(config.getDataFile());
+            default:
+                return config.getDataFile();
+        }
+    }
+
+    /**
+     * Load snapshot biner kolumnar (lihat BinarySnapshot)
+     */
+    public static LoadResult loadFromBinary(File file) throws IOException {
+        return BinarySnapshot.read(file);
+    }
+
+    /**
+     * Save snapshot biner kolumnar
+     */
+    public static boolean saveToBinary(List<Expense> expenses, File file) {
+        try {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            BinarySnapshot.write(expenses, file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving binary snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Load snapshot terkompresi (lihat CompressedSnapshot)
+     */
+    public static LoadResult loadFromCompressed(File file) throws IOException {
+        return CompressedSnapshot.read(file);
+    }
+
+    /**
+     * Save snapshot terkompresi: kamus kategori/notes + blok Deflate
+     */
+    public static boolean saveToCompressed(List<Expense> expenses, File file) {
+        try {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            CompressedSnapshot.write(expenses, file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving compressed snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lokasi snapshot terkompresi untuk sebuah file CSV
+     * Contoh: data/expenses.csv -> data/expenses.dz
+     */
+    public static File compressedFileFor(File csvFile) {
+        return siblingWithExtension(csvFile, COMPRESSED_EXTENSION);
+    }
+
+    /**
+     * Lokasi snapshot biner untuk sebuah file CSV
+     * Contoh: data/expenses.csv -> data/expenses.bin
+     */
+    public static File binaryFileFor(File csvFile) {
+        return siblingWithExtension(csvFile, BINARY_EXTENSION);
+    }
+
+    /**
+     * Reader UTF-8, sama dengan encoding yang dipakai loader memory-mapped
+     */
+    static BufferedReader openReader(File file) throws FileNotFoundException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writer UTF-8 (overwrite atau append)
+     */
+    static BufferedWriter openWriter(File file, boolean append) throws FileNotFoundException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lokasi journal (operation log) untuk sebuah file CSV
+     * Contoh: data/expenses.csv -> data/expenses.log
+     */
+    public static File journalFileFor(File csvFile) {
+        return siblingWithExtension(csvFile, JOURNAL_EXTENSION);
+    }
+
+    /**
+     * Lokasi daftar kategori buatan pengguna untuk sebuah file CSV
+     * Contoh: data/expenses.csv -> data/expenses.categories
+     */
+    public static File categoriesFileFor(File csvFile) {
+        return siblingWithExtension(csvFile, CATEGORIES_EXTENSION);
+    }
+
+    /**
+     * Load kategori (nama,ikon) ke registry; file yang belum ada tidak dianggap error
+     */
+    public static boolean loadCategories(File file, CategoryRegistry registry) {
+        if (!file.exists()) {
+            return true;
+        }
+        try (BufferedReader reader = openReader(file)) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                int comma = line.lastIndexOf(',');
+                if (comma > 0) {
+                    registry.register(line.substring(0, comma), line.substring(comma + 1));
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error loading categories: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Save semua kategori di registry (urut kode) ke file
+     */
+    public static boolean saveCategories(CategoryRegistry registry, File file) {
+        try {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            try (BufferedWriter writer = openWriter(file, false)) {
+                writer.write(CATEGORIES_HEADER);
+                writer.newLine();
+                for (int code = 0; code < registry.size(); code++) {
+                    writer.write(registry.name(code) + "," + registry.icon(code));
+                    writer.newLine();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving categories: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static File siblingWithExtension(File csvFile, String extension) {
+        String name = csvFile.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return new File(csvFile.getAbsoluteFile().getParentFile(), base + extension);
+    }
+
     /**
      * Export report to TXT file
      */
     public static boolean exportToTXT(String content, String filename) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+        try (BufferedWriter writer = openWriter(new File(filename), false)) {
             writer.write(content);
             return true;
         } catch (IOException e) {
@@ -102,4 +573,29 @@ public class FileHandler {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Hasil load: daftar expense sesuai urutan file + ID terbesar
+     */
+    public static class LoadResult {
+        private final List<Expense> expenses;
+        private final int maxId;
+
+        public LoadResult(List<Expense> expenses, int maxId) {
+            this.expenses = expenses;
+            this.maxId = maxId;
+        }
+
+        public LoadResult(List<Expense> expenses) {
+            this(expenses, expenses.stream().mapToInt(Expense::getId).max().orElse(0));
+        }
+
+        public List<Expense> getExpenses() {
+            return expenses;
+        }
+
+        public int getMaxId() {
+            return maxId;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.service;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Pemetaan kolom untuk import mutasi bank / e-wallet (lihat StatementImporter)
+ * Nomor kolom dimulai dari 0; kolom opsional bernilai -1.
+ * Contoh: ImportMapping.columns(0, 3, 1) untuk file "tanggal,keterangan,cabang,jumlah".
+ */
+public class ImportMapping {
+    private int dateColumn;
+    private int amountColumn;
+    private int descriptionColumn;
+    private int categoryColumn = -1;
+    private int notesColumn = -1;
+    private char delimiter = ',';
+    private char decimalSeparator = '.';
+    private int headerLines = 1;
+    private String datePattern = "dd/MM/yyyy";
+    private String defaultCategory = "Lainnya";
+    private boolean debitsNegative = false;
+
+    /**
+     * Mapping dengan kolom wajib; pengaturan lain memakai default
+     */
+    public static ImportMapping columns(int dateColumn, int amountColumn, int descriptionColumn) {
+        ImportMapping mapping = new ImportMapping();
+        mapping.setDateColumn(dateColumn);
+        mapping.setAmountColumn(amountColumn);
+        mapping.setDescriptionColumn(descriptionColumn);
+        return mapping;
+    }
+
+    public int getDateColumn() {
+        return dateColumn;
+    }
+
+    public void setDateColumn(int dateColumn) {
+        this.dateColumn = dateColumn;
+    }
+
+    public int getAmountColumn() {
+        return amountColumn;
+    }
+
+    public void setAmountColumn(int amountColumn) {
+        this.amountColumn = amountColumn;
+    }
+
+    public int getDescriptionColumn() {
+        return descriptionColumn;
+    }
+
+    public void setDescriptionColumn(int descriptionColumn) {
+        this.descriptionColumn = descriptionColumn;
+    }
+
+    /**
+     * Kolom kategori (-1 = semua baris memakai default category)
+     */
+    public int getCategoryColumn() {
+        return categoryColumn;
+    }
+
+    public void setCategoryColumn(int categoryColumn) {
+        this.categoryColumn = categoryColumn;
+    }
+
+    /**
+     * Kolom catatan (-1 = catatan kosong)
+     */
+    public int getNotesColumn() {
+        return notesColumn;
+    }
+
+    public void setNotesColumn(int notesColumn) {
+        this.notesColumn = notesColumn;
+    }
+
+    /**
+     * Pemisah kolom, biasanya ',' atau ';'
+     */
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Pemisah desimal jumlah: '.' ("1,250,000.00") atau ',' ("1.250.000,00")
+     * Pemisah lainnya dianggap pemisah ribuan dan diabaikan.
+     */
+    public char getDecimalSeparator() {
+        return decimalSeparator;
+    }
+
+    public void setDecimalSeparator(char decimalSeparator) {
+        if (decimalSeparator != '.' && decimalSeparator != ',') {
+            throw new IllegalArgumentException("Pemisah desimal harus '.' atau ','");
+        }
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    /**
+     * Jumlah baris judul di awal file yang dilewati
+     */
+    public int getHeaderLines() {
+        return headerLines;
+    }
+
+    public void setHeaderLines(int headerLines) {
+        this.headerLines = headerLines;
+    }
+
+    /**
+     * Pola tanggal DateTimeFormatter, contoh "dd/MM/yyyy" atau "yyyy-MM-dd"
+     */
+    public String getDatePattern() {
+        return datePattern;
+    }
+
+    public void setDatePattern(String datePattern) {
+        DateTimeFormatter.ofPattern(datePattern); // Validasi pola lebih awal
+        this.datePattern = datePattern;
+    }
+
+    public String getDefaultCategory() {
+        return defaultCategory;
+    }
+
+    public void setDefaultCategory(String defaultCategory) {
+        this.defaultCategory = defaultCategory;
+    }
+
+    /**
+     * true = pengeluaran (debit) ditulis negatif dan baris positif (kredit) dilewati;
+     * false = semua jumlah harus positif
+     */
+    public boolean isDebitsNegative() {
+        return debitsNegative;
+    }
+
+    public void setDebitsNegative(boolean debitsNegative) {
+        this.debitsNegative = debitsNegative;
+    }
+}
@@ -0,0 +1,322 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import org.example.model.Money;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Parser CSV yang bekerja langsung di atas byte (biasanya MappedByteBuffer)
+ * Kolom angka (id, amount, date) di-parse manual tanpa membuat String perantara;
+ * kategori dan notes yang berulang diambil dari cache kecil.
+ * Format baris sama dengan Expense.toCSV(): id,description,category,amount,date,notes
+ */
+final class MappedCsvParser {
+    private static final int MAX_EXACT_DIGITS = 16;
+    private static final int CACHE_SIZE = 64;
+    private static final int MAX_CACHED_LENGTH = 48;
+
+    private ByteBuffer buf;
+    private byte[] scratch = new byte[128];
+    private int cursor;
+    private int maxId;
+
+    // Cache untuk kategori/notes yang berulang (open addressing, ukuran tetap)
+    private final byte[][] cacheKeys = new byte[CACHE_SIZE][];
+    private final String[] cacheValues = new String[CACHE_SIZE];
+
+    // Baris berurutan biasanya punya tanggal yang sama
+    private int lastDateKey = -1;
+    private LocalDate lastDate;
+
+    MappedCsvParser(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    void setBuffer(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    /**
+     * ID terbesar dari semua baris yang sudah di-parse
+     */
+    int getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * Parse semua baris dalam [from, to). from harus berada di awal baris.
+     *
+     * @return jumlah baris yang berhasil di-parse
+     */
+    int parse(int from, int to, List<Expense> out) {
+        int parsed = 0;
+        int pos = from;
+
+        while (pos < to) {
+            int end = indexOf((byte) '\n', pos, to);
+            if (end < 0) end = to;
+
+            int lineEnd = end;
+            if (lineEnd > pos && buf.get(lineEnd - 1) == '\r') lineEnd--;
+
+            if (!isBlank(pos, lineEnd)) {
+                try {
+                    out.add(parseLine(pos, lineEnd));
+                    parsed++;
+                } catch (RuntimeException e) {
+                    System.err.println("Error parsing line: " + decode(pos, lineEnd));
+                    System.err.println("Error: " + e.getMessage());
+                }
+            }
+            pos = end + 1;
+        }
+
+        return parsed;
+    }
+
+    private Expense parseLine(int start, int end) {
+        cursor = start;
+
+        int idEnd = nextField(end);
+        int id = parseInt(start, idEnd);
+
+        int descStart = cursor;
+        int descEnd = nextField(end);
+        String description = decode(descStart, descEnd);
+
+        int catStart = cursor;
+        int catEnd = nextField(end);
+        String category = cached(catStart, catEnd);
+
+        int amountStart = cursor;
+        int amountEnd = nextField(end);
+        long amountSen = parseSen(amountStart, amountEnd);
+
+        int dateStart = cursor;
+        int dateEnd = nextField(end);
+        LocalDate date = parseDate(dateStart, dateEnd);
+
+        String notes = "";
+        if (dateEnd < end) {
+            int notesStart = cursor;
+            notes = cached(notesStart, nextField(end));
+        }
+
+        if (id > maxId) maxId = id;
+        return Expense.ofSen(id, description, category, amountSen, date, notes);
+    }
+
+    /**
+     * Cari akhir field mulai dari cursor, lalu majukan cursor melewati koma
+     */
+    private int nextField(int lineEnd) {
+        if (cursor > lineEnd) {
+            throw new IllegalArgumentException("Jumlah kolom kurang");
+        }
+        int comma = indexOf((byte) ',', cursor, lineEnd);
+        int fieldEnd = comma < 0 ? lineEnd : comma;
+        cursor = fieldEnd + 1;
+        return fieldEnd;
+    }
+
+    private int parseInt(int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("Angka kosong");
+        }
+        boolean negative = buf.get(from) == '-';
+        int i = negative ? from + 1 : from;
+        if (i >= to) {
+            throw new NumberFormatException("Angka tidak valid: " + decode(from, to));
+        }
+
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Angka tidak valid: " + decode(from, to));
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw new NumberFormatException("Angka terlalu besar: " + decode(from, to));
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Angka terlalu besar: " + decode(from, to));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse desimal seperti "25000.0", "1.5E7" atau "12500" langsung ke sen.
+     * Hasil sama dengan Money.parse; mantissa > 16 digit jatuh ke Money.parse.
+     */
+    private long parseSen(int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("Jumlah kosong");
+        }
+
+        int i = from;
+        boolean negative = false;
+        byte first = buf.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        int exponent = 0;
+        boolean seenDot = false;
+        boolean seenDigit = false;
+
+        for (; i < to; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && b == '0') {
+                    if (seenDot) scale++;
+                    continue;
+                }
+                if (++digits > MAX_EXACT_DIGITS) {
+                    return Money.parse(decode(from, to));
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenDot) scale++;
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else if ((b == 'e' || b == 'E') && seenDigit) {
+                exponent = parseInt(i + 1, to);
+                break;
+            } else {
+                throw new NumberFormatException("Jumlah tidak valid: " + decode(from, to));
+            }
+        }
+
+        if (!seenDigit) {
+            throw new NumberFormatException("Jumlah tidak valid: " + decode(from, to));
+        }
+
+        long value;
+        try {
+            value = Money.shift(mantissa, exponent - scale + 2);
+        } catch (NumberFormatException e) {
+            return Money.parse(decode(from, to));
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse tanggal ISO yyyy-MM-dd tanpa DateTimeFormatter
+     */
+    private LocalDate parseDate(int from, int to) {
+        if (to - from != 10 || buf.get(from + 4) != '-' || buf.get(from + 7) != '-') {
+            return LocalDate.parse(decode(from, to));
+        }
+
+        int year = digits(from, from + 4);
+        int month = digits(from + 5, from + 7);
+        int day = digits(from + 8, from + 10);
+        int key = year * 10000 + month * 100 + day;
+
+        if (key != lastDateKey) {
+            lastDate = LocalDate.of(year, month, day);
+            lastDateKey = key;
+        }
+        return lastDate;
+    }
+
+    private int digits(int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Tanggal tidak valid: " + decode(from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Ambil String dari cache jika byte-nya sama, kalau belum ada simpan ke cache
+     */
+    private String cached(int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return "";
+        }
+        if (length > MAX_CACHED_LENGTH) {
+            return decode(from, to);
+        }
+
+        int hash = length;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + buf.get(i);
+        }
+
+        int slot = hash & (CACHE_SIZE - 1);
+        for (int probe = 0; probe < CACHE_SIZE; probe++) {
+            byte[] key = cacheKeys[slot];
+            if (key == null) {
+                String value = decode(from, to);
+                cacheKeys[slot] = value.getBytes(StandardCharsets.UTF_8);
+                cacheValues[slot] = value;
+                return value;
+            }
+            if (matches(key, from, to)) {
+                return cacheValues[slot];
+            }
+            slot = (slot + 1) & (CACHE_SIZE - 1);
+        }
+
+        // Cache penuh, decode biasa
+        return decode(from, to);
+    }
+
+    private boolean matches(byte[] key, int from, int to) {
+        if (key.length != to - from) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buf.get(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int from, int to) {
+        int length = to - from;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buf.get(from + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buf.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Pencatatan partisi bulanan yang sedang ada di memori (mode lazy loading)
+ * Menyimpan urutan akses (LRU), bulan "dirty" yang berubah di sesi ini,
+ * dan bulan terbaru yang selalu dipertahankan. Data barisnya sendiri tetap
+ * dipegang ExpenseManager; kelas ini hanya memutuskan apa yang dimuat/dibuang.
+ */
+class PartitionCache {
+    private final NavigableMap<YearMonth, PartitionedStorage.PartitionInfo> manifest;
+    private final LinkedHashMap<YearMonth, Integer> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<YearMonth> dirty = new HashSet<>();
+    private final Set<YearMonth> recent = new HashSet<>();
+    private final long budgetRows;
+    private long loadedRows;
+
+    /**
+     * @param manifest   isi manifest saat startup (setelah journal dilipat ke partisi)
+     * @param recentMonths jumlah bulan terakhir yang dimuat di awal dan tidak pernah dibuang
+     * @param budgetRows batas kira-kira jumlah baris partisi lama di memori
+     */
+    PartitionCache(NavigableMap<YearMonth, PartitionedStorage.PartitionInfo> manifest,
+                   int recentMonths, long budgetRows) {
+        this.manifest = manifest;
+        this.budgetRows = budgetRows;
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i < recentMonths; i++) {
+            recent.add(current.minusMonths(i));
+        }
+    }
+
+    /**
+     * Rentang tanggal bulan-bulan terbaru yang dimuat saat startup
+     */
+    LocalDate recentStart() {
+        return Collections.min(recent).atDay(1);
+    }
+
+    LocalDate recentEnd() {
+        return Collections.max(recent).atEndOfMonth();
+    }
+
+    int maxId() {
+        int maxId = 0;
+        for (PartitionedStorage.PartitionInfo info : manifest.values()) {
+            maxId = Math.max(maxId, info.getMaxId());
+        }
+        return maxId;
+    }
+
+    void markLoaded(YearMonth month, int rows) {
+        Integer previous = loaded.put(month, rows);
+        loadedRows += rows - (previous == null ? 0 : previous);
+    }
+
+    /**
+     * Tandai partisi dalam rentang sebagai baru diakses (urutan LRU)
+     */
+    void touch(YearMonth start, YearMonth end) {
+        for (YearMonth month : manifest.subMap(start, true, end, true).keySet()) {
+            loaded.get(month);
+        }
+    }
+
+    /**
+     * Partisi hanya mungkin berisi ID yang tidak melebihi maxId di manifest
+     */
+    boolean mayContain(YearMonth month, int id) {
+        PartitionedStorage.PartitionInfo info = manifest.get(month);
+        return info != null && id <= info.getMaxId();
+    }
+
+    void markDirty(YearMonth month) {
+        dirty.add(month);
+    }
+
+    boolean isDirty(YearMonth month) {
+        return dirty.contains(month);
+    }
+
+    /**
+     * Bulan di manifest dalam rentang [start, end] yang belum dimuat, terbaru dulu
+     */
+    List<YearMonth> unloadedMonths(YearMonth start, YearMonth end) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month : manifest.subMap(start, true, end, true).descendingKeySet()) {
+            if (!loaded.containsKey(month)) {
+                months.add(month);
+            }
+        }
+        return months;
+    }
+
+    List<YearMonth> unloadedMonths() {
+        return manifest.isEmpty() ? new ArrayList<>()
+                : unloadedMonths(manifest.firstKey(), manifest.lastKey());
+    }
+
+    /**
+     * Jumlah baris satu partisi menurut manifest
+     */
+    long rows(YearMonth month) {
+        PartitionedStorage.PartitionInfo info = manifest.get(month);
+        return info == null ? 0 : info.getRows();
+    }
+
+    /**
+     * Jumlah baris di partisi yang belum dimuat (menurut manifest saat startup)
+     */
+    long unloadedRows() {
+        long rows = 0;
+        for (Map.Entry<YearMonth, PartitionedStorage.PartitionInfo> entry : manifest.entrySet()) {
+            if (!loaded.containsKey(entry.getKey())) {
+                rows += entry.getValue().getRows();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Pilih bulan yang dibuang agar kembali di bawah budget: yang paling lama
+     * tidak diakses, bukan bulan terbaru, bukan dirty, dan bukan yang sedang dipakai
+     * (rentang pinnedStart..pinnedEnd)
+     */
+    List<YearMonth> evictions(YearMonth pinnedStart, YearMonth pinnedEnd) {
+        List<YearMonth> evicted = new ArrayList<>();
+        long rows = loadedRows;
+
+        for (Map.Entry<YearMonth, Integer> entry : loaded.entrySet()) {
+            if (rows <= budgetRows) {
+                break;
+            }
+            YearMonth month = entry.getKey();
+            boolean pinned = !month.isBefore(pinnedStart) && !month.isAfter(pinnedEnd);
+            if (recent.contains(month) || dirty.contains(month) || pinned) {
+                continue;
+            }
+            evicted.add(month);
+            rows -= entry.getValue();
+        }
+
+        for (YearMonth month : evicted) {
+            loadedRows -= loaded.remove(month);
+        }
+        return evicted;
+    }
+}
@@ -0,0 +1,260 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Layout penyimpanan per bulan: data/2025/12.csv, data/2026/01.csv, ...
+ * Setiap partisi memakai format CSV yang sama dengan expenses.csv.
+ * Manifest (data/partitions.csv) mencatat jumlah baris dan ID terbesar per
+ * bulan, sehingga pembacaan bisa membuka hanya partisi yang dibutuhkan.
+ * Modul 5: File Handling - struktur folder, atomic replace per partisi
+ */
+public class PartitionedStorage {
+    private static final String MANIFEST_NAME = "partitions.csv";
+    private static final String MANIFEST_HEADER = "month,rows,maxId";
+    private static final String MIGRATED_SUFFIX = ".migrated";
+
+    private final StorageConfig config;
+    private final File baseDir;
+    private final File manifestFile;
+
+    public PartitionedStorage(StorageConfig config) {
+        this.config = config;
+        this.baseDir = config.getDataFile().getAbsoluteFile().getParentFile();
+        this.manifestFile = new File(baseDir, MANIFEST_NAME);
+    }
+
+    /**
+     * Info satu partisi di manifest
+     */
+    public static class PartitionInfo {
+        private final int rows;
+        private final int maxId;
+
+        public PartitionInfo(int rows, int maxId) {
+            this.rows = rows;
+            this.maxId = maxId;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getMaxId() {
+            return maxId;
+        }
+    }
+
+    public boolean exists() {
+        return manifestFile.exists();
+    }
+
+    /**
+     * File partisi untuk sebuah bulan
+     */
+    public File partitionFile(YearMonth month) {
+        return new File(new File(baseDir, String.valueOf(month.getYear())),
+                String.format("%02d.csv", month.getMonthValue()));
+    }
+
+    /**
+     * Isi manifest, urut dari bulan terlama
+     */
+    public synchronized NavigableMap<YearMonth, PartitionInfo> readManifest() {
+        NavigableMap<YearMonth, PartitionInfo> manifest = new TreeMap<>();
+        if (!manifestFile.exists()) {
+            return manifest;
+        }
+
+        try (BufferedReader reader = FileHandler.openReader(manifestFile)) {
+            String line = reader.readLine(); // Skip header
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] parts = line.split(",");
+                manifest.put(YearMonth.parse(parts[0]),
+                        new PartitionInfo(Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading partition manifest: " + e.getMessage());
+        }
+        return manifest;
+    }
+
+    /**
+     * Load semua partisi, diparse paralel per file lalu digabung urut bulan
+     */
+    public FileHandler.LoadResult loadAll() throws IOException {
+        return load(readManifest().keySet());
+    }
+
+    /**
+     * Load hanya partisi yang beririsan dengan rentang tanggal
+     */
+    public FileHandler.LoadResult loadRange(LocalDate start, LocalDate end) throws IOException {
+        NavigableMap<YearMonth, PartitionInfo> manifest = readManifest();
+        return load(manifest.subMap(YearMonth.from(start), true, YearMonth.from(end), true).keySet());
+    }
+
+    /**
+     * Load satu partisi untuk query (list kosong jika belum ada atau gagal dibaca)
+     */
+    public List<Expense> loadMonth(YearMonth month) {
+        try {
+            return readMonth(month);
+        } catch (IOException e) {
+            System.err.println("Error loading partition " + month + ": " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Baca satu partisi (list kosong jika belum ada); gagal baca dilempar,
+     * dipakai jalur yang menulis ulang partisi
+     */
+    public List<Expense> readMonth(YearMonth month) throws IOException {
+        File file = partitionFile(month);
+        return file.exists() ? FileHandler.loadFromCSVMapped(file) : new ArrayList<>();
+    }
+
+    private FileHandler.LoadResult load(Collection<YearMonth> months) throws IOException {
+        List<Expense> expenses = new ArrayList<>();
+        int maxId = 0;
+        int parallelism = Math.min(config.getLoadParallelism(), Math.max(1, months.size()));
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+
+        try {
+            List<Future<List<Expense>>> partitions = new ArrayList<>();
+            for (YearMonth month : months) {
+                if (pool != null) {
+                    partitions.add(pool.submit(() -> readMonth(month)));
+                } else {
+                    expenses.addAll(readMonth(month));
+                }
+            }
+            for (Future<List<Expense>> partition : partitions) {
+                expenses.addAll(partition.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Load partisi dibatalkan");
+        } catch (ExecutionException e) {
+            throw new IOException("Error loading partitions: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        for (Expense expense : expenses) {
+            maxId = Math.max(maxId, expense.getId());
+        }
+        return new FileHandler.LoadResult(expenses, maxId);
+    }
+
+    /**
+     * Tulis ulang hanya partisi yang diberikan (partisi kosong dihapus),
+     * lalu perbarui manifest untuk bulan-bulan tersebut
+     */
+    public synchronized void writeMonths(Map<YearMonth, List<Expense>> rowsByMonth) throws IOException {
+        NavigableMap<YearMonth, PartitionInfo> manifest = readManifest();
+
+        for (Map.Entry<YearMonth, List<Expense>> entry : rowsByMonth.entrySet()) {
+            YearMonth month = entry.getKey();
+            List<Expense> rows = entry.getValue();
+            File file = partitionFile(month);
+
+            if (rows.isEmpty()) {
+                Files.deleteIfExists(file.toPath());
+                manifest.remove(month);
+                continue;
+            }
+
+            File tempFile = new File(file.getPath() + ".tmp");
+            if (!FileHandler.saveToCSV(rows, tempFile)) {
+                throw new IOException("Gagal menulis partisi " + month);
+            }
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            int maxId = 0;
+            for (Expense expense : rows) {
+                maxId = Math.max(maxId, expense.getId());
+            }
+            manifest.put(month, new PartitionInfo(rows.size(), maxId));
+        }
+
+        writeManifest(manifest);
+    }
+
+    private void writeManifest(NavigableMap<YearMonth, PartitionInfo> manifest) throws IOException {
+        baseDir.mkdirs();
+        File tempFile = new File(manifestFile.getPath() + ".tmp");
+        try (BufferedWriter writer = FileHandler.openWriter(tempFile, false)) {
+            writer.write(MANIFEST_HEADER);
+            writer.newLine();
+            for (Map.Entry<YearMonth, PartitionInfo> entry : manifest.entrySet()) {
+                writer.write(entry.getKey() + "," + entry.getValue().getRows() + "," + entry.getValue().getMaxId());
+                writer.newLine();
+            }
+        }
+        Files.move(tempFile.toPath(), manifestFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Kelompokkan baris per bulan
+     */
+    public static Map<YearMonth, List<Expense>> groupByMonth(Collection<Expense> expenses) {
+        Map<YearMonth, List<Expense>> rowsByMonth = new TreeMap<>();
+        for (Expense expense : expenses) {
+            rowsByMonth.computeIfAbsent(YearMonth.from(expense.getDate()), m -> new ArrayList<>()).add(expense);
+        }
+        return rowsByMonth;
+    }
+
+    /**
+     * Migrasi dari format satu file (expenses.csv / .bin / .dz) ke layout per bulan.
+     * File lama diganti nama menjadi *.migrated supaya tidak tertukar dengan data aktif.
+     *
+     * @return true jika ada data yang dimigrasi
+     */
+    public synchronized boolean migrateFromSingleFile() throws IOException {
+        if (exists()) {
+            return false;
+        }
+
+        File csvFile = config.getDataFile();
+        File binaryFile = FileHandler.binaryFileFor(csvFile);
+        File compressedFile = FileHandler.compressedFileFor(csvFile);
+        if (!csvFile.exists() && !binaryFile.exists() && !compressedFile.exists()) {
+            writeManifest(new TreeMap<>());
+            return false;
+        }
+
+        StorageConfig singleFile = StorageConfig.forDataFile(csvFile);
+        singleFile.setLoadParallelism(config.getLoadParallelism());
+        if (compressedFile.exists()) {
+            singleFile.setSnapshotFormat(StorageConfig.SnapshotFormat.COMPRESSED);
+        }
+        List<Expense> expenses = FileHandler.loadSnapshot(singleFile).getExpenses();
+
+        writeMonths(groupByMonth(expenses));
+
+        for (File file : new File[]{csvFile, binaryFile, compressedFile}) {
+            if (file.exists()) {
+                Files.move(file.toPath(), new File(file.getPath() + MIGRATED_SUFFIX).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return !expenses.isEmpty();
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import org.example.model.JsonFormatter;
+import org.example.model.RupiahFormatter;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Export laporan secara streaming: setiap baris langsung ditulis ke file
+ * saat ExpenseSource diiterasi, jadi memori tidak bertambah sesuai ukuran laporan.
+ * Hasil ditulis ke file sementara lalu di-rename, sehingga export yang dibatalkan
+ * atau gagal tidak meninggalkan file setengah jadi.
+ * Modul 5: File Handling - BufferedWriter, atomic replace
+ */
+public class ReportExporter {
+    private static final int PROGRESS_INTERVAL = 1024;
+
+    /**
+     * Format output: TXT (laporan), CSV (format data aplikasi), JSONL (satu objek JSON per baris)
+     */
+    public enum Format {
+        TXT("txt"), CSV("csv"), JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Callback progress: jumlah baris yang sudah ditulis dari perkiraan total
+     */
+    public interface ProgressListener {
+        void onProgress(long written, long total);
+    }
+
+    private ReportExporter() {
+    }
+
+    /**
+     * Tulis semua baris dari source ke file
+     *
+     * @param title     judul laporan (hanya untuk TXT)
+     * @param cancelled dicek berkala; jika true export dihentikan
+     * @return jumlah baris yang ditulis
+     * @throws CancellationException jika export dibatalkan
+     */
+    public static long export(ExpenseSource source, Format format, String title, File file,
+                              BooleanSupplier cancelled, ProgressListener progress) throws IOException {
+        File tempFile = new File(file.getAbsolutePath() + ".tmp");
+        long written = 0;
+        long totalSen = 0;
+        char[] amountBuffer = new char[RupiahFormatter.MAX_LENGTH];
+        StringBuilder row = new StringBuilder(256);
+
+        try {
+            try (BufferedWriter writer = FileHandler.openWriter(tempFile, false)) {
+                writeHeader(writer, format, title);
+
+                while (source.hasNext()) {
+                    Expense expense = source.next();
+                    writeRow(writer, format, expense, amountBuffer, row);
+                    totalSen += expense.getAmountSen();
+                    written++;
+
+                    if (written % PROGRESS_INTERVAL == 0) {
+                        if (cancelled.getAsBoolean()) {
+                            throw new CancellationException("Export dibatalkan");
+                        }
+                        progress.onProgress(written, source.estimatedSize());
+                    }
+                }
+
+                writeFooter(writer, format, written, totalSen);
+            }
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+
+        progress.onProgress(written, written);
+        return written;
+    }
+
+    private static void writeHeader(BufferedWriter writer, Format format, String title) throws IOException {
+        switch (format) {
+            case TXT:
+                writer.write(repeatChar('=', 60));
+                writer.newLine();
+                writer.write("       LAPORAN PENGELUARAN - " + title);
+                writer.newLine();
+                writer.write(repeatChar('=', 60));
+                writer.newLine();
+                writer.newLine();
+                writer.write("Detail Transaksi:");
+                writer.newLine();
+                writer.write(repeatChar('-', 60));
+                writer.newLine();
+                break;
+            case CSV:
+                writer.write(FileHandler.HEADER);
+                writer.newLine();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void writeRow(BufferedWriter writer, Format format, Expense expense,
+                                 char[] amountBuffer, StringBuilder row) throws IOException {
+        switch (format) {
+            case TXT:
+                writer.write(expense.getFormattedDate());
+                writer.write(" | ");
+                writer.write(expense.getCategory());
+                writer.write(" | ");
+                writer.write(expense.getDescription());
+                writer.write(" | ");
+                writer.write(amountBuffer, 0, RupiahFormatter.formatTo(expense.getAmountSen(), amountBuffer, 0));
+                break;
+            case CSV:
+                writer.write(expense.toCSV());
+                break;
+            case JSONL:
+                row.setLength(0);
+                JsonFormatter.appendExpense(row, expense);
+                writer.append(row);
+                break;
+        }
+        writer.newLine();
+    }
+
+    private static void writeFooter(BufferedWriter writer, Format format, long count, long totalSen) throws IOException {
+        if (format != Format.TXT) {
+            return;
+        }
+        // Total baru diketahui setelah semua baris ditulis
+        writer.write(repeatChar('-', 60));
+        writer.newLine();
+        writer.write("Total Pengeluaran: " + RupiahFormatter.format(totalSen));
+        writer.newLine();
+        writer.write("Jumlah Transaksi: " + count);
+        writer.newLine();
+    }
+
+    private static String repeatChar(char ch, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(ch);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Memadatkan journal ke snapshot (CSV atau biner, sesuai StorageConfig) di background thread
+ * Alur: rotate journal -> baca snapshot lama dari disk -> replay segmen tertutup
+ * -> tulis snapshot baru ke file sementara -> atomic move -> hapus segmen.
+ * Writer di ExpenseManager tidak pernah menunggu proses ini; yang dibagi
+ * hanya rename file saat rotate.
+ * Modul 5: File Handling - atomic file replace, Exception Handling
+ */
+public class SnapshotCompactor {
+    public static final long DEFAULT_MAX_JOURNAL_BYTES = 4L * 1024 * 1024;
+    public static final long DEFAULT_MAX_JOURNAL_AGE_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long CHECK_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final StorageConfig config;
+    private final ExpenseJournal journal;
+    private final long maxJournalBytes;
+    private final long maxJournalAgeMs;
+
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public SnapshotCompactor(StorageConfig config, ExpenseJournal journal) {
+        this(config, journal, DEFAULT_MAX_JOURNAL_BYTES, DEFAULT_MAX_JOURNAL_AGE_MS);
+    }
+
+    public SnapshotCompactor(StorageConfig config, ExpenseJournal journal,
+                             long maxJournalBytes, long maxJournalAgeMs) {
+        this.config = config;
+        this.journal = journal;
+        this.maxJournalBytes = maxJournalBytes;
+        this.maxJournalAgeMs = maxJournalAgeMs;
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snapshot-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::maybeCompact,
+                CHECK_INTERVAL_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cek threshold ukuran/umur journal, jadwalkan compaction jika terlampaui.
+     * Murah dipanggil setelah setiap append.
+     */
+    public void maybeCompact() {
+        boolean pending = journal.getSealedFile().exists() || FileHandler.isBinarySnapshotStale(config);
+        boolean tooBig = journal.size() >= maxJournalBytes;
+        boolean tooOld = maxJournalAgeMs > 0 && journal.age() >= maxJournalAgeMs;
+
+        if (pending || tooBig || tooOld) {
+            compactAsync();
+        }
+    }
+
+    /**
+     * Jadwalkan compaction sekarang (tidak dobel jika sudah terjadwal)
+     */
+    public Future<Boolean> compactAsync() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        try {
+            return executor.submit(() -> {
+                try {
+                    return compact();
+                } finally {
+                    scheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Jalankan compaction di thread compactor dan tunggu hasilnya
+     * (dipakai saat startup mode lazy loading, sebelum partisi dibaca)
+     */
+    public boolean compactNow() {
+        try {
+            return executor.submit(this::compact).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | RejectedExecutionException e) {
+            System.err.println("Error compacting journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Satu putaran compaction, dijalankan di thread compactor
+     *
+     * @return true jika snapshot baru berhasil dipasang
+     */
+    private boolean compact() {
+        try {
+            boolean hasSegment = journal.rotate();
+            if (!hasSegment && !FileHandler.isBinarySnapshotStale(config)) {
+                return false;
+            }
+
+            File sealed = journal.getSealedFile();
+            if (config.getSnapshotFormat() == StorageConfig.SnapshotFormat.PARTITIONED) {
+                compactPartitions(sealed);
+                Files.deleteIfExists(sealed.toPath());
+                return true;
+            }
+
+            List<Expense> snapshot = FileHandler.loadSnapshot(config).getExpenses();
+            ExpenseJournal.replayFile(sealed, snapshot);
+
+            if (!FileHandler.writeSnapshot(config, snapshot)) {
+                return false;
+            }
+
+            // Kalau crash sebelum baris ini, replay ulang segmen tetap aman (idempotent)
+            Files.deleteIfExists(sealed.toPath());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error compacting journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lipat segmen ke layout per bulan: hanya partisi yang disentuh record
+     * di segmen (bulan baru dan bulan lama untuk UPDATE/DELETE) yang ditulis ulang
+     */
+    private void compactPartitions(File sealed) throws IOException {
+        PartitionedStorage storage = new PartitionedStorage(config);
+        Set<YearMonth> months = new TreeSet<>();
+
+        for (ExpenseJournal.Record record : ExpenseJournal.readRecords(sealed)) {
+            months.add(YearMonth.from(record.getExpense().getDate()));
+            if (record.getPreviousDate() != null) {
+                months.add(YearMonth.from(record.getPreviousDate()));
+            }
+        }
+
+        List<Expense> rows = new ArrayList<>();
+        for (YearMonth month : months) {
+            rows.addAll(storage.readMonth(month));
+        }
+        ExpenseJournal.replayFile(sealed, rows);
+
+        Map<YearMonth, List<Expense>> rowsByMonth = PartitionedStorage.groupByMonth(rows);
+        for (YearMonth month : months) {
+            rowsByMonth.putIfAbsent(month, new ArrayList<>());
+        }
+        storage.writeMonths(rowsByMonth);
+    }
+
+    /**
+     * Hentikan thread compactor, tunggu compaction yang sedang berjalan
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Import massal mutasi bank / e-wallet (CSV) ke ExpenseManager
+ * File dipetakan ke memori dan di-parse paralel per chunk (FileHandler.parseMapped +
+ * StatementParser); hasilnya diambil sesuai urutan file, disaring dari duplikat, lalu
+ * diserahkan ke ExpenseManager.addExpenses per BATCH_SIZE baris (satu tulis journal per batch).
+ * Duplikat = baris dengan (tanggal, jumlah, deskripsi) yang sama dengan baris yang sudah ada;
+ * jika ada dua baris lama yang sama, dua baris pertama yang sama di file dianggap duplikat.
+ * Baris dengan (tanggal, jumlah, deskripsi) sama di dalam satu file tetap diimport.
+ * Baris lama dibaca lewat index tanggal per bulan, hanya untuk bulan yang muncul di file,
+ * dan selalu sebelum baris file dari bulan itu ikut tersimpan.
+ */
+public class StatementImporter {
+    private static final int BATCH_SIZE = 50_000;
+    private static final long CHUNK_BYTES = 1L << 20;
+    private static final int MAX_CHUNKS = 256;
+
+    /**
+     * Callback progress: byte file yang sudah diproses dan jumlah baris yang sudah masuk
+     */
+    public interface ProgressListener {
+        void onProgress(long parsedBytes, long totalBytes, long imported);
+    }
+
+    /**
+     * Ringkasan hasil import
+     */
+    public static class ImportResult {
+        private final long imported;
+        private final long duplicates;
+        private final long rejected;
+        private final long credits;
+
+        ImportResult(long imported, long duplicates, long rejected, long credits) {
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.rejected = rejected;
+            this.credits = credits;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * Baris yang tidak bisa di-parse (format salah, jumlah 0, deskripsi kosong)
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Baris kredit (uang masuk) yang dilewati, lihat ImportMapping.isDebitsNegative
+         */
+        public long getCredits() {
+            return credits;
+        }
+    }
+
+    private StatementImporter() {
+    }
+
+    /**
+     * Import file mutasi ke manager
+     * Setiap batch disimpan utuh atau tidak sama sekali; jika import dibatalkan atau gagal
+     * di tengah jalan, batch yang sudah tersimpan tetap ada.
+     *
+     * @param parallelism jumlah thread parser (1 = berurutan)
+     * @param cancelled   dicek setiap chunk; jika true import dihentikan
+     * @throws CancellationException jika import dibatalkan
+     */
+    public static ImportResult importFile(ExpenseManager manager, File file, ImportMapping mapping, int parallelism,
+                                          BooleanSupplier cancelled, ProgressListener progress) throws IOException {
+        DuplicateFilter existing = new DuplicateFilter();
+        Set<YearMonth> seededMonths = new HashSet<>();
+
+        long totalBytes = file.length();
+        int chunks = (int) Math.max(parallelism, Math.min(MAX_CHUNKS, totalBytes / CHUNK_BYTES));
+        List<Expense> batch = new ArrayList<>(BATCH_SIZE);
+        long[] counts = new long[4]; // imported, duplicates, rejected, credits
+        String[] firstError = {null};
+
+        try {
+            FileHandler.parseMapped(file, parallelism, chunks, mapping.getHeaderLines(),
+                    (buffer, from, to) -> new StatementParser(buffer, mapping).parse(from, to),
+                    (chunk, parsedBytes) -> {
+                        if (cancelled.getAsBoolean()) {
+                            throw new CancellationException("Import dibatalkan");
+                        }
+                        for (int i = 0; i < chunk.rows.size(); i++) {
+                            YearMonth month = YearMonth.from(chunk.rows.get(i).getDate());
+                            if (seededMonths.add(month)) {
+                                for (Expense old : manager.filterByDateRange(month.atDay(1), month.atEndOfMonth())) {
+                                    existing.add(duplicateKey(old));
+                                }
+                            }
+                            if (existing.consume(chunk.keys[i])) {
+                                counts[1]++;
+                            } else {
+                                batch.add(chunk.rows.get(i));
+                            }
+                        }
+                        counts[2] += chunk.rejected;
+                        counts[3] += chunk.credits;
+                        if (firstError[0] == null) {
+                            firstError[0] = chunk.firstError;
+                        }
+                        if (batch.size() >= BATCH_SIZE) {
+                            counts[0] += save(manager, batch);
+                        }
+                        progress.onProgress(parsedBytes, totalBytes, counts[0] + batch.size());
+                    });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import terhenti");
+        } catch (ExecutionException e) {
+            throw new IOException("Gagal mem-parse file: " + e.getCause().getMessage(), e.getCause());
+        }
+        counts[0] += save(manager, batch);
+
+        if (counts[2] > 0) {
+            System.err.println("Import: " + counts[2] + " baris dilewati, pertama: " + firstError[0]);
+        }
+        return new ImportResult(counts[0], counts[1], counts[2], counts[3]);
+    }
+
+    private static int save(ExpenseManager manager, List<Expense> batch) throws IOException {
+        int size = batch.size();
+        if (size > 0 && !manager.addExpenses(batch)) {
+            throw new IOException("Gagal menyimpan " + size + " baris import");
+        }
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Hash 64-bit dari (tanggal, jumlah sen, deskripsi) untuk deteksi duplikat
+     */
+    static long duplicateKey(Expense expense) {
+        long hash = expense.getDate().toEpochDay() * 0x9E3779B97F4A7C15L ^ expense.getAmountSen();
+        String description = expense.getDescription();
+        for (int i = 0; i < description.length(); i++) {
+            hash = (hash ^ description.charAt(i)) * 0x100000001B3L;
+        }
+        // Finalizer MurmurHash3 supaya bit rendah (dipakai sebagai slot) tersebar
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Multiset hash baris lama (open addressing, key 0 = slot kosong)
+     */
+    private static final class DuplicateFilter {
+        private long[] keys = new long[1 << 10];
+        private int[] counts = new int[1 << 10];
+        private int size;
+
+        void add(long key) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int slot = slot(key);
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot]++;
+        }
+
+        /**
+         * Pakai satu baris lama dengan key ini
+         *
+         * @return true jika baris import adalah duplikat
+         */
+        boolean consume(long key) {
+            int slot = slot(key);
+            if (keys[slot] == 0 || counts[slot] == 0) {
+                return false;
+            }
+            counts[slot]--;
+            return true;
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length << 1];
+            counts = new int[oldKeys.length << 1];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+}
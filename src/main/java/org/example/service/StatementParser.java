@@ -0,0 +1,268 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import org.example.model.Money;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parser satu chunk file mutasi bank / e-wallet menurut ImportMapping
+ * Bekerja langsung di atas byte seperti MappedCsvParser; field boleh diapit tanda kutip
+ * ("Transfer, BCA" dengan "" untuk kutip di dalamnya), tetapi tidak boleh berisi newline.
+ * Koma di teks diganti spasi ("Transfer BCA") karena ExpenseManager menolak koma.
+ * Satu instance hanya dipakai satu thread.
+ */
+final class StatementParser {
+    private final ByteBuffer buf;
+    private final ImportMapping mapping;
+    private final DateTimeFormatter dateFormat;
+    private final byte delimiter;
+    private final int columns;
+
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private boolean[] quoted = new boolean[16];
+    private int fieldCount;
+
+    private byte[] scratch = new byte[128];
+    private final StringBuilder amount = new StringBuilder(32);
+
+    // Baris berurutan biasanya punya tanggal yang sama
+    private byte[] lastDateBytes = new byte[0];
+    private LocalDate lastDate;
+
+    /**
+     * Hasil parse satu chunk, urutan sesuai file
+     */
+    static final class Chunk {
+        final List<Expense> rows = new ArrayList<>();
+        long[] keys = new long[64];
+        int rejected;
+        int credits;
+        String firstError;
+
+        void add(Expense expense) {
+            if (rows.size() == keys.length) {
+                keys = Arrays.copyOf(keys, keys.length << 1);
+            }
+            keys[rows.size()] = StatementImporter.duplicateKey(expense);
+            rows.add(expense);
+        }
+    }
+
+    StatementParser(ByteBuffer buf, ImportMapping mapping) {
+        this.buf = buf;
+        this.mapping = mapping;
+        this.dateFormat = DateTimeFormatter.ofPattern(mapping.getDatePattern());
+        this.delimiter = (byte) mapping.getDelimiter();
+        this.columns = 1 + Math.max(Math.max(mapping.getDateColumn(), mapping.getAmountColumn()),
+                Math.max(mapping.getDescriptionColumn(), Math.max(mapping.getCategoryColumn(), mapping.getNotesColumn())));
+    }
+
+    /**
+     * Parse semua baris dalam [from, to). from harus berada di awal baris.
+     */
+    Chunk parse(int from, int to) {
+        Chunk chunk = new Chunk();
+        int pos = from;
+
+        while (pos < to) {
+            int end = indexOf((byte) '\n', pos, to);
+            if (end < 0) end = to;
+
+            int lineEnd = end;
+            if (lineEnd > pos && buf.get(lineEnd - 1) == '\r') lineEnd--;
+
+            if (!isBlank(pos, lineEnd)) {
+                try {
+                    parseLine(pos, lineEnd, chunk);
+                } catch (RuntimeException e) {
+                    if (chunk.rejected++ == 0) {
+                        chunk.firstError = decode(pos, lineEnd, false) + " (" + e.getMessage() + ")";
+                    }
+                }
+            }
+            pos = end + 1;
+        }
+
+        return chunk;
+    }
+
+    private void parseLine(int start, int end, Chunk chunk) {
+        splitFields(start, end);
+        if (fieldCount < columns) {
+            throw new IllegalArgumentException("Jumlah kolom kurang");
+        }
+
+        long amountSen = parseSen(mapping.getAmountColumn());
+        if (mapping.isDebitsNegative()) {
+            if (amountSen >= 0) {
+                chunk.credits++;
+                return;
+            }
+            amountSen = -amountSen;
+        }
+        if (amountSen <= 0) {
+            throw new NumberFormatException("Jumlah harus lebih dari 0");
+        }
+
+        String description = text(mapping.getDescriptionColumn());
+        if (description.isEmpty()) {
+            throw new IllegalArgumentException("Deskripsi kosong");
+        }
+        String category = mapping.getCategoryColumn() >= 0 ? text(mapping.getCategoryColumn()) : "";
+        if (category.isEmpty()) {
+            category = mapping.getDefaultCategory();
+        }
+        String notes = mapping.getNotesColumn() >= 0 ? text(mapping.getNotesColumn()) : "";
+
+        chunk.add(Expense.ofSen(0, description, category, amountSen, parseDate(mapping.getDateColumn()), notes));
+    }
+
+    /**
+     * Catat posisi setiap field di baris; field berkutip disimpan tanpa kutip luarnya
+     */
+    private void splitFields(int start, int end) {
+        fieldCount = 0;
+        int pos = start;
+        while (true) {
+            if (fieldCount == fieldStarts.length) {
+                fieldStarts = Arrays.copyOf(fieldStarts, fieldCount << 1);
+                fieldEnds = Arrays.copyOf(fieldEnds, fieldCount << 1);
+                quoted = Arrays.copyOf(quoted, fieldCount << 1);
+            }
+
+            int fieldStart = pos;
+            while (fieldStart < end && buf.get(fieldStart) == ' ') fieldStart++;
+            int fieldEnd;
+            boolean isQuoted = fieldStart < end && buf.get(fieldStart) == '"';
+            if (isQuoted) {
+                int close = fieldStart + 1;
+                while (close < end && (buf.get(close) != '"' || (close + 1 < end && buf.get(close + 1) == '"'))) {
+                    close += buf.get(close) == '"' ? 2 : 1;
+                }
+                fieldStart++;
+                fieldEnd = close;
+                pos = indexOf(delimiter, Math.min(close + 1, end), end);
+            } else {
+                pos = indexOf(delimiter, fieldStart, end);
+                fieldEnd = pos < 0 ? end : pos;
+            }
+
+            fieldStarts[fieldCount] = fieldStart;
+            fieldEnds[fieldCount] = fieldEnd;
+            quoted[fieldCount] = isQuoted;
+            fieldCount++;
+            if (pos < 0) {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private String field(int column) {
+        return decode(fieldStarts[column], fieldEnds[column], quoted[column]).trim();
+    }
+
+    /**
+     * Field teks expense: koma (dan spasi di sekitarnya) menjadi satu spasi
+     */
+    private String text(int column) {
+        String value = field(column);
+        if (value.indexOf(',') < 0) {
+            return value;
+        }
+        return value.replaceAll(" *, *", " ").trim();
+    }
+
+    /**
+     * Jumlah ke sen: digit, pemisah desimal, dan tanda minus ("-" atau "(...)") diambil,
+     * sisanya (pemisah ribuan, spasi, "Rp") diabaikan. Pembulatan mengikuti Money.parse.
+     */
+    private long parseSen(int column) {
+        amount.setLength(0);
+        boolean digits = false;
+        char decimal = mapping.getDecimalSeparator();
+        for (int i = fieldStarts[column]; i < fieldEnds[column]; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                amount.append((char) b);
+                digits = true;
+            } else if (b == decimal) {
+                amount.append('.');
+            } else if ((b == '-' || b == '(') && !digits && amount.length() == 0) {
+                amount.append('-');
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Jumlah tidak valid: " + field(column));
+        }
+        return Money.parse(amount.toString());
+    }
+
+    private LocalDate parseDate(int column) {
+        int from = fieldStarts[column];
+        int to = fieldEnds[column];
+        while (to > from && buf.get(to - 1) == ' ') to--;
+
+        int length = to - from;
+        if (length == lastDateBytes.length && lastDate != null && matches(lastDateBytes, from)) {
+            return lastDate;
+        }
+        lastDate = LocalDate.parse(decode(from, to, false), dateFormat);
+        lastDateBytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            lastDateBytes[i] = buf.get(from + i);
+        }
+        return lastDate;
+    }
+
+    private boolean matches(byte[] key, int from) {
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buf.get(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int from, int to, boolean unescape) {
+        int length = to - from;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buf.get(i);
+            scratch[count++] = b;
+            if (unescape && b == '"' && i + 1 < to && buf.get(i + 1) == '"') {
+                i++;
+            }
+        }
+        return new String(scratch, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buf.get(i);
+            if (b != ' ' && b != '\t' && b != delimiter) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
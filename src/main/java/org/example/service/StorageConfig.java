@@ -0,0 +1,147 @@
+package org.example.service;
+
+import java.io.File;
+
+/**
+ * Pengaturan penyimpanan untuk ExpenseManager
+ * Nilai default bisa di-override lewat system property, contoh:
+ *   java -Dexpense.dataFile=data/expenses.csv -Dexpense.loadParallelism=4
+ *        -Dexpense.snapshotFormat=BINARY -Dexpense.writeBehind=true ...
+ *        -Dexpense.snapshotFormat=PARTITIONED -Dexpense.lazyLoading=true -Dexpense.memoryBudgetMb=64
+ */
+public class StorageConfig {
+    /**
+     * Format snapshot yang ditulis saat compaction
+     * CSV = data/expenses.csv, BINARY = data/expenses.bin (CSV tetap bisa diekspor),
+     * PARTITIONED = satu CSV per bulan (data/2025/12.csv), lihat PartitionedStorage,
+     * COMPRESSED = data/expenses.dz (kamus kategori/notes + blok Deflate), lihat CompressedSnapshot
+     */
+    public enum SnapshotFormat {
+        CSV, BINARY, PARTITIONED, COMPRESSED
+    }
+
+    /**
+     * Kapan journal di-fsync: NEVER = cukup flush ke OS, EVERY_COMMIT = fsync setiap commit
+     */
+    public enum FsyncPolicy {
+        NEVER, EVERY_COMMIT
+    }
+
+    private File dataFile = new File(FileHandler.FILE_PATH);
+    private int loadParallelism = Runtime.getRuntime().availableProcessors();
+    private SnapshotFormat snapshotFormat = SnapshotFormat.CSV;
+    private boolean writeBehind = false;
+    private long flushIntervalMs = 10;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.NEVER;
+    private boolean lazyLoading = false;
+    private long memoryBudgetMb = 64;
+
+    /**
+     * Config default untuk file data tertentu
+     */
+    public static StorageConfig forDataFile(File dataFile) {
+        StorageConfig config = new StorageConfig();
+        config.setDataFile(dataFile);
+        return config;
+    }
+
+    /**
+     * Config default, dengan override dari system property jika ada
+     */
+    public static StorageConfig fromSystemProperties() {
+        StorageConfig config = new StorageConfig();
+        config.setDataFile(new File(System.getProperty("expense.dataFile", FileHandler.FILE_PATH)));
+        config.setLoadParallelism(Integer.getInteger("expense.loadParallelism", config.getLoadParallelism()));
+        config.setSnapshotFormat(SnapshotFormat.valueOf(
+                System.getProperty("expense.snapshotFormat", config.getSnapshotFormat().name()).toUpperCase()));
+        config.setWriteBehind(Boolean.parseBoolean(
+                System.getProperty("expense.writeBehind", String.valueOf(config.isWriteBehind()))));
+        config.setFlushIntervalMs(Long.getLong("expense.flushIntervalMs", config.getFlushIntervalMs()));
+        config.setFsyncPolicy(FsyncPolicy.valueOf(
+                System.getProperty("expense.fsync", config.getFsyncPolicy().name()).toUpperCase()));
+        config.setLazyLoading(Boolean.parseBoolean(
+                System.getProperty("expense.lazyLoading", String.valueOf(config.isLazyLoading()))));
+        config.setMemoryBudgetMb(Long.getLong("expense.memoryBudgetMb", config.getMemoryBudgetMb()));
+        return config;
+    }
+
+    public File getDataFile() {
+        return dataFile;
+    }
+
+    public void setDataFile(File dataFile) {
+        this.dataFile = dataFile;
+    }
+
+    /**
+     * Jumlah chunk/thread untuk parsing CSV saat startup (1 = berurutan)
+     */
+    public int getLoadParallelism() {
+        return loadParallelism;
+    }
+
+    public void setLoadParallelism(int loadParallelism) {
+        this.loadParallelism = Math.max(1, loadParallelism);
+    }
+
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+
+    public void setSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+    }
+
+    /**
+     * Jika true, mutasi ditulis ke journal oleh thread terpisah (group commit)
+     */
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Lama writer menunggu record lain sebelum commit (mode write-behind)
+     */
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = Math.max(0, flushIntervalMs);
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Jika true (hanya untuk format PARTITIONED), startup hanya memuat bulan ini
+     * dan bulan lalu; partisi lama dimuat saat query membutuhkannya
+     */
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    public void setLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
+    }
+
+    /**
+     * Perkiraan batas memori untuk partisi lama yang dimuat (mode lazy loading)
+     */
+    public long getMemoryBudgetMb() {
+        return memoryBudgetMb;
+    }
+
+    public void setMemoryBudgetMb(long memoryBudgetMb) {
+        this.memoryBudgetMb = Math.max(0, memoryBudgetMb);
+    }
+}
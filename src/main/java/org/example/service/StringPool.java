@@ -0,0 +1,240 @@
+package org.example.service;
+
+import org.example.index.IdIndex;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tabel string bersama untuk ExpenseTable: semua teks disimpan sebagai UTF-8
+ * di satu byte array, tiap string dirujuk lewat handle int.
+ * String yang sama (description/notes berulang) berbagi satu handle dengan
+ * reference count; dedupe memakai index hash -> handle (jika hash bentrok,
+ * string disimpan ulang saja). Byte string yang sudah tidak dipakai dibuang
+ * saat pool dipadatkan, handle tetap sama.
+ * Posisi tiap string (start, length) disimpan per chunk dengan epoch seperti segmen
+ * ExpenseTable, sehingga snapshot() cukup menyalin array pointer chunk. Byte array
+ * hanya ditambah di belakang; pemadatan dan pembesaran selalu membuat array baru,
+ * jadi byte yang dirujuk snapshot tidak pernah ditimpa.
+ */
+final class StringPool {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private byte[] bytes = new byte[1 << 12];
+    private int used;
+    private long liveBytes;
+
+    // span = start << 32 | length, per chunk CHUNK_SIZE handle
+    private long[][] spans = new long[1][CHUNK_SIZE];
+    private long[] spanEpochs = new long[1];
+    // Atomic seperti epoch ExpenseTable: snapshot() dipanggil di bawah read lock bersama
+    private final AtomicLong epoch = new AtomicLong();
+    private int[] hashes = new int[64];
+    private int[] refs = new int[64];
+    private int count;
+
+    private int[] freeHandles = new int[16];
+    private int freeCount;
+
+    private final IdIndex byHash = new IdIndex();
+
+    /**
+     * Simpan string (atau tambah reference jika sudah ada)
+     *
+     * @return handle string
+     */
+    int add(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        int hash = value.hashCode();
+        int existing = byHash.get(hash);
+        if (existing >= 0 && equalsAt(existing, encoded)) {
+            refs[existing]++;
+            return existing;
+        }
+
+        ensureBytes(encoded.length);
+        int handle = newHandle();
+        setSpan(handle, used, encoded.length);
+        hashes[handle] = hash;
+        refs[handle] = 1;
+        System.arraycopy(encoded, 0, bytes, used, encoded.length);
+        used += encoded.length;
+        liveBytes += encoded.length;
+        if (existing < 0) {
+            byHash.put(hash, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Lepas satu reference; handle bebas dipakai ulang saat reference habis
+     */
+    void release(int handle) {
+        if (--refs[handle] > 0) {
+            return;
+        }
+        liveBytes -= length(spanOf(handle));
+        if (byHash.get(hashes[handle]) == handle) {
+            byHash.remove(hashes[handle]);
+        }
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount << 1);
+        }
+        freeHandles[freeCount++] = handle;
+    }
+
+    String get(int handle) {
+        long span = spanOf(handle);
+        return new String(bytes, start(span), length(span), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tampilan read-only pool saat ini untuk ExpenseSnapshot
+     */
+    View snapshot() {
+        View view = new View(bytes, Arrays.copyOf(spans, (count + CHUNK_MASK) >> CHUNK_BITS));
+        epoch.incrementAndGet();
+        return view;
+    }
+
+    /**
+     * Isi pool yang dibekukan: byte array dan chunk span tidak diubah lagi oleh pool
+     */
+    static final class View {
+        private final byte[] bytes;
+        private final long[][] spans;
+
+        private View(byte[] bytes, long[][] spans) {
+            this.bytes = bytes;
+            this.spans = spans;
+        }
+
+        String get(int handle) {
+            long span = spans[handle >> CHUNK_BITS][handle & CHUNK_MASK];
+            return new String(bytes, start(span), length(span), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int start(long span) {
+        return (int) (span >>> 32);
+    }
+
+    private static int length(long span) {
+        return (int) span;
+    }
+
+    private long spanOf(int handle) {
+        return spans[handle >> CHUNK_BITS][handle & CHUNK_MASK];
+    }
+
+    /**
+     * Tulis span; chunk yang masih dipakai snapshot disalin dulu
+     */
+    private void setSpan(int handle, int start, int length) {
+        int chunk = handle >> CHUNK_BITS;
+        if (chunk == spans.length) {
+            spans = Arrays.copyOf(spans, chunk << 1);
+            spanEpochs = Arrays.copyOf(spanEpochs, chunk << 1);
+        }
+        long current = epoch.get();
+        if (spans[chunk] == null) {
+            spans[chunk] = new long[CHUNK_SIZE];
+            spanEpochs[chunk] = current;
+        } else if (spanEpochs[chunk] != current) {
+            spans[chunk] = spans[chunk].clone();
+            spanEpochs[chunk] = current;
+        }
+        spans[chunk][handle & CHUNK_MASK] = (long) start << 32 | length;
+    }
+
+    /**
+     * Sama dengan get(handle).toLowerCase().contains(term) untuk term huruf kecil.
+     * Teks ASCII dicek langsung di byte array tanpa membuat String.
+     */
+    boolean containsIgnoreCase(int handle, String term) {
+        long span = spanOf(handle);
+        int start = start(span);
+        int end = start + length(span);
+        int last = end - term.length();
+        for (int i = start; i <= last; i++) {
+            int j = 0;
+            while (j < term.length()) {
+                byte b = bytes[i + j];
+                if (b < 0) {
+                    return ExpenseManager.containsIgnoreCase(get(handle), term);
+                }
+                if (Character.toLowerCase((char) b) != term.charAt(j)) {
+                    break;
+                }
+                j++;
+            }
+            if (j == term.length()) {
+                return true;
+            }
+        }
+        for (int i = Math.max(start, last + 1); i < end; i++) {
+            if (bytes[i] < 0) {
+                return ExpenseManager.containsIgnoreCase(get(handle), term);
+            }
+        }
+        return false;
+    }
+
+    private boolean equalsAt(int handle, byte[] encoded) {
+        long span = spanOf(handle);
+        if (length(span) != encoded.length) {
+            return false;
+        }
+        int start = start(span);
+        for (int i = 0; i < encoded.length; i++) {
+            if (bytes[start + i] != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int newHandle() {
+        if (freeCount > 0) {
+            return freeHandles[--freeCount];
+        }
+        if (count == hashes.length) {
+            int capacity = count << 1;
+            hashes = Arrays.copyOf(hashes, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+        }
+        return count++;
+    }
+
+    /**
+     * Pastikan ada ruang untuk extra byte: padatkan dulu jika lebih dari
+     * separuh isi array sudah tidak dipakai, baru perbesar array
+     */
+    private void ensureBytes(int extra) {
+        if (used + extra <= bytes.length) {
+            return;
+        }
+        if (used - liveBytes > used / 2) {
+            compact(Math.max(bytes.length, (int) (liveBytes + extra) * 2));
+        } else {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, used + extra));
+        }
+    }
+
+    private void compact(int capacity) {
+        byte[] compacted = new byte[capacity];
+        int position = 0;
+        for (int handle = 0; handle < count; handle++) {
+            if (refs[handle] > 0) {
+                long span = spanOf(handle);
+                System.arraycopy(bytes, start(span), compacted, position, length(span));
+                setSpan(handle, position, length(span));
+                position += length(span);
+            }
+        }
+        bytes = compacted;
+        used = position;
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind untuk journal dengan group commit
+ * Mutasi hanya memasukkan record ke antrean (biaya setara update memori);
+ * thread writer mengumpulkan record selama flush interval lalu menulis
+ * semuanya dengan satu flush/fsync. Setiap record mendapat future yang
+ * selesai ketika record tersebut sudah tertulis.
+ * Jika penulisan gagal (disk penuh, I/O error), batch yang sama ditulis ulang
+ * dengan jeda yang makin panjang sampai berhasil: mutasi sudah diterapkan di
+ * memori, jadi record tidak boleh dibuang. Replay journal idempotent, sehingga
+ * record yang sempat tertulis sebagian aman ditulis ulang.
+ */
+public class WriteBehindWriter implements Closeable {
+    private static final int MAX_BATCH = 4096;
+    private static final long IDLE_POLL_MS = 100;
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+    private static final int CLOSE_RETRIES = 3;
+
+    private static class Pending {
+        final List<String> records;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(List<String> records) {
+            this.records = records;
+        }
+    }
+
+    private final ExpenseJournal journal;
+    private final long flushIntervalMs;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+    private volatile IOException failure;
+
+    public WriteBehindWriter(ExpenseJournal journal, long flushIntervalMs) {
+        this.journal = journal;
+        this.flushIntervalMs = flushIntervalMs;
+        this.thread = new Thread(this::run, "journal-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Masukkan record ke antrean
+     *
+     * @return future yang selesai saat record sudah tertulis ke journal
+     */
+    public CompletableFuture<Void> submit(String record) {
+        return submit(Collections.singletonList(record));
+    }
+
+    /**
+     * Masukkan beberapa record sebagai satu entri antrean: selalu ditulis
+     * bersama dalam satu group commit
+     *
+     * @return future yang selesai saat semua record sudah tertulis ke journal
+     */
+    public synchronized CompletableFuture<Void> submit(List<String> records) {
+        if (!running) {
+            throw new IllegalStateException("Journal writer sudah ditutup");
+        }
+        Pending pending = new Pending(records);
+        queue.add(pending);
+        lastWrite = pending.done;
+        return pending.done;
+    }
+
+    /**
+     * Future untuk semua record yang sudah di-submit sejauh ini
+     * (record ditulis berurutan, jadi cukup menunggu record terakhir)
+     */
+    public CompletableFuture<Void> whenDurable() {
+        return lastWrite;
+    }
+
+    /**
+     * Error penulisan yang sedang dicoba ulang, null jika journal sehat
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        List<String> records = new ArrayList<>();
+        long retryDelayMs = IDLE_POLL_MS;
+        int closeRetries = 0;
+
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (!batch.isEmpty()) {
+                    // Batch sebelumnya gagal: tunggu lalu tulis ulang sebelum record baru
+                    if (running) {
+                        Thread.sleep(retryDelayMs);
+                    }
+                } else {
+                    Pending first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    collectBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                // close() akan menghentikan loop setelah antrean kosong
+            }
+
+            if (batch.isEmpty()) {
+                continue;
+            }
+            if (commit(batch, records)) {
+                retryDelayMs = IDLE_POLL_MS;
+                closeRetries = 0;
+            } else if (!running && ++closeRetries >= CLOSE_RETRIES) {
+                // Writer ditutup dan disk tetap gagal: laporkan ke pemanggil whenDurable()
+                for (Pending pending : batch) {
+                    pending.done.completeExceptionally(failure);
+                }
+                System.err.println("Journal writer ditutup, " + records.size() + " record gagal ditulis");
+                batch.clear();
+                records.clear();
+            } else {
+                retryDelayMs = Math.min(MAX_RETRY_DELAY_MS, retryDelayMs * 2);
+            }
+        }
+    }
+
+    /**
+     * Kumpulkan record lain yang datang selama flush interval (group commit)
+     */
+    private void collectBatch(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < MAX_BATCH) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        queue.drainTo(batch, MAX_BATCH - batch.size());
+    }
+
+    /**
+     * @return true jika batch tertulis; jika gagal batch tetap disimpan untuk dicoba ulang
+     */
+    private boolean commit(List<Pending> batch, List<String> records) {
+        if (records.isEmpty()) {
+            for (Pending pending : batch) {
+                records.addAll(pending.records);
+            }
+        }
+
+        try {
+            journal.appendRecords(records);
+        } catch (IOException e) {
+            if (failure == null) {
+                System.err.println("Error writing journal (akan dicoba ulang): " + e.getMessage());
+            }
+            failure = e;
+            return false;
+        }
+
+        if (failure != null) {
+            System.err.println("Journal kembali tertulis setelah error: " + failure.getMessage());
+            failure = null;
+        }
+        for (Pending pending : batch) {
+            pending.done.complete(null);
+        }
+        batch.clear();
+        records.clear();
+        return true;
+    }
+
+    /**
+     * Tulis semua record yang tersisa lalu hentikan thread writer
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            running = false;
+        }
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
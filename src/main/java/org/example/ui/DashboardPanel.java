@@ -1,5 +1,6 @@
 package org.example.ui;
 
+import org.example.model.RupiahFormatter;
 import org.example.service.ExpenseManager;
 import javax.swing.*;
 import java.awt.*;
@@ -186,6 +187,6 @@ public class DashboardPanel extends JPanel {
      * Format angka ke format Rupiah Indonesia
      */
     private String formatRupiah(double amount) {
-        return String.format("Rp %,.0f", amount).replace(",", ".");
+        return RupiahFormatter.format(amount);
     }
 }
\ No newline at end of file
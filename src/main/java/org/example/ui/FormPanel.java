@@ -1,6 +1,7 @@
 package org.example.ui;
 
 import org.example.model.Expense;
+import org.example.model.Money;
 import org.example.service.ExpenseManager;
 import javax.swing.*;
 import java.awt.*;
@@ -37,12 +38,7 @@ public class FormPanel extends JPanel {
     private static final Color TEXT = new Color(255, 243, 236);
     private static final Color ACCENT = new Color(231, 143, 179);
 
-    private static final String[] CATEGORIES = {
-            "-- Pilih Kategori --",
-            "Makanan & Minuman", "Transport & Bensin",
-            "Pendidikan & Buku", "Hiburan & Hobi", "Kesehatan",
-            "Fashion & Pakaian", "Teknologi & Gadget", "Kebutuhan Rumah", "Lainnya"
-    };
+    private static final String CATEGORY_PLACEHOLDER = "-- Pilih Kategori --";
 
     public FormPanel(MainFrame mainFrame, ExpenseManager manager) {
         this.mainFrame = mainFrame;
@@ -106,7 +102,10 @@ public class FormPanel extends JPanel {
         panel.add(createLabel("🏷Kategori *"), gbc);
 
         gbc.gridy = 3;
-        categoryCombo = new JComboBox<>(CATEGORIES);
+        // Daftar kategori dari registry; combo editable supaya kategori baru bisa diketik langsung
+        categoryCombo = new JComboBox<>();
+        categoryCombo.setEditable(true);
+        reloadCategories();
         categoryCombo.setFont(new Font("Poppins", Font.PLAIN, 14));
         categoryCombo.setBackground(new Color(255, 243, 236, 25));
         categoryCombo.setForeground(new Color(39, 28, 25)); // Text hitam
@@ -263,9 +262,22 @@ public class FormPanel extends JPanel {
         editingId = -1;
         titleLabel.setText("➕ Tambah Pengeluaran Baru");
         saveBtn.setText("💾 Simpan Data");
+        reloadCategories();
         clearForm();
     }
 
+    /**
+     * Isi ulang pilihan kategori (termasuk kategori buatan pengguna yang baru ditambahkan)
+     */
+    private void reloadCategories() {
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        model.addElement(CATEGORY_PLACEHOLDER);
+        for (String category : manager.getCategories()) {
+            model.addElement(category);
+        }
+        categoryCombo.setModel(model);
+    }
+
     /**
      * Set form to EDIT mode
      */
@@ -274,6 +286,7 @@ public class FormPanel extends JPanel {
         editingId = expenseId;
         titleLabel.setText("✏️ Edit Pengeluaran");
         saveBtn.setText("💾 Update Data");
+        reloadCategories();
 
         // Load data
         Expense expense = manager.getExpenseById(expenseId);
@@ -283,7 +296,7 @@ public class FormPanel extends JPanel {
 
             categoryCombo.setSelectedItem(expense.getCategory());
 
-            amountField.setText(String.valueOf((int)expense.getAmount()));
+            amountField.setText(Money.toPlainString(expense.getAmountSen()));
             amountField.setForeground(TEXT);
 
             dateField.setText(expense.getFormattedDate());
@@ -302,7 +315,8 @@ public class FormPanel extends JPanel {
         try {
             // Get values
             String desc = descField.getText().trim();
-            String category = (String) categoryCombo.getSelectedItem();
+            Object selected = categoryCombo.getSelectedItem();
+            String category = selected == null ? null : selected.toString().trim();
             String amountText = amountField.getText().trim();
             String dateText = dateField.getText().trim();
             String notes = notesField.getText().trim();
@@ -312,10 +326,18 @@ public class FormPanel extends JPanel {
                 throw new IllegalArgumentException("Deskripsi tidak boleh kosong!");
             }
 
-            if (category == null || category.equals("-- Pilih Kategori --")) {
+            if (category == null || category.isEmpty() || category.equals(CATEGORY_PLACEHOLDER)) {
                 throw new IllegalArgumentException("Silakan pilih kategori!");
             }
 
+            if (category.indexOf(',') >= 0) {
+                throw new IllegalArgumentException("Nama kategori tidak boleh mengandung koma!");
+            }
+
+            if (desc.indexOf(',') >= 0 || notesField.getText().indexOf(',') >= 0) {
+                throw new IllegalArgumentException("Deskripsi dan catatan tidak boleh mengandung koma!");
+            }
+
             if (amountText.isEmpty() || amountText.equals("Masukkan nominal tanpa titik. Contoh: 50000")) {
                 throw new IllegalArgumentException("Jumlah tidak boleh kosong!");
             }
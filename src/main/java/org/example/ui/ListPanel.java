@@ -2,10 +2,16 @@ package org.example.ui;
 
 import org.example.model.Expense;
 import org.example.service.ExpenseManager;
+import org.example.service.ImportMapping;
+import org.example.service.StatementImporter;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
+import java.io.File;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * List Panel - Halaman 2
@@ -19,7 +25,7 @@ public class ListPanel extends JPanel {
 
     private JTextField searchField;
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ExpenseTableModel tableModel;
     private JComboBox<String> categoryFilter;
 
     // Colors - ORIGINAL WARM TONES
@@ -28,11 +34,7 @@ public class ListPanel extends JPanel {
     private static final Color TEXT = new Color(255, 243, 236);
     private static final Color ACCENT = new Color(231, 143, 179);
 
-    private static final String[] CATEGORIES = {
-            "Semua", "Makanan & Minuman", "Transport & Bensin",
-            "Pendidikan & Buku", "Hiburan & Hobi", "Kesehatan",
-            "Fashion & Pakaian", "Teknologi & Gadget", "Kebutuhan Rumah", "Lainnya"
-    };
+    private static final String ALL_CATEGORIES = "Semua";
 
     public ListPanel(MainFrame mainFrame, ExpenseManager manager) {
         this.mainFrame = mainFrame;
@@ -93,7 +95,8 @@ public class ListPanel extends JPanel {
         filterLabel.setFont(new Font("Poppins", Font.PLAIN, 14));
 
         // FIXED ComboBox with proper dropdown colors
-        categoryFilter = new JComboBox<>(CATEGORIES);
+        categoryFilter = new JComboBox<>();
+        reloadCategories();
         categoryFilter.setFont(new Font("Poppins", Font.PLAIN, 13));
         categoryFilter.setForeground(new Color(39, 28, 25)); // Dark text
         categoryFilter.setPreferredSize(new Dimension(200, 40));
@@ -154,13 +157,7 @@ public class ListPanel extends JPanel {
         panel.setBackground(BG_COLOR);
 
         // Table model
-        String[] columns = {"ID", "Deskripsi", "Kategori", "Tanggal", "Jumlah", "Aksi"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 5; // Only action column
-            }
-        };
+        tableModel = new ExpenseTableModel();
 
         table = new JTable(tableModel);
         table.setFont(new Font("Poppins", Font.PLAIN, 13));
@@ -222,7 +219,11 @@ public class ListPanel extends JPanel {
         JButton backBtn = createButton("⬅Kembali ke Dashboard", new Color(149, 86, 161));
         backBtn.addActionListener(e -> mainFrame.showPanel(MainFrame.DASHBOARD));
 
+        JButton importBtn = createButton("📥 Import Mutasi", ACCENT);
+        importBtn.addActionListener(e -> importStatement());
+
         panel.add(backBtn);
+        panel.add(importBtn);
         return panel;
     }
 
@@ -242,23 +243,32 @@ public class ListPanel extends JPanel {
      * Refresh table data
      */
     public void refreshData() {
+        reloadCategories();
         loadTableData(manager.sortByDateDesc());
     }
 
-    private void loadTableData(List<Expense> expenses) {
-        tableModel.setRowCount(0);
-
-        for (Expense expense : expenses) {
-            Object[] row = {
-                    expense.getId(),
-                    expense.getDescription(),
-                    expense.getCategory(),
-                    expense.getFormattedDate(),
-                    expense.getFormattedAmount(),
-                    "action"
-            };
-            tableModel.addRow(row);
+    /**
+     * Isi filter kategori dari registry; hanya dibangun ulang jika ada kategori baru
+     */
+    private void reloadCategories() {
+        List<String> categories = manager.getCategories();
+        if (categoryFilter.getItemCount() == categories.size() + 1) {
+            return;
         }
+        Object selected = categoryFilter.getSelectedItem();
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        model.addElement(ALL_CATEGORIES);
+        for (String category : categories) {
+            model.addElement(category);
+        }
+        if (selected != null) {
+            model.setSelectedItem(selected);
+        }
+        categoryFilter.setModel(model);
+    }
+
+    private void loadTableData(List<Expense> expenses) {
+        tableModel.setExpenses(expenses);
     }
 
     private void performSearch() {
@@ -283,6 +293,169 @@ public class ListPanel extends JPanel {
         loadTableData(sorted);
     }
 
+    /**
+     * Import file mutasi bank / e-wallet (CSV) di background thread (SwingWorker)
+     * Nomor kolom dihitung dari 1 di form, kolom kategori boleh dikosongkan.
+     */
+    private void importStatement() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+
+        JTextField dateField = new JTextField("1", 4);
+        JTextField descriptionField = new JTextField("2", 4);
+        JTextField amountField = new JTextField("3", 4);
+        JTextField categoryField = new JTextField("", 4);
+        JTextField patternField = new JTextField("dd/MM/yyyy", 10);
+        JTextField delimiterField = new JTextField(",", 4);
+        JTextField headerField = new JTextField("1", 4);
+        JCheckBox decimalComma = new JCheckBox("Desimal koma (1.250.000,00)");
+        JCheckBox debitsNegative = new JCheckBox("Pengeluaran bertanda minus");
+
+        JPanel mappingPanel = new JPanel(new GridLayout(9, 2, 5, 5));
+        mappingPanel.add(new JLabel("Kolom tanggal:"));
+        mappingPanel.add(dateField);
+        mappingPanel.add(new JLabel("Kolom deskripsi:"));
+        mappingPanel.add(descriptionField);
+        mappingPanel.add(new JLabel("Kolom jumlah:"));
+        mappingPanel.add(amountField);
+        mappingPanel.add(new JLabel("Kolom kategori (opsional):"));
+        mappingPanel.add(categoryField);
+        mappingPanel.add(new JLabel("Format tanggal:"));
+        mappingPanel.add(patternField);
+        mappingPanel.add(new JLabel("Pemisah kolom:"));
+        mappingPanel.add(delimiterField);
+        mappingPanel.add(new JLabel("Baris judul:"));
+        mappingPanel.add(headerField);
+        mappingPanel.add(decimalComma);
+        mappingPanel.add(debitsNegative);
+
+        int choice = JOptionPane.showConfirmDialog(this, mappingPanel, "Kolom " + file.getName(),
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        ImportMapping mapping;
+        try {
+            mapping = ImportMapping.columns(Integer.parseInt(dateField.getText().trim()) - 1,
+                    Integer.parseInt(amountField.getText().trim()) - 1,
+                    Integer.parseInt(descriptionField.getText().trim()) - 1);
+            String category = categoryField.getText().trim();
+            mapping.setCategoryColumn(category.isEmpty() ? -1 : Integer.parseInt(category) - 1);
+            mapping.setDatePattern(patternField.getText().trim());
+            String delimiter = delimiterField.getText();
+            mapping.setDelimiter(delimiter.isEmpty() ? ',' : delimiter.charAt(0));
+            mapping.setHeaderLines(Integer.parseInt(headerField.getText().trim()));
+            mapping.setDecimalSeparator(decimalComma.isSelected() ? ',' : '.');
+            mapping.setDebitsNegative(debitsNegative.isSelected());
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Pengaturan kolom tidak valid: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Mengimport mutasi...", file.getName(), 0, 100);
+        monitor.setMillisToPopup(300);
+
+        SwingWorker<StatementImporter.ImportResult, Integer> worker = new SwingWorker<StatementImporter.ImportResult, Integer>() {
+            @Override
+            protected StatementImporter.ImportResult doInBackground() throws Exception {
+                return StatementImporter.importFile(manager, file, mapping,
+                        Runtime.getRuntime().availableProcessors(), monitor::isCanceled,
+                        (parsed, total, imported) -> setProgress(total == 0 ? 100 : (int) Math.min(99, parsed * 100 / total)));
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                try {
+                    StatementImporter.ImportResult result = get();
+                    JOptionPane.showMessageDialog(ListPanel.this, "Import selesai: " + result.getImported()
+                            + " transaksi baru, " + result.getDuplicates() + " duplikat, "
+                            + result.getCredits() + " kredit dilewati, " + result.getRejected() + " baris gagal dibaca");
+                } catch (CancellationException e) {
+                    JOptionPane.showMessageDialog(ListPanel.this, "Import dibatalkan");
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof CancellationException) {
+                        JOptionPane.showMessageDialog(ListPanel.this, "Import dibatalkan");
+                    } else {
+                        System.err.println("Error importing statement: " + e.getCause().getMessage());
+                        JOptionPane.showMessageDialog(ListPanel.this,
+                                "Gagal mengimport mutasi!", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                refreshData();
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                monitor.setProgress((Integer) e.getNewValue());
+            }
+        });
+        worker.execute();
+    }
+
+    /**
+     * Table model langsung di atas list hasil query (biasanya ExpenseSnapshot),
+     * jadi baris hanya dibuat saat JTable merendernya, tanpa menyalin ke Vector
+     */
+    static class ExpenseTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"ID", "Deskripsi", "Kategori", "Tanggal", "Jumlah", "Aksi"};
+
+        private List<Expense> expenses = Collections.emptyList();
+        // Satu sel per kolom dibaca berurutan untuk baris yang sama
+        private int cachedRow = -1;
+        private Expense cached;
+
+        void setExpenses(List<Expense> expenses) {
+            this.expenses = expenses;
+            cachedRow = -1;
+            cached = null;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return expenses.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return column == 5; // Only action column
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (row != cachedRow) {
+                cached = expenses.get(row);
+                cachedRow = row;
+            }
+            switch (column) {
+                case 0: return cached.getId();
+                case 1: return cached.getDescription();
+                case 2: return cached.getCategory();
+                case 3: return cached.getFormattedDate();
+                case 4: return cached.getFormattedAmount();
+                default: return "action";
+            }
+        }
+    }
+
     // Button Renderer for action column
     class ButtonRenderer extends JPanel implements TableCellRenderer {
         public ButtonRenderer() {
@@ -33,6 +33,14 @@ public class MainFrame extends JFrame {
     private void initComponents() {
         setTitle("💸 Aplikasi Pencatatan Pengeluaran");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        // Pastikan journal yang masih di antrean tertulis sebelum aplikasi keluar
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                manager.close();
+            }
+        });
         setSize(1400, 900);
         setLocationRelativeTo(null);
 
@@ -1,13 +1,20 @@
 package org.example.ui;
 
-import org.example.model.Expense;
+import org.example.model.RupiahFormatter;
 import org.example.service.ExpenseManager;
-import org.example.service.FileHandler;
+import org.example.service.ExpenseSource;
+import org.example.service.ReportExporter;
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Report Panel - Halaman 4
@@ -24,7 +31,9 @@ public class ReportPanel extends JPanel {
     private JLabel avgLabel;
     private JPanel categoryPanel;
 
-    private String currentPeriod = "MONTH"; // DAILY, WEEKLY, MONTH
+    private String currentPeriod = "MONTH"; // DAILY, WEEKLY, MONTH, CUSTOM
+    private LocalDate customStart = LocalDate.now().withDayOfMonth(1);
+    private LocalDate customEnd = LocalDate.now();
 
     // Colors
     private static final Color BG_COLOR = new Color(85, 66, 61);
@@ -82,31 +91,41 @@ public class ReportPanel extends JPanel {
         JButton dailyBtn = createTabButton("📅 Harian", "DAILY");
         JButton weeklyBtn = createTabButton("📊 Mingguan", "WEEKLY");
         JButton monthlyBtn = createTabButton("📈 Bulanan", "MONTH");
+        JButton customBtn = createTabButton("🗓 Rentang", "CUSTOM");
 
         // Set active
         monthlyBtn.setBackground(ACCENT);
 
         dailyBtn.addActionListener(e -> {
             currentPeriod = "DAILY";
-            setActiveTab(dailyBtn, weeklyBtn, monthlyBtn);
+            setActiveTab(dailyBtn, weeklyBtn, monthlyBtn, customBtn);
             refreshData();
         });
 
         weeklyBtn.addActionListener(e -> {
             currentPeriod = "WEEKLY";
-            setActiveTab(weeklyBtn, dailyBtn, monthlyBtn);
+            setActiveTab(weeklyBtn, dailyBtn, monthlyBtn, customBtn);
             refreshData();
         });
 
         monthlyBtn.addActionListener(e -> {
             currentPeriod = "MONTH";
-            setActiveTab(monthlyBtn, dailyBtn, weeklyBtn);
+            setActiveTab(monthlyBtn, dailyBtn, weeklyBtn, customBtn);
             refreshData();
         });
 
+        customBtn.addActionListener(e -> {
+            if (chooseCustomRange()) {
+                currentPeriod = "CUSTOM";
+                setActiveTab(customBtn, dailyBtn, weeklyBtn, monthlyBtn);
+                refreshData();
+            }
+        });
+
         tabPanel.add(dailyBtn);
         tabPanel.add(weeklyBtn);
         tabPanel.add(monthlyBtn);
+        tabPanel.add(customBtn);
 
         JPanel topPanel = new JPanel(new BorderLayout(10, 10));
         topPanel.setBackground(BG_COLOR);
@@ -117,6 +136,43 @@ public class ReportPanel extends JPanel {
         return panel;
     }
 
+    /**
+     * Dialog rentang tanggal bebas untuk tab "Rentang"
+     */
+    private boolean chooseCustomRange() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        JTextField fromField = new JTextField(customStart.format(formatter), 10);
+        JTextField toField = new JTextField(customEnd.format(formatter), 10);
+
+        JPanel rangePanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        rangePanel.add(new JLabel("Dari (DD/MM/YYYY):"));
+        rangePanel.add(fromField);
+        rangePanel.add(new JLabel("Sampai (DD/MM/YYYY):"));
+        rangePanel.add(toField);
+
+        int choice = JOptionPane.showConfirmDialog(this, rangePanel, "Rentang Laporan",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return false;
+        }
+        try {
+            LocalDate start = LocalDate.parse(fromField.getText().trim(), formatter);
+            LocalDate end = LocalDate.parse(toField.getText().trim(), formatter);
+            if (start.isAfter(end)) {
+                JOptionPane.showMessageDialog(this,
+                        "Tanggal awal harus sebelum tanggal akhir!", "Error", JOptionPane.ERROR_MESSAGE);
+                return false;
+            }
+            customStart = start;
+            customEnd = end;
+            return true;
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Format tanggal salah! Gunakan DD/MM/YYYY", "Error", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+    }
+
     private JButton createTabButton(String text, String period) {
         JButton btn = new JButton(text);
         btn.setFont(new Font("Poppins", Font.BOLD, 14));
@@ -239,7 +295,7 @@ public class ReportPanel extends JPanel {
         nameLabel.setFont(new Font("Poppins", Font.BOLD, 15));
         nameLabel.setForeground(TEXT);
 
-        JLabel amountLabel = new JLabel(String.format("Rp %,.0f (%.0f%%)", amount, percentage));
+        JLabel amountLabel = new JLabel(formatRupiah(amount) + " (" + Math.round(percentage) + "%)");
         amountLabel.setFont(new Font("Poppins", Font.BOLD, 15));
         amountLabel.setForeground(ACCENT);
 
@@ -262,17 +318,7 @@ public class ReportPanel extends JPanel {
     }
 
     private String getCategoryIcon(String category) {
-        Map<String, String> icons = new HashMap<>();
-        icons.put("Makanan & Minuman", "🍔");
-        icons.put("Transport & Bensin", "🚗");
-        icons.put("Pendidikan & Buku", "📚");
-        icons.put("Hiburan & Hobi", "🎮");
-        icons.put("Kesehatan", "💊");
-        icons.put("Fashion & Pakaian", "👕");
-        icons.put("Teknologi & Gadget", "📱");
-        icons.put("Kebutuhan Rumah", "🏠");
-        icons.put("Lainnya", "💡");
-        return icons.getOrDefault(category, "📦");
+        return manager.getCategoryIcon(category);
     }
 
     private JPanel createBottomPanel() {
@@ -281,14 +327,17 @@ public class ReportPanel extends JPanel {
 
         JButton txtBtn = createButton("📄 Export ke TXT", PRIMARY);
         JButton csvBtn = createButton("📊 Export ke CSV", TERTIARY);
+        JButton jsonBtn = createButton("🧾 Export ke JSONL", ACCENT);
         JButton backBtn = createButton("⬅Kembali", new Color(149, 86, 161));
 
-        txtBtn.addActionListener(e -> exportToTXT());
-        csvBtn.addActionListener(e -> exportToCSV());
+        txtBtn.addActionListener(e -> export(ReportExporter.Format.TXT));
+        csvBtn.addActionListener(e -> export(ReportExporter.Format.CSV));
+        jsonBtn.addActionListener(e -> export(ReportExporter.Format.JSONL));
         backBtn.addActionListener(e -> mainFrame.showPanel(MainFrame.DASHBOARD));
 
         panel.add(txtBtn);
         panel.add(csvBtn);
+        panel.add(jsonBtn);
         panel.add(backBtn);
 
         return panel;
@@ -310,18 +359,13 @@ public class ReportPanel extends JPanel {
      * Refresh report data based on current period
      */
     public void refreshData() {
-        List<Expense> expenses = getExpensesByPeriod();
+        LocalDate start = getPeriodStart();
+        LocalDate end = getPeriodEnd();
 
-        // Calculate stats
-        double total = expenses.stream().mapToDouble(Expense::getAmount).sum();
-        int transactionCount = expenses.size();
-
-        Map<String, Double> categoryTotals = new HashMap<>();
-        for (Expense expense : expenses) {
-            String category = expense.getCategory();
-            categoryTotals.put(category,
-                    categoryTotals.getOrDefault(category, 0.0) + expense.getAmount());
-        }
+        // Calculate stats (total rentang dan per kategori dari index di ExpenseManager)
+        Map<String, Double> categoryTotals = manager.getTotalByCategory(start, end);
+        double total = manager.getTotal(start, end);
+        int transactionCount = manager.getTransactionCount(start, end);
 
         String topCategory = categoryTotals.isEmpty() ? "N/A" :
                 categoryTotals.entrySet().stream()
@@ -347,91 +391,122 @@ public class ReportPanel extends JPanel {
      * Format angka ke format Rupiah Indonesia
      */
     private String formatRupiah(double amount) {
-        return String.format("Rp %,.0f", amount).replace(",", ".");
+        return RupiahFormatter.format(amount);
     }
 
-    private List<Expense> getExpensesByPeriod() {
+    private LocalDate getPeriodStart() {
         LocalDate today = LocalDate.now();
-        LocalDate start;
-
         switch (currentPeriod) {
-            case "DAILY":
-                return manager.filterByDateRange(today, today);
-            case "WEEKLY":
-                start = today.minusDays(6);
-                return manager.filterByDateRange(start, today);
+            case "DAILY": return today;
+            case "WEEKLY": return today.minusDays(6);
+            case "CUSTOM": return customStart;
             case "MONTH":
-            default:
-                start = today.withDayOfMonth(1);
-                return manager.filterByDateRange(start, today);
+            default: return today.withDayOfMonth(1);
         }
     }
 
+    private LocalDate getPeriodEnd() {
+        return currentPeriod.equals("CUSTOM") ? customEnd : LocalDate.now();
+    }
+
     private int getDaysInPeriod() {
         switch (currentPeriod) {
             case "DAILY": return 1;
             case "WEEKLY": return 7;
             case "MONTH": return LocalDate.now().lengthOfMonth();
+            case "CUSTOM": return (int) ChronoUnit.DAYS.between(customStart, customEnd) + 1;
             default: return 1;
         }
     }
 
-    private void exportToTXT() {
-        StringBuilder content = new StringBuilder();
-        content.append(repeatChar('=', 60)).append("\n");
-        content.append("       LAPORAN PENGELUARAN - ").append(getPeriodName()).append("\n");
-        content.append(repeatChar('=', 60)).append("\n\n");
-
-        List<Expense> expenses = getExpensesByPeriod();
-        double total = expenses.stream().mapToDouble(Expense::getAmount).sum();
-
-        content.append("Total Pengeluaran: ").append(String.format("Rp %,.0f", total)).append("\n");
-        content.append("Jumlah Transaksi: ").append(expenses.size()).append("\n\n");
-
-        content.append("Detail Transaksi:\n");
-        content.append(repeatChar('-', 60)).append("\n");
+    /**
+     * Export laporan secara streaming di background thread (SwingWorker)
+     * Rentang bisa periode aktif, tanggal bebas, atau seluruh histori.
+     */
+    private void export(ReportExporter.Format format) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        JTextField fromField = new JTextField(getPeriodStart().format(formatter), 10);
+        JTextField toField = new JTextField(getPeriodEnd().format(formatter), 10);
+        JCheckBox allHistory = new JCheckBox("Semua histori");
+        allHistory.addActionListener(e -> {
+            fromField.setEnabled(!allHistory.isSelected());
+            toField.setEnabled(!allHistory.isSelected());
+        });
 
-        for (Expense expense : expenses) {
-            content.append(expense.getFormattedDate()).append(" | ");
-            content.append(expense.getCategory()).append(" | ");
-            content.append(expense.getDescription()).append(" | ");
-            content.append(expense.getFormattedAmount()).append("\n");
+        JPanel rangePanel = new JPanel(new GridLayout(3, 2, 5, 5));
+        rangePanel.add(new JLabel("Dari (DD/MM/YYYY):"));
+        rangePanel.add(fromField);
+        rangePanel.add(new JLabel("Sampai (DD/MM/YYYY):"));
+        rangePanel.add(toField);
+        rangePanel.add(allHistory);
+
+        int choice = JOptionPane.showConfirmDialog(this, rangePanel, "Rentang Export",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
         }
 
-        String filename = "laporan_" + currentPeriod.toLowerCase() + "_" +
-                LocalDate.now().toString() + ".txt";
-
-        if (FileHandler.exportToTXT(content.toString(), filename)) {
-            JOptionPane.showMessageDialog(this,
-                    "Laporan berhasil diekspor ke: " + filename);
+        LocalDate start;
+        LocalDate end;
+        String title;
+        String suffix;
+        if (allHistory.isSelected()) {
+            start = LocalDate.MIN;
+            end = LocalDate.MAX;
+            title = "SEMUA HISTORI";
+            suffix = "semua";
         } else {
-            JOptionPane.showMessageDialog(this,
-                    "Gagal mengekspor laporan!", "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private void exportToCSV() {
-        JOptionPane.showMessageDialog(this,
-                "Data CSV sudah tersimpan di: data/expenses.csv");
-    }
-
-    private String getPeriodName() {
-        switch (currentPeriod) {
-            case "DAILY": return "HARIAN";
-            case "WEEKLY": return "MINGGUAN";
-            case "MONTH": return "BULANAN";
-            default: return "UNKNOWN";
+            try {
+                start = LocalDate.parse(fromField.getText().trim(), formatter);
+                end = LocalDate.parse(toField.getText().trim(), formatter);
+            } catch (DateTimeParseException e) {
+                JOptionPane.showMessageDialog(this,
+                        "Format tanggal salah! Gunakan DD/MM/YYYY", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            title = start.format(formatter) + " - " + end.format(formatter);
+            suffix = start + "_" + end;
         }
-    }
 
-    /**
-     * Helper method untuk repeat character (Java 8 compatible)
-     */
-    private String repeatChar(char ch, int count) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < count; i++) {
-            sb.append(ch);
-        }
-        return sb.toString();
+        File file = new File("laporan_" + suffix + "_" + LocalDate.now() + "." + format.getExtension());
+        ExpenseSource source = manager.openRange(start, end);
+        ProgressMonitor monitor = new ProgressMonitor(this, "Mengekspor laporan...", file.getName(), 0, 100);
+        monitor.setMillisToPopup(300);
+
+        SwingWorker<Long, Integer> worker = new SwingWorker<Long, Integer>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return ReportExporter.export(source, format, title, file, monitor::isCanceled,
+                        (written, total) -> setProgress(total == 0 ? 100 : (int) Math.min(99, written * 100 / total)));
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                try {
+                    long rows = get();
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            "Laporan berhasil diekspor ke: " + file.getName() + " (" + rows + " transaksi)");
+                } catch (CancellationException e) {
+                    JOptionPane.showMessageDialog(ReportPanel.this, "Export dibatalkan");
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof CancellationException) {
+                        JOptionPane.showMessageDialog(ReportPanel.this, "Export dibatalkan");
+                    } else {
+                        System.err.println("Error exporting report: " + e.getCause().getMessage());
+                        JOptionPane.showMessageDialog(ReportPanel.this,
+                                "Gagal mengekspor laporan!", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                monitor.setProgress((Integer) e.getNewValue());
+            }
+        });
+        worker.execute();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package org.example.index;
+
+import java.util.Random;
+
+/**
+ * Benchmark AmountIndex dengan amount yang hampir semuanya unik (kardinalitas tinggi):
+ * add per baris, build() sekaligus, top-K, dan hapus per baris.
+ * Jalankan manual (bukan bagian dari mvn test):
+ *   java -cp target/classes:target/test-classes org.example.index.AmountIndexBenchmark [rows]
+ */
+public class AmountIndexBenchmark {
+    private static final int TOP = 100;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(1);
+        int[] ids = new int[rows];
+        long[] amounts = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = i + 1;
+            // Rp1 - Rp10 juta dalam sen: praktis satu amount per baris
+            amounts[i] = 100 + (long) (random.nextDouble() * 1_000_000_000L);
+        }
+
+        // Ronde pertama pemanasan JIT; angka ronde terakhir yang representatif
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("-- ronde %d --%n", round);
+            long start = System.nanoTime();
+            AmountIndex incremental = new AmountIndex();
+            for (int i = 0; i < rows; i++) {
+                incremental.add(ids[i], amounts[i]);
+            }
+            long addNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            AmountIndex built = AmountIndex.build(ids, amounts, rows);
+            long buildNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long checksum = 0;
+            for (int query = 0; query < 1_000; query++) {
+                int[] seen = {0};
+                long[] sum = {0};
+                built.forEachDescending(id -> {
+                    sum[0] += id;
+                    return ++seen[0] < TOP;
+                });
+                checksum += sum[0];
+            }
+            long topNs = (System.nanoTime() - start) / 1_000;
+
+            start = System.nanoTime();
+            for (int i = rows - 1; i >= 0; i -= 2) {
+                built.remove(ids[i], amounts[i]);
+            }
+            long removeNs = System.nanoTime() - start;
+            int removed = (rows + 1) / 2;
+
+            System.out.printf("%,d baris, %,d baris tersisa (checksum %d)%n", rows, built.size(), checksum);
+            System.out.printf("add per baris : %,10.1f ms%n", addNs / 1e6);
+            System.out.printf("build()       : %,10.1f ms%n", buildNs / 1e6);
+            System.out.printf("top-%d       : %,10.2f us%n", TOP, topNs / 1000.0);
+            System.out.printf("remove        : %,10.2f us/op (%,d baris)%n", removeNs / 1000.0 / removed, removed);
+            if (incremental.size() != rows) {
+                throw new IllegalStateException("Ukuran index tidak cocok");
+            }
+        }
+    }
+}
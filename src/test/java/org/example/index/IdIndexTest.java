@@ -0,0 +1,43 @@
+package org.example.index;
+
+import junit.framework.TestCase;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test IdIndex terhadap HashMap untuk put/remove acak (termasuk rehash dan backward-shift)
+ */
+public class IdIndexTest extends TestCase {
+
+    public void testMatchesHashMapUnderRandomOperations() {
+        IdIndex index = new IdIndex();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                Integer old = expected.remove(key);
+                assertEquals(old == null ? -1 : old.intValue(), index.remove(key));
+            } else {
+                int value = random.nextInt(1_000_000);
+                expected.put(key, value);
+                index.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (int key = -100; key < 4_900; key++) {
+            Integer value = expected.get(key);
+            assertEquals(value == null ? -1 : value.intValue(), index.get(key));
+        }
+
+        IdIndex copy = index.copy();
+        for (int key : expected.keySet()) {
+            index.remove(key);
+        }
+        assertEquals(0, index.size());
+        assertEquals(expected.size(), copy.size());
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.model;
+
+import junit.framework.TestCase;
+
+/**
+ * Test representasi uang fixed-point (sen) dan format Rupiah.
+ */
+public class MoneyTest extends TestCase {
+
+    public void testParseToSen() {
+        assertEquals(2_500_000L, Money.parse("25000"));
+        assertEquals(2_500_000L, Money.parse("25000.0"));
+        assertEquals(5_000_050L, Money.parse("50000.5"));
+        assertEquals(1_500_000_000L, Money.parse("1.5E7"));
+        assertEquals(13L, Money.parse("0.125"));
+        assertEquals(-1_050L, Money.parse("-10.5"));
+        try {
+            Money.parse("abc");
+            fail("Seharusnya NumberFormatException");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
+    public void testPlainStringRoundTrip() {
+        for (long sen : new long[]{0, 5, 50, 2_500_000, 5_000_050, 5_000_025, -1_050}) {
+            assertEquals(sen, Money.parse(Money.toPlainString(sen)));
+        }
+        assertEquals("25000", Money.toPlainString(2_500_000));
+        assertEquals("50000.5", Money.toPlainString(5_000_050));
+        assertEquals("0.05", Money.toPlainString(5));
+    }
+
+    public void testSumIsExact() {
+        long total = 0;
+        double doubleTotal = 0;
+        for (int i = 0; i < 10; i++) {
+            total += Money.toSen(0.1);
+            doubleTotal += 0.1;
+        }
+        assertEquals(100L, total);
+        assertTrue(doubleTotal != 1.0);
+    }
+
+    public void testRupiahFormatter() {
+        assertEquals("Rp 0", RupiahFormatter.format(0L));
+        assertEquals("Rp 999", RupiahFormatter.format(99_900L));
+        assertEquals("Rp 1.000", RupiahFormatter.format(100_000L));
+        assertEquals("Rp 1.250.000", RupiahFormatter.format(125_000_000L));
+        assertEquals("Rp 2", RupiahFormatter.format(150L));
+        assertEquals("Rp -25.000", RupiahFormatter.format(-2_500_000L));
+        assertEquals("Rp 92.233.720.368.547.758", RupiahFormatter.format(Long.MAX_VALUE));
+        assertEquals(String.format("Rp %,.0f", 1234567.0).replace(",", "."), RupiahFormatter.format(1234567.0));
+
+        char[] buffer = new char[40];
+        int length = RupiahFormatter.formatTo(123_456_700L, buffer, 5);
+        assertEquals("Rp 1.234.567", new String(buffer, 5, length));
+    }
+}
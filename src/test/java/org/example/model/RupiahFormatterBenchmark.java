@@ -0,0 +1,43 @@
+package org.example.model;
+
+/**
+ * Benchmark format Rupiah: String.format + replace (cara lama) vs RupiahFormatter
+ * Jalankan manual (bukan bagian dari mvn test):
+ *   java -cp target/classes:target/test-classes org.example.model.RupiahFormatterBenchmark [count]
+ */
+public class RupiahFormatterBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = (1 + i % 500) * 100_000L;
+        }
+
+        char[] buffer = new char[RupiahFormatter.MAX_LENGTH];
+        for (int round = 1; round <= ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            long chars = 0;
+            for (long sen : amounts) {
+                chars += String.format("Rp %,.0f", Money.toRupiah(sen)).replace(",", ".").length();
+            }
+            long formatNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            for (long sen : amounts) {
+                chars -= RupiahFormatter.format(sen).length();
+            }
+            long stringNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            for (long sen : amounts) {
+                chars += RupiahFormatter.formatTo(sen, buffer, 0);
+            }
+            long bufferNs = System.nanoTime() - t0;
+
+            System.out.printf("Round %d: String.format %,d ms | format %,d ms | formatTo %,d ms (%d)%n",
+                    round, formatNs / 1_000_000, stringNs / 1_000_000, bufferNs / 1_000_000, chars);
+        }
+    }
+}
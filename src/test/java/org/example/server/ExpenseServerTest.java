@@ -0,0 +1,158 @@
+package org.example.server;
+
+import junit.framework.TestCase;
+import org.example.service.ExpenseManager;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Test API JSON lewat HTTP sungguhan: CRUD, batch, filter, ringkasan, dan error
+ * (termasuk body kebesaran yang ditolak sebelum di-parse)
+ */
+public class ExpenseServerTest extends TestCase {
+    private File dataDir;
+    private ExpenseManager manager;
+    private ExpenseServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("expense-server").toFile();
+        manager = new ExpenseManager(new File(dataDir, "expenses.csv"));
+        server = new ExpenseServer(manager, 0);
+        server.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.stop();
+        manager.close();
+        try (Stream<Path> paths = Files.walk(dataDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private Object call(String method, String path, String body, int expectedStatus) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                buffer.write(chunk, 0, read);
+            }
+        }
+        String text = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(text, expectedStatus, status);
+        return Json.parse(text);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Object value) {
+        return (List<Object>) value;
+    }
+
+    public void testCrudBatchAndQueries() throws Exception {
+        call("POST", "/expenses", "{\"description\":\"Kopi \\\"Senja\\\"\",\"category\":\"Makanan & Minuman\","
+                + "\"amount\":25000.5,\"date\":\"2025-12-01\"}", 201);
+        call("POST", "/batch", "{\"add\":["
+                + "{\"description\":\"Bensin\",\"category\":\"Transportasi\",\"amount\":\"50000\",\"date\":\"2025-12-02\",\"notes\":\"motor\"},"
+                + "{\"description\":\"Kopi susu\",\"category\":\"Makanan & Minuman\",\"amount\":18000,\"date\":\"2025-12-03\"}]}", 200);
+
+        Map<String, Object> first = object(call("GET", "/expenses/1", null, 200));
+        assertEquals("Kopi \"Senja\"", first.get("description"));
+        assertEquals("25000.5", first.get("amount").toString());
+
+        Map<String, Object> page = object(call("GET", "/expenses?sort=amount&limit=2", null, 200));
+        assertEquals("3", page.get("total").toString());
+        assertEquals(2, list(page.get("items")).size());
+        assertEquals("Bensin", object(list(page.get("items")).get(0)).get("description"));
+
+        Map<String, Object> search = object(call("GET", "/expenses?q=kopi&from=2025-12-02", null, 200));
+        assertEquals("1", search.get("total").toString());
+        assertEquals("Kopi susu", object(list(search.get("items")).get(0)).get("description"));
+
+        Map<String, Object> byCategory = object(call("GET", "/expenses?category=Makanan%20%26%20Minuman", null, 200));
+        assertEquals("2", byCategory.get("total").toString());
+
+        call("PUT", "/expenses/2", "{\"amount\":60000}", 200);
+        assertEquals("Transportasi", object(call("GET", "/expenses/2", null, 200)).get("category"));
+
+        Map<String, Object> summary = object(call("GET", "/summary?from=2025-12-01&to=2025-12-31", null, 200));
+        assertEquals("103000.5", summary.get("total").toString());
+        assertEquals("3", summary.get("count").toString());
+        assertEquals("60000", object(summary.get("byCategory")).get("Transportasi").toString());
+
+        List<Object> top = list(call("GET", "/top?limit=1", null, 200));
+        assertEquals("2", object(top.get(0)).get("id").toString());
+
+        // Batch delete dengan ID yang tidak ada ditolak seluruhnya
+        call("POST", "/batch", "{\"delete\":[1,99]}", 400);
+        call("DELETE", "/expenses/1", null, 200);
+        call("GET", "/expenses/1", null, 404);
+        assertEquals(2, manager.getTransactionCount());
+    }
+
+    public void testInvalidRequests() throws Exception {
+        assertTrue(object(call("POST", "/expenses", "{\"description\":", 400)).containsKey("error"));
+        call("POST", "/expenses", "{\"description\":\"Kopi\",\"category\":\"Lainnya\",\"amount\":-5,\"date\":\"2025-12-01\"}", 400);
+        call("POST", "/expenses", "{\"description\":\"Kopi\",\"category\":\"Lainnya\",\"amount\":5,\"date\":\"kemarin\"}", 400);
+        call("GET", "/expenses?limit=abc", null, 400);
+        call("GET", "/expenses/abc", null, 400);
+        call("DELETE", "/summary", null, 405);
+        // Koma/baris baru merusak baris journal, tanggal di luar rentang ditolak sebelum disimpan
+        call("POST", "/expenses", "{\"description\":\"Kopi, susu\",\"category\":\"Lainnya\",\"amount\":5,\"date\":\"2025-12-01\"}", 400);
+        call("POST", "/expenses", "{\"description\":\"Kopi\",\"category\":\"Lainnya\",\"amount\":5,\"date\":\"2025-12-01\",\"notes\":\"a\\nb\"}", 400);
+        call("POST", "/expenses", "{\"description\":\"Kopi\",\"category\":\"Lainnya\",\"amount\":5,\"date\":\"9999-12-31\"}", 400);
+        // Batch campuran gagal seluruhnya: add tidak ikut tersimpan
+        call("POST", "/batch", "{\"add\":[{\"description\":\"Kopi\",\"category\":\"Lainnya\",\"amount\":5,"
+                + "\"date\":\"2025-12-01\"}],\"delete\":[99]}", 400);
+        assertEquals(0, manager.getTransactionCount());
+        // JSON bersarang sangat dalam ditolak sebelum stack habis
+        StringBuilder nested = new StringBuilder("{\"add\":");
+        for (int i = 0; i < 1_000_000; i++) {
+            nested.append('[');
+        }
+        call("POST", "/batch", nested.toString(), 400);
+    }
+
+    public void testOversizedBodyIsRejectedBeforeParsing() throws Exception {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /batch HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100000000\r\n\r\n{\"add\":[")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            socket.shutdownOutput();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            String status = in.readLine();
+            assertTrue(status, status.startsWith("HTTP/1.1 413"));
+        }
+        assertEquals(0, manager.getTransactionCount());
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import org.example.model.Money;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Benchmark memori dan kecepatan scan: List<Expense> (cara lama) vs ExpenseTable kolumnar
+ * Data dibaca dari CSV supaya string dan LocalDate dialokasikan seperti saat aplikasi memuat data.
+ * Jalankan manual (bukan bagian dari mvn test), sebaiknya dengan heap tetap:
+ *   java -Xms2g -Xmx2g -cp target/classes:target/test-classes org.example.service.ColumnarStoreBenchmark [rows]
+ */
+public class ColumnarStoreBenchmark {
+    private static final int ROUNDS = 5;
+    private static final String CATEGORY = "Kesehatan";
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File file = File.createTempFile("expenses-columnar", ".csv");
+        file.deleteOnExit();
+        FileHandler.saveToCSV(CsvLoadBenchmark.generate(rows), file);
+
+        long base = usedHeap();
+        List<Expense> list = FileHandler.loadFromCSV(file);
+        long listBytes = usedHeap() - base;
+
+        ExpenseTable table = ExpenseTable.of(list);
+        long bothBytes = usedHeap() - base;
+        System.out.printf("Heap per %,d baris: List<Expense> %,d KB | ExpenseTable %,d KB%n",
+                rows, listBytes / 1024, (bothBytes - listBytes) / 1024);
+
+        LocalDate start = LocalDate.of(2021, 1, 1);
+        LocalDate end = LocalDate.of(2021, 12, 31);
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            double listTotal = 0;
+            for (Expense expense : list) {
+                if (!expense.getDate().isBefore(start) && !expense.getDate().isAfter(end)
+                        && expense.getCategory().equals(CATEGORY)) {
+                    listTotal += expense.getAmount();
+                }
+            }
+            long listNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            long tableSen = 0;
+            for (int position = 0; position < table.size(); position++) {
+                int day = table.day(position);
+                if (day >= startDay && day <= endDay && table.category(position).equals(CATEGORY)) {
+                    tableSen += table.amountSen(position);
+                }
+            }
+            long tableNs = System.nanoTime() - t0;
+
+            System.out.printf("Round %d: scan List %,d us | scan tabel %,d us (total %.0f / %.0f)%n",
+                    round, listNs / 1000, tableNs / 1000, listTotal, Money.toRupiah(tableSen));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
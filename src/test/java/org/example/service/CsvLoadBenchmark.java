@@ -0,0 +1,99 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark sederhana: loadFromCSV (BufferedReader + split) vs loadFromCSVMapped
+ * vs loadFromCSVParallel (semua core) vs snapshot biner vs snapshot terkompresi
+ * Jalankan manual (bukan bagian dari mvn test):
+ *   java -cp target/classes:target/test-classes org.example.service.CsvLoadBenchmark [rows]
+ */
+public class CsvLoadBenchmark {
+    private static final String[] CATEGORIES = {
+            "Makanan & Minuman", "Transport & Bensin", "Pendidikan & Buku", "Hiburan & Hobi",
+            "Kesehatan", "Fashion & Pakaian", "Teknologi & Gadget", "Kebutuhan Rumah", "Lainnya"
+    };
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File file = File.createTempFile("expenses-bench", ".csv");
+        file.deleteOnExit();
+
+        File binaryFile = File.createTempFile("expenses-bench", ".bin");
+        binaryFile.deleteOnExit();
+        File compressedFile = File.createTempFile("expenses-bench", ".dz");
+        compressedFile.deleteOnExit();
+        List<Expense> generated = generate(rows);
+        FileHandler.saveToCSV(generated, file);
+        FileHandler.saveToBinary(generated, binaryFile);
+        FileHandler.saveToCompressed(generated, compressedFile);
+        generated = null;
+        System.out.printf("File: %,d baris, CSV %,d bytes, biner %,d bytes, terkompresi %,d bytes%n",
+                rows, file.length(), binaryFile.length(), compressedFile.length());
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long readerMs = time(() -> FileHandler.loadFromCSV(file));
+            long mappedMs = time(() -> {
+                try {
+                    FileHandler.loadFromCSVMapped(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            long parallelMs = time(() -> {
+                try {
+                    FileHandler.loadFromCSVParallel(file, cores);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            long binaryMs = time(() -> {
+                try {
+                    FileHandler.loadFromBinary(binaryFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            long compressedMs = time(() -> {
+                try {
+                    FileHandler.loadFromCompressed(compressedFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            System.out.printf("Round %d: reader %,d ms | mapped %,d ms | parallel(%d) %,d ms | binary %,d ms"
+                            + " | compressed %,d ms%n",
+                    round, readerMs, mappedMs, cores, parallelMs, binaryMs, compressedMs);
+        }
+    }
+
+    static List<Expense> generate(int rows) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        List<Expense> expenses = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            expenses.add(new Expense(i,
+                    "Transaksi " + random.nextInt(10_000),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    (1 + random.nextInt(500)) * 1000.0,
+                    start.plusDays(random.nextInt(2000)),
+                    random.nextBoolean() ? "-" : "catatan " + random.nextInt(100)));
+        }
+        return expenses;
+    }
+
+    private static long time(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,261 @@
+package org.example.service;
+
+import junit.framework.TestCase;
+import org.example.model.Expense;
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test untuk journal: mutasi hanya menambah record, dan replay
+ * menghasilkan state yang sama setelah aplikasi dibuka ulang.
+ */
+public class ExpenseJournalTest extends TestCase {
+    private File dataDir;
+    private File dataFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("expense-journal").toFile();
+        dataFile = new File(dataDir, "expenses.csv");
+    }
+
+    @Override
+    protected void tearDown() {
+        File[] files = dataDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dataDir.delete();
+    }
+
+    public void testMutationsAppendWithoutRewritingSnapshot() {
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        long snapshotSize = dataFile.length();
+
+        assertTrue(manager.addExpense("Makan siang", "Makanan & Minuman", 25000, LocalDate.of(2025, 12, 19), "Kantin"));
+        assertTrue(manager.addExpense("Bensin", "Transport & Bensin", 50000, LocalDate.of(2025, 12, 18), "-"));
+        assertTrue(manager.updateExpense(1, "Makan malam", "Makanan & Minuman", 30000, LocalDate.of(2025, 12, 19), ""));
+        assertTrue(manager.deleteExpense(2));
+        manager.close();
+
+        assertEquals(snapshotSize, dataFile.length());
+        assertTrue(FileHandler.journalFileFor(dataFile).length() > 0);
+    }
+
+    public void testSizeCountsBytesNotCharacters() throws Exception {
+        ExpenseJournal journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        journal.append(ExpenseJournal.ADD, new Expense(1, "Kopi ☕ dan roti", "Makanan & Minuman", 18500,
+                LocalDate.of(2025, 12, 18), "Café"));
+        journal.close();
+        assertEquals(journal.getFile().length(), journal.size());
+        assertTrue(journal.getFile().delete());
+    }
+
+    public void testReplayRestoresState() {
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        manager.addExpense("Makan siang", "Makanan & Minuman", 25000, LocalDate.of(2025, 12, 19), "Kantin");
+        manager.addExpense("Bensin", "Transport & Bensin", 50000, LocalDate.of(2025, 12, 18), "-");
+        manager.addExpense("Buku", "Pendidikan & Buku", 80000, LocalDate.of(2025, 12, 17), "-");
+        manager.updateExpense(1, "Makan malam", "Makanan & Minuman", 30000, LocalDate.of(2025, 12, 20), "");
+        manager.deleteExpense(2);
+        manager.close();
+
+        ExpenseManager reopened = new ExpenseManager(dataFile);
+        assertEquals(2, reopened.getTransactionCount());
+        assertNull(reopened.getExpenseById(2));
+
+        Expense updated = reopened.getExpenseById(1);
+        assertEquals("Makan malam", updated.getDescription());
+        assertEquals(30000.0, updated.getAmount(), 0.0);
+        assertEquals(LocalDate.of(2025, 12, 20), updated.getDate());
+
+        // ID baru tidak boleh bentrok dengan data hasil replay
+        reopened.addExpense("Pulsa", "Lainnya", 10000, LocalDate.of(2025, 12, 21), "-");
+        assertNotNull(reopened.getExpenseById(4));
+        reopened.close();
+    }
+
+    public void testUpdateRecordsPreviousDateAndSurvivesReplay() {
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        manager.addExpense("Makan siang", "Makanan & Minuman", 25000, LocalDate.of(2025, 11, 30), "Kantin");
+        // Koma akan menggeser field record, jadi ditolak sebelum journal ditulis
+        assertFalse(manager.updateExpense(1, "Makan malam", "Makanan & Minuman", 30000,
+                LocalDate.of(2025, 12, 1), "Warung, dekat kantor"));
+        assertTrue(manager.updateExpense(1, "Makan malam", "Makanan & Minuman", 30000,
+                LocalDate.of(2025, 12, 1), "Warung dekat kantor"));
+        manager.close();
+
+        List<ExpenseJournal.Record> records = ExpenseJournal.readRecords(FileHandler.journalFileFor(dataFile));
+        assertEquals(2, records.size());
+        assertEquals(LocalDate.of(2025, 11, 30), records.get(1).getPreviousDate());
+
+        ExpenseManager reopened = new ExpenseManager(dataFile);
+        Expense updated = reopened.getExpenseById(1);
+        assertEquals("Makan malam", updated.getDescription());
+        assertEquals(LocalDate.of(2025, 12, 1), updated.getDate());
+        assertEquals("Warung dekat kantor", updated.getNotes());
+        reopened.close();
+    }
+
+    public void testCompactionFoldsJournalIntoSnapshot() throws Exception {
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        manager.addExpense("Makan siang", "Makanan & Minuman", 25000, LocalDate.of(2025, 12, 19), "Kantin");
+        manager.addExpense("Bensin", "Transport & Bensin", 50000, LocalDate.of(2025, 12, 18), "-");
+        manager.deleteExpense(1);
+        manager.close();
+
+        ExpenseJournal journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        SnapshotCompactor compactor = new SnapshotCompactor(StorageConfig.forDataFile(dataFile), journal);
+        assertTrue(compactor.compactAsync().get());
+        compactor.shutdown();
+
+        assertFalse(journal.getFile().exists());
+        assertFalse(journal.getSealedFile().exists());
+        List<Expense> snapshot = FileHandler.loadFromCSV(dataFile);
+        assertEquals(1, snapshot.size());
+        assertEquals("Bensin", snapshot.get(0).getDescription());
+
+        ExpenseManager reopened = new ExpenseManager(dataFile);
+        assertEquals(1, reopened.getTransactionCount());
+        reopened.close();
+    }
+
+    public void testCompactionKeepsSegmentWhenSnapshotUnreadable() throws Exception {
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        manager.addExpense("Makan siang", "Makanan & Minuman", 25000, LocalDate.of(2025, 12, 19), "Kantin");
+        manager.addExpense("Bensin", "Transport & Bensin", 50000, LocalDate.of(2025, 12, 18), "-");
+        manager.close();
+
+        // Snapshot CSV tidak bisa dibaca: compaction tidak boleh menulis snapshot sebagian
+        assertTrue(dataFile.delete());
+        assertTrue(dataFile.mkdir());
+        StorageConfig config = StorageConfig.forDataFile(dataFile);
+        config.setSnapshotFormat(StorageConfig.SnapshotFormat.BINARY);
+        ExpenseJournal journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        SnapshotCompactor compactor = new SnapshotCompactor(config, journal);
+        assertFalse(compactor.compactAsync().get());
+        compactor.shutdown();
+
+        assertFalse(FileHandler.binaryFileFor(dataFile).exists());
+        assertTrue(journal.getSealedFile().exists());
+        assertEquals(2, ExpenseJournal.readRecords(journal.getSealedFile()).size());
+    }
+
+    public void testBinarySnapshotPreferredWhenNewer() throws Exception {
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        manager.addExpense("Makan siang", "Makanan & Minuman", 25000, LocalDate.of(2025, 12, 19), "Kantin");
+        manager.addExpense("Kopi ☕", "Makanan & Minuman", 18500.5, LocalDate.of(2025, 12, 18), "");
+        manager.close();
+
+        StorageConfig config = StorageConfig.forDataFile(dataFile);
+        config.setSnapshotFormat(StorageConfig.SnapshotFormat.BINARY);
+        ExpenseJournal journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        SnapshotCompactor compactor = new SnapshotCompactor(config, journal);
+        assertTrue(compactor.compactAsync().get());
+        compactor.shutdown();
+
+        File binaryFile = FileHandler.binaryFileFor(dataFile);
+        assertTrue(binaryFile.exists());
+        List<Expense> fromBinary = FileHandler.loadFromBinary(binaryFile).getExpenses();
+        assertEquals(2, fromBinary.size());
+        assertEquals("Kopi ☕", fromBinary.get(1).getDescription());
+        assertEquals(18500.5, fromBinary.get(1).getAmount(), 0.0);
+        assertEquals("", fromBinary.get(1).getNotes());
+
+        // CSV lama lebih tua dari snapshot biner, jadi biner yang dipakai
+        ExpenseManager reopened = new ExpenseManager(config);
+        assertEquals(2, reopened.getTransactionCount());
+        reopened.close();
+    }
+
+    public void testSwitchingFormatKeepsRowsFoldedIntoCompressedSnapshot() throws Exception {
+        StorageConfig csvConfig = StorageConfig.forDataFile(dataFile);
+        ExpenseManager manager = new ExpenseManager(csvConfig);
+        manager.addExpense("Makan siang", "Makanan & Minuman", 25000, LocalDate.of(2025, 12, 19), "Kantin");
+        manager.close();
+        ExpenseJournal journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        SnapshotCompactor compactor = new SnapshotCompactor(csvConfig, journal);
+        assertTrue(compactor.compactAsync().get());
+        compactor.shutdown();
+
+        StorageConfig compressed = StorageConfig.forDataFile(dataFile);
+        compressed.setSnapshotFormat(StorageConfig.SnapshotFormat.COMPRESSED);
+        manager = new ExpenseManager(compressed);
+        manager.addExpense("Bensin", "Transport & Bensin", 50000, LocalDate.of(2025, 12, 18), "-");
+        manager.close();
+        journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        compactor = new SnapshotCompactor(compressed, journal);
+        compactor.compactAsync().get();
+        compactor.shutdown();
+        assertFalse(journal.getSealedFile().exists());
+        assertFalse(journal.getFile().exists() && journal.getFile().length() > 0);
+        assertEquals(1, FileHandler.loadFromCSV(dataFile).size());
+        assertEquals(2, FileHandler.loadFromCompressed(FileHandler.compressedFileFor(dataFile)).getExpenses().size());
+
+        // Kembali ke CSV: .dz lebih baru dari CSV, jadi tetap yang dibaca
+        ExpenseManager reopened = new ExpenseManager(csvConfig);
+        assertEquals(2, reopened.getTransactionCount());
+        assertEquals("Bensin", reopened.getExpenseById(2).getDescription());
+        reopened.close();
+    }
+
+    public void testWriteBehindGroupsMutations() throws Exception {
+        StorageConfig config = StorageConfig.forDataFile(dataFile);
+        config.setWriteBehind(true);
+        config.setFlushIntervalMs(5);
+        config.setFsyncPolicy(StorageConfig.FsyncPolicy.EVERY_COMMIT);
+
+        ExpenseManager manager = new ExpenseManager(config);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(manager.addExpense("Item " + i, "Lainnya", 1000 + i, LocalDate.of(2025, 12, 1), "-"));
+        }
+        manager.deleteExpense(10);
+        manager.whenDurable().get();
+
+        List<String> lines = Files.readAllLines(FileHandler.journalFileFor(dataFile).toPath());
+        assertEquals(501, lines.size());
+        manager.close();
+
+        ExpenseManager reopened = new ExpenseManager(dataFile);
+        assertEquals(499, reopened.getTransactionCount());
+        assertNull(reopened.getExpenseById(10));
+        reopened.close();
+    }
+
+    public void testWriteBehindRetriesFailedFlush() throws Exception {
+        // Parent journal berupa file biasa, jadi journal belum bisa dibuka
+        File blocker = new File(dataDir, "journal");
+        assertTrue(blocker.createNewFile());
+        ExpenseJournal journal = new ExpenseJournal(new File(blocker, "expenses.log"));
+        WriteBehindWriter writer = new WriteBehindWriter(journal, 1);
+
+        CompletableFuture<Void> written = writer.submit(Arrays.asList(
+                ExpenseJournal.format(ExpenseJournal.ADD, new Expense(1, "Kopi", "Lainnya", 1000, LocalDate.of(2025, 12, 1), "-")),
+                ExpenseJournal.format(ExpenseJournal.ADD, new Expense(2, "Teh", "Lainnya", 2000, LocalDate.of(2025, 12, 1), "-"))));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (writer.getFailure() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(writer.getFailure());
+        assertFalse(written.isDone());
+
+        // Setelah disk pulih, batch yang sama ditulis ulang (tidak dibuang)
+        assertTrue(blocker.delete());
+        assertTrue(blocker.mkdir());
+        written.get(10, TimeUnit.SECONDS);
+        assertNull(writer.getFailure());
+        writer.close();
+        journal.close();
+
+        assertEquals(2, ExpenseJournal.readRecords(journal.getFile()).size());
+        assertTrue(journal.getFile().delete());
+        assertTrue(blocker.delete());
+    }
+}
@@ -0,0 +1,231 @@
+package org.example.service;
+
+import junit.framework.TestCase;
+import org.example.model.Expense;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Stress test ExpenseManager: beberapa writer dan reader berjalan bersamaan.
+ * Setiap writer menambah item "w<t>-<i>" berurutan, jadi pada snapshot yang linearizable
+ * item milik satu writer yang terlihat selalu berupa prefix 0..k-1, dan jumlah/total
+ * yang dibaca satu reader tidak pernah turun selama writer hanya menambah.
+ */
+public class ExpenseManagerConcurrencyTest extends TestCase {
+    private static final int WRITERS = 3;
+    private static final int READERS = 3;
+    private static final int ITEMS = 1_500;
+    private static final String[] CATEGORIES = {"Makanan & Minuman", "Transport & Bensin", "Lainnya"};
+
+    private File dataDir;
+    private ExpenseManager manager;
+    private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+    @Override
+    protected void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("expense-concurrency").toFile();
+        manager = new ExpenseManager(new File(dataDir, "expenses.csv"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        manager.close();
+        try (Stream<Path> paths = Files.walk(dataDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static long amountOf(int writer, int item) {
+        return 1_000 + writer * 10_000 + item;
+    }
+
+    public void testReadersSeePrefixesWhileWritersAdd() throws Exception {
+        LocalDate today = LocalDate.now();
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < WRITERS; t++) {
+            int writer = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < ITEMS; i++) {
+                    if (!manager.addExpense("w" + writer + "-" + i, CATEGORIES[writer], amountOf(writer, i), today, "-")) {
+                        failures.add("add gagal: w" + writer + "-" + i);
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            int reader = r;
+            threads.add(new Thread(() -> {
+                int lastCount = 0;
+                double lastTotal = 0;
+                while (!done.get()) {
+                    int count = manager.getTransactionCount();
+                    double total = manager.getTotal(today, today);
+                    if (count < lastCount || total < lastTotal) {
+                        failures.add("jumlah/total turun: " + lastCount + " -> " + count);
+                    }
+                    lastCount = count;
+                    lastTotal = total;
+
+                    switch (reader) {
+                        case 0:
+                            checkPrefixes(manager.getAllExpenses());
+                            break;
+                        case 1:
+                            checkPrefixes(manager.searchExpenses("w1-"));
+                            checkPrefixes(manager.filterByCategory(CATEGORIES[2]));
+                            break;
+                        default:
+                            checkPrefixes(manager.filterByDateRange(today, today));
+                            checkPrefixes(manager.sortByAmountDesc());
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (int t = 0; t < WRITERS; t++) {
+            threads.get(t).join();
+        }
+        done.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(failures.size() + " pelanggaran, pertama: " + failures.peek(), failures.isEmpty());
+        assertEquals(WRITERS * ITEMS, manager.getTransactionCount());
+        double expected = 0;
+        for (int t = 0; t < WRITERS; t++) {
+            for (int i = 0; i < ITEMS; i++) {
+                expected += amountOf(t, i);
+            }
+        }
+        assertEquals(expected, manager.getTotal(today, today), 0.001);
+        checkPrefixes(manager.getAllExpenses());
+    }
+
+    public void testMixedWritersMatchSequentialModel() throws Exception {
+        LocalDate today = LocalDate.now();
+        AtomicBoolean done = new AtomicBoolean();
+        List<Map<Integer, Long>> models = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < WRITERS; t++) {
+            int writer = t;
+            Map<Integer, Long> model = new HashMap<>();
+            models.add(model);
+            threads.add(new Thread(() -> {
+                Random random = new Random(writer);
+                List<Integer> own = new ArrayList<>();
+                for (int i = 0; i < ITEMS; i++) {
+                    int op = random.nextInt(4);
+                    if (op == 0 && !own.isEmpty()) {
+                        int id = own.get(random.nextInt(own.size()));
+                        long amount = amountOf(writer, random.nextInt(ITEMS));
+                        if (manager.updateExpense(id, "w" + writer + "-u" + i, CATEGORIES[writer], amount,
+                                today.minusDays(random.nextInt(10)), "-")) {
+                            model.put(id, amount);
+                        }
+                    } else if (op == 1 && !own.isEmpty()) {
+                        int id = own.remove(random.nextInt(own.size()));
+                        if (manager.deleteExpense(id)) {
+                            model.remove(id);
+                        }
+                    } else {
+                        long amount = amountOf(writer, i);
+                        manager.addExpense("w" + writer + "-" + i, CATEGORIES[writer], amount,
+                                today.minusDays(random.nextInt(10)), "-");
+                        // ID milik writer ini: cari lewat description yang unik
+                        for (Expense expense : manager.searchExpenses("w" + writer + "-" + i)) {
+                            if (expense.getDescription().equals("w" + writer + "-" + i)) {
+                                own.add(expense.getId());
+                                model.put(expense.getId(), amount);
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            while (!done.get()) {
+                List<Expense> sorted = manager.sortByAmountDesc();
+                for (int i = 1; i < sorted.size(); i++) {
+                    if (sorted.get(i - 1).getAmount() < sorted.get(i).getAmount()) {
+                        failures.add("urutan amount salah di posisi " + i);
+                        break;
+                    }
+                }
+                double byCategory = 0;
+                for (double total : manager.getTotalByCategory().values()) {
+                    byCategory += total;
+                }
+                if (byCategory < 0) {
+                    failures.add("total kategori negatif");
+                }
+                manager.getLargestExpensesThisMonth(20);
+            }
+        }));
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (int t = 0; t < WRITERS; t++) {
+            threads.get(t).join();
+        }
+        done.set(true);
+        threads.get(WRITERS).join();
+
+        assertTrue(failures.size() + " pelanggaran, pertama: " + failures.peek(), failures.isEmpty());
+        Map<String, Double> totals = manager.getTotalByCategory();
+        int rows = 0;
+        for (int t = 0; t < WRITERS; t++) {
+            long expectedSen = 0;
+            for (long amount : models.get(t).values()) {
+                expectedSen += amount * 100;
+            }
+            rows += models.get(t).size();
+            assertEquals(expectedSen / 100.0, totals.getOrDefault(CATEGORIES[t], 0.0), 0.001);
+        }
+        assertEquals(rows, manager.getTransactionCount());
+        assertEquals(rows, manager.sortByDateDesc().size());
+    }
+
+    /**
+     * Item milik tiap writer di satu hasil query harus berupa prefix 0..k-1 tanpa duplikat
+     * (hanya item tambahan "w<t>-<i>"; hasil filter boleh berisi sebagian writer saja)
+     */
+    private void checkPrefixes(List<Expense> expenses) {
+        Set<Integer> ids = new HashSet<>();
+        int[] max = new int[WRITERS];
+        int[] count = new int[WRITERS];
+        Arrays.fill(max, -1);
+        for (Expense expense : expenses) {
+            if (!ids.add(expense.getId())) {
+                failures.add("ID ganda: " + expense.getId());
+                return;
+            }
+            String[] parts = expense.getDescription().substring(1).split("-");
+            int writer = Integer.parseInt(parts[0]);
+            int item = Integer.parseInt(parts[1]);
+            max[writer] = Math.max(max[writer], item);
+            count[writer]++;
+            if (expense.getAmount() != amountOf(writer, item)) {
+                failures.add("baris sobek: " + expense.getDescription() + " " + expense.getAmount());
+            }
+        }
+        for (int t = 0; t < WRITERS; t++) {
+            if (count[t] != max[t] + 1) {
+                failures.add("bukan prefix untuk w" + t + ": " + count[t] + " item, maks " + max[t]);
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package org.example.service;
+
+import junit.framework.TestCase;
+import org.example.model.Expense;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Test index di ExpenseManager: hasil query harus sama dengan scan penuh
+ * setelah rangkaian add/update/delete acak.
+ */
+public class ExpenseManagerTest extends TestCase {
+    private static final String[] CATEGORIES = {"Makanan & Minuman", "Transport & Bensin", "Lainnya"};
+
+    private File dataDir;
+    private ExpenseManager manager;
+
+    @Override
+    protected void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("expense-manager").toFile();
+        manager = new ExpenseManager(new File(dataDir, "expenses.csv"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        manager.close();
+        try (Stream<Path> paths = Files.walk(dataDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Isi manager dengan mutasi acak di sekitar hari ini
+     */
+    private void randomMutations(int operations) {
+        Random random = new Random(3);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < operations; i++) {
+            LocalDate date = today.minusDays(random.nextInt(60));
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            int id = 1 + random.nextInt(i + 1);
+            switch (random.nextInt(4)) {
+                case 0:
+                    manager.updateExpense(id, "Edit " + i, category, 1000 + random.nextInt(9000), date, "-");
+                    break;
+                case 1:
+                    manager.deleteExpense(id);
+                    break;
+                default:
+                    manager.addExpense("Item " + i, category, 1000 + random.nextInt(9000), date, "-");
+            }
+        }
+    }
+
+    private static double sum(List<Expense> expenses) {
+        return expenses.stream().mapToDouble(Expense::getAmount).sum();
+    }
+
+    public void testDateQueriesMatchFullScan() {
+        randomMutations(2_000);
+        List<Expense> all = manager.getAllExpenses();
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(20);
+        LocalDate end = today.minusDays(5);
+
+        List<Integer> expected = all.stream()
+                .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                .map(Expense::getId).sorted().collect(Collectors.toList());
+        List<Integer> actual = manager.filterByDateRange(start, end).stream()
+                .map(Expense::getId).sorted().collect(Collectors.toList());
+        assertEquals(expected, actual);
+
+        assertEquals(sum(all.stream().filter(e -> e.getDate().equals(today)).collect(Collectors.toList())),
+                manager.getTotalToday(), 0.001);
+        assertEquals(sum(all.stream().filter(e -> !e.getDate().isBefore(today.minusDays(6)))
+                .collect(Collectors.toList())), manager.getTotalThisWeek(), 0.001);
+        assertEquals(sum(all.stream().filter(e -> e.getDate().getMonth() == today.getMonth()
+                && e.getDate().getYear() == today.getYear()).collect(Collectors.toList())),
+                manager.getTotalThisMonth(), 0.001);
+        assertTrue(manager.filterByDateRange(end, start).isEmpty());
+        assertEquals(all.size(), manager.filterByDateRange(LocalDate.MIN, LocalDate.MAX).size());
+    }
+
+    public void testCategoryQueriesMatchFullScan() {
+        randomMutations(2_000);
+        List<Expense> all = manager.getAllExpenses();
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(30);
+
+        for (String category : CATEGORIES) {
+            List<Expense> expected = all.stream()
+                    .filter(e -> e.getCategory().equals(category))
+                    .collect(Collectors.toList());
+            assertEquals(expected.size(), manager.filterByCategory(category).size());
+            assertEquals(sum(expected), manager.getTotalByCategory().get(category), 0.001);
+
+            List<Integer> expectedIds = expected.stream()
+                    .filter(e -> !e.getDate().isBefore(start))
+                    .map(Expense::getId).sorted().collect(Collectors.toList());
+            List<Integer> actualIds = manager.filterByCategoryAndDateRange(category, start, today).stream()
+                    .map(Expense::getId).sorted().collect(Collectors.toList());
+            assertEquals(expectedIds, actualIds);
+            assertEquals(expectedIds, manager.filterByCategoryAndDateRange(category, LocalDate.MIN, today)
+                    .stream().filter(e -> !e.getDate().isBefore(start))
+                    .map(Expense::getId).sorted().collect(Collectors.toList()));
+        }
+
+        assertEquals(all.stream().filter(e -> !e.getDate().isBefore(start)).count(),
+                manager.getTransactionCount(start, today));
+        assertTrue(manager.filterByCategory("Tidak Ada").isEmpty());
+    }
+
+    public void testSortOrdersAndTopKMatchFullSort() {
+        randomMutations(2_000);
+        List<Expense> all = manager.getAllExpenses();
+        LocalDate today = LocalDate.now();
+
+        assertEquals(all.stream().map(Expense::getDate).sorted(Comparator.reverseOrder()).collect(Collectors.toList()),
+                manager.sortByDateDesc().stream().map(Expense::getDate).collect(Collectors.toList()));
+        assertEquals(all.stream().map(Expense::getAmount).sorted(Comparator.reverseOrder()).collect(Collectors.toList()),
+                manager.sortByAmountDesc().stream().map(Expense::getAmount).collect(Collectors.toList()));
+
+        // Rentang lebar membaca AmountIndex, rentang sempit memakai heap
+        for (int days : new int[]{90, 1}) {
+            LocalDate start = today.minusDays(days);
+            List<Double> expected = all.stream()
+                    .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(today))
+                    .map(Expense::getAmount).sorted(Comparator.reverseOrder()).limit(10)
+                    .collect(Collectors.toList());
+            assertEquals(expected, manager.getLargestExpenses(10, start, today).stream()
+                    .map(Expense::getAmount).collect(Collectors.toList()));
+        }
+        assertTrue(manager.getLargestExpenses(10, today.plusDays(1), today.plusDays(5)).isEmpty());
+    }
+
+    public void testRangeTotalsMatchFullScan() {
+        randomMutations(2_000);
+        LocalDate today = LocalDate.now();
+        // Tanggal jauh di luar rentang awal membuka blok hari baru
+        manager.addExpense("Lama", "Lainnya", 12345, today.minusYears(3), "-");
+        manager.addExpense("Nanti", "Lainnya", 5000, today.plusDays(400), "-");
+        assertTrue(manager.addExpense("Awal", "Lainnya", 700, ExpenseManager.MIN_DATE, "-"));
+        assertTrue(manager.addExpense("Akhir", "Lainnya", 900, ExpenseManager.MAX_DATE, "-"));
+        // Di luar rentang ditolak sebelum journal ditulis
+        assertFalse(manager.addExpense("Jauh", "Lainnya", 1, LocalDate.of(3_000_000, 1, 1), "-"));
+        assertFalse(manager.updateExpense(1, "Jauh", "Lainnya", 1, LocalDate.of(9999, 12, 31), "-"));
+        assertEquals(900.0, manager.getTotal(ExpenseManager.MAX_DATE, LocalDate.MAX), 0.001);
+        List<Expense> all = manager.getAllExpenses();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50; i++) {
+            LocalDate start = today.minusDays(random.nextInt(1200));
+            LocalDate end = start.plusDays(random.nextInt(800));
+            List<Expense> expected = all.stream()
+                    .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                    .collect(Collectors.toList());
+            assertEquals(sum(expected), manager.getTotal(start, end), 0.001);
+
+            Map<String, Double> byCategory = manager.getTotalByCategory(start, end);
+            for (String category : CATEGORIES) {
+                double categoryTotal = sum(expected.stream()
+                        .filter(e -> e.getCategory().equals(category)).collect(Collectors.toList()));
+                assertEquals(categoryTotal, byCategory.getOrDefault(category, 0.0), 0.001);
+            }
+        }
+        assertEquals(sum(all), manager.getTotal(LocalDate.MIN, LocalDate.MAX), 0.001);
+        assertEquals(0.0, manager.getTotal(today, today.minusDays(1)), 0.0);
+    }
+
+    public void testSearchMatchesFullScan() {
+        randomMutations(2_000);
+        manager.addExpense("Kopi Susu", "Makanan & Minuman", 15000, LocalDate.now(), "Catatan Kantor");
+        List<Expense> all = manager.getAllExpenses();
+        String today = LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+
+        for (String keyword : new String[]{"Item 1", "edit", "tem", "xyz", "1", "bensin", "KANTOR",
+                today, today.substring(3), "susu"}) {
+            String term = keyword.toLowerCase();
+            List<Integer> expected = all.stream()
+                    .filter(e -> e.getDescription().toLowerCase().contains(term)
+                            || e.getCategory().toLowerCase().contains(term)
+                            || e.getNotes().toLowerCase().contains(term)
+                            || e.getFormattedDate().contains(term))
+                    .map(Expense::getId).sorted().collect(Collectors.toList());
+            List<Integer> actual = manager.searchExpenses(keyword).stream()
+                    .map(Expense::getId).sorted().collect(Collectors.toList());
+            assertEquals(keyword, expected, actual);
+        }
+    }
+
+    public void testUserCategoryIsRegisteredAndPersisted() throws Exception {
+        LocalDate today = LocalDate.now();
+        assertTrue(manager.addCategory("Hewan Peliharaan", "🐱"));
+        assertTrue(manager.addExpense("Makanan kucing", "Hewan Peliharaan", 45000, today, "-"));
+        assertTrue(manager.addExpense("Servis laptop", "Perbaikan", 150000, today, "-"));
+        assertTrue(manager.filterByCategory("Tidak Ada").isEmpty());
+
+        manager.close();
+        manager = new ExpenseManager(new File(dataDir, "expenses.csv"));
+
+        List<String> categories = manager.getCategories();
+        assertEquals("Makanan & Minuman", categories.get(0));
+        assertTrue(categories.contains("Hewan Peliharaan"));
+        assertTrue(categories.contains("Perbaikan"));
+        assertEquals("🐱", manager.getCategoryIcon("Hewan Peliharaan"));
+        assertEquals(1, manager.filterByCategory("Perbaikan").size());
+        assertEquals(45000.0, manager.getTotalByCategory().get("Hewan Peliharaan"), 0.001);
+        assertEquals(150000.0, manager.getTotalByCategory(today, today).get("Perbaikan"), 0.001);
+        assertFalse(manager.getTotalByCategory().containsKey("Kesehatan"));
+    }
+
+    public void testSnapshotIsReusedUntilDataChanges() {
+        randomMutations(500);
+        List<Expense> all = manager.getAllExpenses();
+        long version = manager.getVersion();
+        assertSame(all, manager.getAllExpenses());
+        assertSame(manager.sortByAmountDesc(), manager.sortByAmountDesc());
+        int size = all.size();
+        String first = all.get(0).toString();
+
+        assertTrue(manager.addExpense("Baru", "Lainnya", 5000, LocalDate.now(), "-"));
+        assertTrue(manager.deleteExpense(all.get(0).getId()));
+        assertTrue(version < manager.getVersion());
+        assertEquals(size, all.size());
+        assertEquals(first, all.get(0).toString());
+        assertNotSame(all, manager.getAllExpenses());
+        try {
+            all.remove(0);
+            fail("snapshot harus immutable");
+        } catch (UnsupportedOperationException e) {
+            // diharapkan
+        }
+    }
+
+    public void testOpenRangeStreamsStableSnapshot() {
+        randomMutations(1_000);
+        LocalDate start = LocalDate.now().minusDays(20);
+        LocalDate end = LocalDate.now().minusDays(10);
+        List<Integer> expected = manager.filterByDateRange(start, end).stream()
+                .map(Expense::getId).sorted().collect(Collectors.toList());
+
+        ExpenseSource source = manager.openRange(start, end);
+        assertEquals(expected.size(), source.estimatedSize());
+        // Mutasi setelah source dibuka tidak terlihat oleh iterator
+        for (int id : expected) {
+            manager.deleteExpense(id);
+        }
+        manager.addExpense("Baru", "Lainnya", 5000, start, "-");
+
+        List<Integer> streamed = new ArrayList<>();
+        while (source.hasNext()) {
+            streamed.add(source.next().getId());
+        }
+        streamed.sort(null);
+        assertEquals(expected, streamed);
+    }
+
+    public void testBatchOperationsAreAllOrNothing() throws Exception {
+        LocalDate today = LocalDate.now();
+        List<Expense> batch = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            batch.add(new Expense(0, "Impor " + i, CATEGORIES[i % CATEGORIES.length], 1000 + i,
+                    today.minusDays(i % 30), "-"));
+        }
+        assertTrue(manager.addExpenses(batch));
+        assertEquals(1_000, manager.getTransactionCount());
+
+        // Satu baris tidak valid: tidak ada yang berubah
+        List<Expense> invalid = new ArrayList<>(batch);
+        invalid.add(new Expense(0, "Rusak", "Lainnya", 0, today, "-"));
+        long version = manager.getVersion();
+        assertFalse(manager.addExpenses(invalid));
+        assertFalse(manager.deleteExpenses(Arrays.asList(1, 2, 99_999)));
+        assertFalse(manager.updateExpenses(Arrays.asList(
+                new Expense(1, "Ubah", "Lainnya", 5000, today, "-"),
+                new Expense(99_999, "Tidak ada", "Lainnya", 5000, today, "-"))));
+        assertEquals(version, manager.getVersion());
+        assertEquals(1_000, manager.getTransactionCount());
+        assertEquals("Impor 0", manager.getExpenseById(1).getDescription());
+
+        List<Expense> updates = new ArrayList<>();
+        for (int id = 1; id <= 100; id++) {
+            updates.add(new Expense(id, "Ubah " + id, "Lainnya", 5000, today, "catatan"));
+        }
+        assertTrue(manager.updateExpenses(updates));
+        assertTrue(manager.deleteExpenses(Arrays.asList(101, 102, 102, 103)));
+        assertEquals(997, manager.getTransactionCount());
+
+        // Batch campuran: satu ID hilang membatalkan add dan update di batch yang sama
+        List<Expense> extra = Arrays.asList(new Expense(0, "Tambahan", "Lainnya", 700, today, "-"));
+        List<Expense> change = Arrays.asList(new Expense(104, "Ubah 104", "Lainnya", 800, today.minusDays(1), "-"));
+        version = manager.getVersion();
+        assertFalse(manager.applyBatch(extra, change, Arrays.asList(99_999)));
+        assertEquals(version, manager.getVersion());
+        assertTrue(manager.applyBatch(extra, change, Arrays.asList(104)));
+        assertNull(manager.getExpenseById(104));
+        assertEquals(1, manager.searchExpenses("tambahan").size());
+        assertTrue(manager.deleteExpenses(Arrays.asList(1_001)));
+        assertEquals(996, manager.getTransactionCount());
+        assertEquals(100, manager.searchExpenses("ubah").size());
+
+        manager.close();
+        manager = new ExpenseManager(new File(dataDir, "expenses.csv"));
+        assertEquals(996, manager.getTransactionCount());
+        assertEquals("Ubah 7", manager.getExpenseById(7).getDescription());
+        assertNull(manager.getExpenseById(102));
+        assertEquals(sum(manager.getAllExpenses()), manager.getTotal(LocalDate.MIN, LocalDate.MAX), 0.001);
+    }
+}
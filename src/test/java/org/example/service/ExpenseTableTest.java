@@ -0,0 +1,161 @@
+package org.example.service;
+
+import junit.framework.TestCase;
+import org.example.model.Expense;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test tabel kolumnar: isi baris harus sama dengan model List/Map biasa
+ * setelah add/set/removeAt acak (termasuk pemadatan StringPool).
+ * Snapshot yang diambil di tengah mutasi tidak boleh ikut berubah.
+ */
+public class ExpenseTableTest extends TestCase {
+
+    public void testRandomMutationsMatchObjectModel() {
+        ExpenseTable table = new ExpenseTable();
+        Map<Integer, Expense> expected = new HashMap<>();
+        Map<Integer, Integer> positions = new HashMap<>();
+        Random random = new Random(11);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        int nextId = 1;
+
+        for (int i = 0; i < 20_000; i++) {
+            Expense expense = new Expense(nextId, "Belanja " + random.nextInt(i + 1) + " é",
+                    random.nextBoolean() ? "Lainnya" : "Kesehatan", (1 + random.nextInt(100_000)) / 4.0,
+                    start.plusDays(random.nextInt(500)), random.nextInt(3) == 0 ? null : "catatan " + random.nextInt(50));
+            int op = random.nextInt(4);
+            if (op == 0 && !expected.isEmpty()) {
+                int id = 1 + random.nextInt(nextId - 1);
+                if (expected.containsKey(id)) {
+                    Expense updated = new Expense(id, expense.getDescription(), expense.getCategory(),
+                            expense.getAmount(), expense.getDate(), expense.getNotes());
+                    table.set(positions.get(id), updated);
+                    expected.put(id, updated);
+                }
+            } else if (op == 1 && !expected.isEmpty()) {
+                int id = 1 + random.nextInt(nextId - 1);
+                Integer position = positions.remove(id);
+                if (position != null) {
+                    expected.remove(id);
+                    int moved = table.removeAt(position);
+                    if (moved >= 0) {
+                        positions.put(moved, position);
+                    }
+                }
+            } else {
+                positions.put(nextId, table.add(expense));
+                expected.put(nextId, expense);
+                nextId++;
+            }
+        }
+
+        assertEquals(expected.size(), table.size());
+        for (Map.Entry<Integer, Integer> entry : positions.entrySet()) {
+            Expense want = expected.get(entry.getKey());
+            Expense got = table.get(entry.getValue());
+            assertEquals(want.getId(), got.getId());
+            assertEquals(want.getDescription(), got.getDescription());
+            assertEquals(want.getCategory(), got.getCategory());
+            assertEquals(want.getAmount(), got.getAmount(), 0.0);
+            assertEquals(want.getDate(), got.getDate());
+            assertEquals(want.getNotes(), got.getNotes());
+        }
+    }
+
+    public void testTextContainsIgnoresCase() {
+        ExpenseTable table = new ExpenseTable();
+        int ascii = table.add(new Expense(1, "Kopi SUSU", "Lainnya", 1000, LocalDate.of(2024, 1, 1), "Kantor"));
+        int unicode = table.add(new Expense(2, "CafÉ Latte", "Lainnya", 1000, LocalDate.of(2024, 1, 1), null));
+
+        assertTrue(table.textContains(ascii, "susu"));
+        assertTrue(table.textContains(ascii, "kantor"));
+        assertFalse(table.textContains(ascii, "teh"));
+        assertTrue(table.textContains(unicode, "café"));
+        assertTrue(table.textContains(unicode, "latte"));
+        assertFalse(table.textContains(unicode, "kantor"));
+    }
+
+    public void testSnapshotsAreNotChangedByLaterMutations() {
+        ExpenseTable table = new ExpenseTable();
+        List<ExpenseSnapshot> snapshots = new ArrayList<>();
+        List<List<String>> frozen = new ArrayList<>();
+        Random random = new Random(5);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+
+        for (int i = 0; i < 6_000; i++) {
+            Expense expense = new Expense(i + 1, "Item " + i, random.nextBoolean() ? "Lainnya" : "Kesehatan",
+                    1 + random.nextInt(1000), start.plusDays(random.nextInt(100)), random.nextBoolean() ? null : "n" + i);
+            int op = random.nextInt(3);
+            if (op == 0 && table.size() > 0) {
+                table.set(random.nextInt(table.size()), expense);
+            } else if (op == 1 && table.size() > 0) {
+                table.removeAt(random.nextInt(table.size()));
+            } else {
+                table.add(expense);
+            }
+            if (i % 500 == 0) {
+                ExpenseSnapshot snapshot = table.snapshot(i);
+                snapshots.add(snapshot);
+                frozen.add(describe(snapshot));
+            }
+        }
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(frozen.get(i), describe(snapshots.get(i)));
+        }
+        List<Expense> rows = new ArrayList<>();
+        for (int position = 0; position < table.size(); position++) {
+            rows.add(table.get(position));
+        }
+        assertEquals(describe(rows), describe(table.snapshot(-1)));
+    }
+
+    public void testConcurrentSnapshotsStayFrozen() throws Exception {
+        ExpenseTable table = new ExpenseTable();
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 3_000; i++) {
+            table.add(new Expense(i + 1, "Item " + i, "Lainnya", 1000, date, "n" + i));
+        }
+
+        // Beberapa reader mengambil snapshot bersamaan (seperti di bawah read lock), lalu writer mengubah
+        for (int round = 0; round < 20; round++) {
+            List<ExpenseSnapshot> snapshots = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> readers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                readers.add(new Thread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        snapshots.add(table.snapshot(0));
+                    }
+                }));
+            }
+            for (Thread reader : readers) {
+                reader.start();
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            List<String> before = describe(snapshots.get(0));
+            for (int position = 0; position < table.size(); position += 100) {
+                table.set(position, new Expense(table.id(position), "Ubah " + round, "Kesehatan", 2000, date, null));
+            }
+            for (ExpenseSnapshot snapshot : snapshots) {
+                assertEquals(before, describe(snapshot));
+            }
+        }
+    }
+
+    private static List<String> describe(List<Expense> expenses) {
+        List<String> rows = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            rows.add(expense.getId() + "|" + expense.getDescription() + "|" + expense.getCategory() + "|"
+                    + expense.getAmount() + "|" + expense.getDate() + "|" + expense.getNotes());
+        }
+        return rows;
+    }
+}
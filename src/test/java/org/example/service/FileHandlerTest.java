@@ -0,0 +1,99 @@
+package org.example.service;
+
+import junit.framework.TestCase;
+import org.example.model.Expense;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Test untuk loader CSV: jalur memory-mapped harus menghasilkan data
+ * yang sama persis dengan jalur BufferedReader.
+ */
+public class FileHandlerTest extends TestCase {
+    private File dataFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        dataFile = File.createTempFile("expenses", ".csv");
+    }
+
+    @Override
+    protected void tearDown() {
+        dataFile.delete();
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(dataFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertSameExpenses(List<Expense> expected, List<Expense> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toCSV(), actual.get(i).toCSV());
+        }
+    }
+
+    public void testMappedLoaderMatchesReaderLoader() throws IOException {
+        write("id,description,category,amount,date,notes\n"
+                + "1,Makan siang,Makanan & Minuman,25000.0,2025-12-19,Kantin kampus\n"
+                + "2,Bensin motor,Transport & Bensin,50000,2025-12-18,-\r\n"
+                + "\n"
+                + "3,Laptop,Teknologi & Gadget,1.25E7,2025-01-19,\n"
+                + "4,Kopi ☕,Makanan & Minuman,0.05,2024-02-29,-\n"
+                + "5,Parkir,Transport & Bensin,2000.5,2025-12-18");
+
+        assertSameExpenses(FileHandler.loadFromCSV(dataFile), FileHandler.loadFromCSVMapped(dataFile));
+    }
+
+    public void testMappedLoaderSkipsInvalidLines() throws IOException {
+        write("id,description,category,amount,date,notes\n"
+                + "1,Makan siang,Makanan & Minuman,25000.0,2025-12-19,Kantin\n"
+                + "x,Rusak,Lainnya,abc,2025-13-40,-\n"
+                + "3,Buku,Pendidikan & Buku,80000.0,2025-12-17,-\n");
+
+        List<Expense> expenses = FileHandler.loadFromCSVMapped(dataFile);
+        assertEquals(2, expenses.size());
+        assertEquals(3, expenses.get(1).getId());
+    }
+
+    public void testParallelLoaderKeepsFileOrderAndMaxId() throws IOException {
+        List<Expense> generated = CsvLoadBenchmark.generate(100_000);
+        FileHandler.saveToCSV(generated, dataFile);
+
+        FileHandler.LoadResult result = FileHandler.loadFromCSVParallel(dataFile, 4);
+        assertSameExpenses(generated, result.getExpenses());
+        assertEquals(100_000, result.getMaxId());
+    }
+
+    public void testCompressedSnapshotRoundTrip() throws IOException {
+        List<Expense> expenses = CsvLoadBenchmark.generate(20_000);
+        expenses.add(new Expense(20_001, "Kopi ☕", "Makanan & Minuman", 0.05, java.time.LocalDate.of(1999, 1, 1), ""));
+        FileHandler.saveToCSV(expenses, dataFile);
+
+        File compressed = File.createTempFile("expenses", ".dz");
+        try {
+            assertTrue(FileHandler.saveToCompressed(expenses, compressed));
+            assertTrue(compressed.length() * 3 < dataFile.length());
+
+            FileHandler.LoadResult loaded = FileHandler.loadFromCompressed(compressed);
+            assertSameExpenses(expenses, loaded.getExpenses());
+            assertEquals(20_001, loaded.getMaxId());
+
+            // Blok yang rusak harus terdeteksi, bukan menghasilkan data salah
+            byte[] bytes = Files.readAllBytes(compressed.toPath());
+            bytes[bytes.length / 2] ^= 0x55;
+            Files.write(compressed.toPath(), bytes);
+            try {
+                FileHandler.loadFromCompressed(compressed);
+                fail("Snapshot rusak seharusnya ditolak");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            compressed.delete();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark lookup/update/delete per ID: scan linear (cara lama) vs IdIndex
+ * Jalankan manual (bukan bagian dari mvn test):
+ *   java -cp target/classes:target/test-classes org.example.service.IdLookupBenchmark [rows]
+ */
+public class IdLookupBenchmark {
+    private static final int OPERATIONS = 1_000;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File dir = Files.createTempDirectory("expense-id-bench").toFile();
+        File dataFile = new File(dir, "expenses.csv");
+        FileHandler.saveToCSV(CsvLoadBenchmark.generate(rows), dataFile);
+
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        List<Expense> all = manager.getAllExpenses();
+        Random random = new Random(1);
+        int[] ids = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            ids[i] = 1 + random.nextInt(rows);
+        }
+
+        long start = System.nanoTime();
+        long found = 0;
+        for (int id : ids) {
+            found += all.stream().filter(e -> e.getId() == id).findFirst().map(Expense::getId).orElse(0);
+        }
+        long scanNs = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int id : ids) {
+            found -= manager.getExpenseById(id).getId();
+        }
+        long indexNs = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int id : ids) {
+            manager.updateExpense(id, "Edit", "Lainnya", 1000, LocalDate.of(2024, 1, 1), "-");
+        }
+        long updateNs = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int deleted = 0;
+        for (int id : ids) {
+            if (manager.deleteExpense(id)) {
+                deleted++;
+            }
+        }
+        long deleteNs = System.nanoTime() - start;
+
+        System.out.printf("%,d baris, %,d operasi (checksum %d)%n", rows, OPERATIONS, found);
+        System.out.printf("lookup scan  : %,10.2f us/op%n", scanNs / 1000.0 / OPERATIONS);
+        System.out.printf("lookup index : %,10.2f us/op%n", indexNs / 1000.0 / OPERATIONS);
+        System.out.printf("update       : %,10.2f us/op (termasuk append journal)%n", updateNs / 1000.0 / OPERATIONS);
+        System.out.printf("delete       : %,10.2f us/op (%d baris, termasuk append journal)%n",
+                deleteNs / 1000.0 / OPERATIONS, deleted);
+
+        manager.close();
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.service;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark import mutasi: parse paralel + cek duplikat + addExpenses per batch,
+ * lalu import ulang file yang sama (semua baris duplikat)
+ * Jalankan manual (bukan bagian dari mvn test):
+ *   java -cp target/classes:target/test-classes org.example.service.ImportBenchmark [rows]
+ */
+public class ImportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dataDir = Files.createTempDirectory("import-bench");
+        File statement = new File(dataDir.toFile(), "mutasi.csv");
+        write(statement, rows);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        ImportMapping mapping = ImportMapping.columns(0, 3, 1);
+        mapping.setCategoryColumn(2);
+        mapping.setDelimiter(';');
+        mapping.setDecimalSeparator(',');
+        mapping.setDebitsNegative(true);
+
+        ExpenseManager manager = new ExpenseManager(new File(dataDir.toFile(), "expenses.csv"));
+        try {
+            for (int round = 1; round <= 2; round++) {
+                long start = System.nanoTime();
+                StatementImporter.ImportResult result = StatementImporter.importFile(manager, statement, mapping,
+                        cores, () -> false, (parsed, total, imported) -> { });
+                System.out.printf("Round %d: %,d baris dari %,d bytes dalam %,d ms (baru %,d, duplikat %,d)%n",
+                        round, rows, statement.length(), (System.nanoTime() - start) / 1_000_000,
+                        result.getImported(), result.getDuplicates());
+            }
+        } finally {
+            manager.close();
+            try (Stream<Path> paths = Files.walk(dataDir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static void write(File file, int rows) throws IOException {
+        Random random = new Random(42);
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            writer.write("Tanggal;Keterangan;Kategori;Mutasi");
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                writer.write(start.plusDays(i / 500).format(format) + ";\"TRSF E-BANKING " + random.nextInt(100_000)
+                        + "\";Lainnya;-" + (1 + random.nextInt(5_000)) + ".000,00");
+                writer.newLine();
+            }
+        }
+    }
+}
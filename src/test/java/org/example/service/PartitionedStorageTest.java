@@ -0,0 +1,144 @@
+package org.example.service;
+
+import junit.framework.TestCase;
+import org.example.model.Expense;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test layout per bulan: compaction hanya menulis partisi yang berubah,
+ * pembacaan per rentang tanggal, dan migrasi dari satu file.
+ */
+public class PartitionedStorageTest extends TestCase {
+    private File dataDir;
+    private File dataFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("expense-partitions").toFile();
+        dataFile = new File(dataDir, "expenses.csv");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(dataDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private StorageConfig partitionedConfig() {
+        StorageConfig config = StorageConfig.forDataFile(dataFile);
+        config.setSnapshotFormat(StorageConfig.SnapshotFormat.PARTITIONED);
+        return config;
+    }
+
+    private void compact(StorageConfig config) throws Exception {
+        ExpenseJournal journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        SnapshotCompactor compactor = new SnapshotCompactor(config, journal);
+        assertTrue(compactor.compactAsync().get());
+        compactor.shutdown();
+    }
+
+    public void testCompactionRewritesOnlyDirtyPartitions() throws Exception {
+        StorageConfig config = partitionedConfig();
+        ExpenseManager manager = new ExpenseManager(config);
+        manager.addExpense("Buku", "Pendidikan & Buku", 80000, LocalDate.of(2025, 10, 5), "-");
+        manager.addExpense("Bensin", "Transport & Bensin", 50000, LocalDate.of(2025, 11, 18), "-");
+        manager.addExpense("Makan", "Makanan & Minuman", 25000, LocalDate.of(2025, 12, 19), "-");
+        manager.close();
+        compact(config);
+
+        PartitionedStorage storage = new PartitionedStorage(config);
+        File october = storage.partitionFile(YearMonth.of(2025, 10));
+        assertTrue(october.exists());
+        assertTrue(october.setLastModified(0));
+
+        // Pindahkan data November ke Desember, Oktober tidak boleh ikut ditulis
+        manager = new ExpenseManager(config);
+        manager.updateExpense(2, "Bensin", "Transport & Bensin", 55000, LocalDate.of(2025, 12, 1), "-");
+        manager.close();
+        compact(config);
+
+        assertEquals(0, october.lastModified());
+        assertFalse(storage.partitionFile(YearMonth.of(2025, 11)).exists());
+        assertEquals(2, storage.loadMonth(YearMonth.of(2025, 12)).size());
+        assertEquals(2, storage.readManifest().get(YearMonth.of(2025, 12)).getRows());
+
+        List<Expense> december = FileHandler.loadRange(config,
+                LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 31)).getExpenses();
+        assertEquals(2, december.size());
+
+        ExpenseManager reopened = new ExpenseManager(config);
+        assertEquals(3, reopened.getTransactionCount());
+        assertEquals(LocalDate.of(2025, 12, 1), reopened.getExpenseById(2).getDate());
+        reopened.close();
+    }
+
+    public void testMigrationFromSingleFile() throws Exception {
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        manager.addExpense("Buku", "Pendidikan & Buku", 80000, LocalDate.of(2025, 10, 5), "-");
+        manager.addExpense("Makan", "Makanan & Minuman", 25000, LocalDate.of(2025, 12, 19), "-");
+        manager.close();
+        compact(StorageConfig.forDataFile(dataFile));
+
+        ExpenseManager migrated = new ExpenseManager(partitionedConfig());
+        assertEquals(2, migrated.getTransactionCount());
+        migrated.close();
+
+        PartitionedStorage storage = new PartitionedStorage(partitionedConfig());
+        assertTrue(storage.exists());
+        assertEquals(2, storage.readManifest().size());
+        assertFalse(dataFile.exists());
+        assertTrue(new File(dataFile.getPath() + ".migrated").exists());
+    }
+
+    public void testLazyLoadingOpensOldMonthsOnDemand() throws Exception {
+        StorageConfig config = partitionedConfig();
+        LocalDate today = LocalDate.now();
+        ExpenseManager manager = new ExpenseManager(config);
+        manager.addExpense("Buku", "Pendidikan & Buku", 80000, today.minusYears(2), "-");
+        manager.addExpense("Bensin", "Transport & Bensin", 50000, today.minusYears(1), "-");
+        manager.addExpense("Makan", "Makanan & Minuman", 25000, today, "-");
+        manager.close();
+
+        config.setLazyLoading(true);
+        config.setMemoryBudgetMb(0);
+        ExpenseManager lazy = new ExpenseManager(config);
+
+        // Journal sudah dilipat ke partisi saat startup
+        assertFalse(FileHandler.journalFileFor(dataFile).length() > 0);
+        assertEquals(3, lazy.getTransactionCount());
+        assertEquals(25000.0, lazy.getTotalToday());
+
+        LocalDate lastYear = today.minusYears(1);
+        assertEquals(1, lazy.filterByDateRange(lastYear, lastYear).size());
+        assertEquals(1, lazy.searchExpenses("buku").size());
+        assertEquals(3, lazy.getAllExpenses().size());
+        assertEquals(3, lazy.getTransactionCount());
+
+        // Bulan lama yang dibuka lalu dibuang tidak boleh merusak index data terbaru
+        assertEquals("Buku", lazy.getExpenseById(1).getDescription());
+        assertEquals(1, lazy.filterByDateRange(today, today).size());
+        assertEquals(25000.0, lazy.getTotalToday());
+        assertEquals(1, lazy.searchExpenses("makan").size());
+
+        // Update data lama membuat partisinya dirty, tidak boleh terduplikasi
+        assertTrue(lazy.updateExpense(1, "Buku Baru", "Pendidikan & Buku", 90000, today.minusYears(1), "-"));
+        assertEquals(3, lazy.getAllExpenses().size());
+        assertEquals(2, lazy.filterByDateRange(lastYear, lastYear).size());
+        assertTrue(lazy.addExpense("Kopi", "Makanan & Minuman", 15000, today, "-"));
+        assertEquals(4, lazy.getExpenseById(4).getId());
+        lazy.close();
+
+        ExpenseManager reopened = new ExpenseManager(config);
+        assertEquals(4, reopened.getTransactionCount());
+        assertEquals("Buku Baru", reopened.getExpenseById(1).getDescription());
+        reopened.close();
+    }
+}
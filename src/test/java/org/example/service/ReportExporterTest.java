@@ -0,0 +1,110 @@
+package org.example.service;
+
+import junit.framework.TestCase;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+
+/**
+ * Test export streaming: semua format, partisi yang belum dimuat, dan pembatalan.
+ */
+public class ReportExporterTest extends TestCase {
+    private File dataDir;
+    private File dataFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("expense-export").toFile();
+        dataFile = new File(dataDir, "expenses.csv");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(dataDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    public void testExportStreamsUnloadedPartitions() throws Exception {
+        StorageConfig config = StorageConfig.forDataFile(dataFile);
+        config.setSnapshotFormat(StorageConfig.SnapshotFormat.PARTITIONED);
+        LocalDate today = LocalDate.now();
+        ExpenseManager manager = new ExpenseManager(config);
+        manager.addExpense("Buku \"Java\"", "Pendidikan & Buku", 80000, today.minusYears(2), "-");
+        manager.addExpense("Bensin", "Transport & Bensin", 50000.5, today.minusYears(1), "-");
+        manager.addExpense("Makan", "Makanan & Minuman", 25000, today, "-");
+        manager.close();
+
+        config.setLazyLoading(true);
+        ExpenseManager lazy = new ExpenseManager(config);
+
+        File jsonl = new File(dataDir, "laporan.jsonl");
+        long rows = ReportExporter.export(lazy.openRange(LocalDate.MIN, LocalDate.MAX),
+                ReportExporter.Format.JSONL, "SEMUA HISTORI", jsonl, () -> false, (written, total) -> { });
+        assertEquals(3, rows);
+        List<String> lines = Files.readAllLines(jsonl.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertTrue(lines.contains("{\"id\":1,\"description\":\"Buku \\\"Java\\\"\",\"category\":\"Pendidikan & Buku\","
+                + "\"amount\":80000,\"date\":\"" + today.minusYears(2) + "\",\"notes\":\"-\"}"));
+        assertTrue(lines.get(lines.size() - 1).contains("\"amount\":50000.5"));
+
+        File csv = new File(dataDir, "laporan.csv");
+        ReportExporter.export(lazy.openRange(today.minusYears(1), today),
+                ReportExporter.Format.CSV, "", csv, () -> false, (written, total) -> { });
+        assertEquals(2, FileHandler.loadFromCSV(csv).size());
+
+        File txt = new File(dataDir, "laporan.txt");
+        ReportExporter.export(lazy.openRange(today, today),
+                ReportExporter.Format.TXT, "HARIAN", txt, () -> false, (written, total) -> { });
+        String report = new String(Files.readAllBytes(txt.toPath()), StandardCharsets.UTF_8);
+        assertTrue(report.contains("LAPORAN PENGELUARAN - HARIAN"));
+        assertTrue(report.contains("Jumlah Transaksi: 1"));
+        lazy.close();
+    }
+
+    public void testNullNotesAreExportedAndCompactedAsEmpty() throws Exception {
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        assertTrue(manager.addExpense("Tab\tdan \\ garis", "Lainnya", 1000, LocalDate.of(2025, 12, 1), null));
+        assertEquals("", manager.getExpenseById(1).getNotes());
+
+        File jsonl = new File(dataDir, "laporan.jsonl");
+        ReportExporter.export(manager.openRange(LocalDate.MIN, LocalDate.MAX),
+                ReportExporter.Format.JSONL, "", jsonl, () -> false, (written, total) -> { });
+        assertEquals("{\"id\":1,\"description\":\"Tab\\tdan \\\\ garis\",\"category\":\"Lainnya\","
+                + "\"amount\":1000,\"date\":\"2025-12-01\",\"notes\":\"\"}",
+                Files.readAllLines(jsonl.toPath(), StandardCharsets.UTF_8).get(0));
+        manager.close();
+
+        StorageConfig config = StorageConfig.forDataFile(dataFile);
+        config.setSnapshotFormat(StorageConfig.SnapshotFormat.BINARY);
+        ExpenseJournal journal = new ExpenseJournal(FileHandler.journalFileFor(dataFile));
+        SnapshotCompactor compactor = new SnapshotCompactor(config, journal);
+        assertTrue(compactor.compactAsync().get());
+        compactor.shutdown();
+        assertEquals("", FileHandler.loadFromBinary(FileHandler.binaryFileFor(dataFile)).getExpenses().get(0).getNotes());
+    }
+
+    public void testCancelledExportLeavesNoFile() throws Exception {
+        File csvFile = new File(dataDir, "big.csv");
+        FileHandler.saveToCSV(CsvLoadBenchmark.generate(5000), csvFile);
+        ExpenseManager manager = new ExpenseManager(csvFile);
+
+        File out = new File(dataDir, "laporan.txt");
+        try {
+            ReportExporter.export(manager.openRange(LocalDate.MIN, LocalDate.MAX),
+                    ReportExporter.Format.TXT, "SEMUA HISTORI", out, () -> true, (written, total) -> { });
+            fail("Export seharusnya dibatalkan");
+        } catch (CancellationException e) {
+            // expected
+        }
+        assertFalse(out.exists());
+        assertFalse(new File(out.getPath() + ".tmp").exists());
+        manager.close();
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.service;
+
+import org.example.model.Expense;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark searchExpenses: scan penuh (cara lama) vs TrigramIndex
+ * Jalankan manual (bukan bagian dari mvn test):
+ *   java -cp target/classes:target/test-classes org.example.service.SearchBenchmark [rows]
+ */
+public class SearchBenchmark {
+    private static final String[] KEYWORDS = {"transaksi 4242", "4242", "catatan 42", "hiburan", "xyz"};
+    private static final int ROUNDS = 50;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File dir = Files.createTempDirectory("expense-search-bench").toFile();
+        File dataFile = new File(dir, "expenses.csv");
+        FileHandler.saveToCSV(CsvLoadBenchmark.generate(rows), dataFile);
+
+        ExpenseManager manager = new ExpenseManager(dataFile);
+        List<Expense> all = manager.getAllExpenses();
+
+        for (String keyword : KEYWORDS) {
+            String term = keyword.toLowerCase();
+            int scanHits = 0;
+            long start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                scanHits = all.stream()
+                        .filter(e -> e.getDescription().toLowerCase().contains(term) ||
+                                e.getCategory().toLowerCase().contains(term) ||
+                                e.getFormattedDate().contains(term))
+                        .collect(Collectors.toList()).size();
+            }
+            long scanNs = (System.nanoTime() - start) / ROUNDS;
+
+            int indexHits = 0;
+            start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                indexHits = manager.searchExpenses(keyword).size();
+            }
+            long indexNs = (System.nanoTime() - start) / ROUNDS;
+
+            System.out.printf("%-16s scan %,9.3f ms (%,d hasil) | index %,9.3f ms (%,d hasil)%n",
+                    '"' + keyword + '"', scanNs / 1e6, scanHits, indexNs / 1e6, indexHits);
+        }
+
+        manager.close();
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+}
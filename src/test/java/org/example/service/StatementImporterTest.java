@@ -0,0 +1,126 @@
+package org.example.service;
+
+import junit.framework.TestCase;
+import org.example.model.Expense;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test import mutasi: mapping kolom, format angka/tanggal lokal, kredit dilewati,
+ * dan import ulang file yang sama tidak menambah baris.
+ */
+public class StatementImporterTest extends TestCase {
+    private File dataDir;
+    private ExpenseManager manager;
+
+    @Override
+    protected void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("statement-import").toFile();
+        manager = new ExpenseManager(new File(dataDir, "expenses.csv"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        manager.close();
+        try (Stream<Path> paths = Files.walk(dataDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private File write(String content) throws Exception {
+        File file = new File(dataDir, "mutasi.csv");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private StatementImporter.ImportResult importFile(File file, ImportMapping mapping, int parallelism) throws Exception {
+        return StatementImporter.importFile(manager, file, mapping, parallelism, () -> false, (parsed, total, imported) -> { });
+    }
+
+    public void testMappingAndDuplicates() throws Exception {
+        File file = write("Tanggal;Keterangan;Kategori;Mutasi\n"
+                + "01/12/2025;\"Kopi; Susu\";Makanan & Minuman;-25.000,00\n"
+                + "01/12/2025;Gaji;;5.000.000,00\n"
+                + "02/12/2025;\"Toko \"\"Maju\"\"\";;Rp -1.250.000,50\r\n"
+                + "\n"
+                + "32/12/2025;Rusak;;-1.000\n"
+                + "03/12/2025;Kopi; Susu;Makanan & Minuman;-25.000\n");
+        ImportMapping mapping = ImportMapping.columns(0, 3, 1);
+        mapping.setCategoryColumn(2);
+        mapping.setDelimiter(';');
+        mapping.setDecimalSeparator(',');
+        mapping.setDebitsNegative(true);
+
+        StatementImporter.ImportResult result = importFile(file, mapping, 1);
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getCredits());
+        assertEquals(2, result.getRejected());
+
+        List<Expense> all = manager.sortByAmountDesc();
+        assertEquals("Toko \"Maju\"", all.get(0).getDescription());
+        assertEquals("Lainnya", all.get(0).getCategory());
+        assertEquals(125000050L, all.get(0).getAmountSen());
+        assertEquals(LocalDate.of(2025, 12, 2), all.get(0).getDate());
+        assertEquals("Kopi; Susu", all.get(1).getDescription());
+        assertEquals(25000.0, all.get(1).getAmount(), 0.0);
+
+        result = importFile(file, mapping, 1);
+        assertEquals(0, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(2, manager.getTransactionCount());
+    }
+
+    public void testQuotedCommaSurvivesReload() throws Exception {
+        File file = write("date,description,amount,notes\n"
+                + "2025-12-01,\"Transfer, BCA\",150000,\"a,b\"\n"
+                + "2025-12-02,Pulsa,50000,-\n");
+        ImportMapping mapping = ImportMapping.columns(0, 2, 1);
+        mapping.setNotesColumn(3);
+        mapping.setDatePattern("yyyy-MM-dd");
+
+        assertEquals(2, importFile(file, mapping, 1).getImported());
+        manager.close();
+        manager = new ExpenseManager(new File(dataDir, "expenses.csv"));
+        assertEquals(2, manager.getTransactionCount());
+        Expense transfer = manager.getExpenseById(1);
+        assertEquals("Transfer BCA", transfer.getDescription());
+        assertEquals("a b", transfer.getNotes());
+        assertEquals(150000.0, transfer.getAmount(), 0.0);
+        assertEquals("Pulsa", manager.getExpenseById(2).getDescription());
+    }
+
+    public void testParallelImportKeepsFileOrder() throws Exception {
+        StringBuilder content = new StringBuilder("date,description,amount\n");
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 200_000; i++) {
+            content.append(start.plusDays(i % 365)).append(",Item ").append(i).append(',').append(1000 + i % 500).append('\n');
+        }
+        File file = write(content.toString());
+        ImportMapping mapping = ImportMapping.columns(0, 2, 1);
+        mapping.setDatePattern("yyyy-MM-dd");
+
+        long[] lastImported = {0};
+        StatementImporter.ImportResult result = StatementImporter.importFile(manager, file, mapping, 4, () -> false,
+                (parsed, total, imported) -> {
+                    assertTrue(parsed <= total);
+                    assertTrue(imported >= lastImported[0]);
+                    lastImported[0] = imported;
+                });
+        assertEquals(200_000, result.getImported());
+        assertEquals(200_000, lastImported[0]);
+        List<Expense> all = manager.getAllExpenses();
+        for (int i = 0; i < all.size(); i += 9_973) {
+            assertEquals("Item " + i, all.get(i).getDescription());
+            assertEquals(i + 1, all.get(i).getId());
+        }
+        // Batch besar menunda TrigramIndex; pencarian pertama membangunnya ulang
+        assertEquals(1, manager.searchExpenses("item 199999").size());
+        assertEquals(200_000, importFile(file, mapping, 4).getDuplicates());
+    }
+}